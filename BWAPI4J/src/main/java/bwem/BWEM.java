@@ -13,12 +13,16 @@
 package bwem;
 
 import bwem.map.Map;
+import bwem.map.MapAnalysisCache;
 import bwem.map.MapInitializer;
 import bwem.map.MapInitializerImpl;
+import java.nio.file.Path;
 import org.openbw.bwapi4j.BW;
 
 public final class BWEM {
   private final Map map;
+  private Path analysisCacheDirectory = null;
+  private boolean analysisCacheValidation = false;
 
   public BWEM(final BW bw) {
     this.map =
@@ -36,6 +40,31 @@ public final class BWEM {
     return this.map;
   }
 
+  /**
+   * Sets the directory in which {@link #initialize()} caches the analysis of each map, keyed by map
+   * hash. On a cache hit the most expensive initialization stages are skipped. Default is {@code
+   * null}, which disables the cache.
+   */
+  public void setAnalysisCacheDirectory(final Path directory) {
+    this.analysisCacheDirectory = directory;
+  }
+
+  public Path getAnalysisCacheDirectory() {
+    return this.analysisCacheDirectory;
+  }
+
+  /**
+   * Whether {@link #initialize()} recomputes the analysis even if it is cached, compares both and
+   * replaces the cached one if they differ. Default is {@code false}.
+   */
+  public void setAnalysisCacheValidation(final boolean analysisCacheValidation) {
+    this.analysisCacheValidation = analysisCacheValidation;
+  }
+
+  public boolean isAnalysisCacheValidation() {
+    return this.analysisCacheValidation;
+  }
+
   /**
    * Default value for {@code enableTimer} is {@code false}.
    *
@@ -54,7 +83,13 @@ public final class BWEM {
     if (!(this.map instanceof MapInitializer)) {
       throw new IllegalStateException("BWEM was not instantiated properly.");
     } else {
-      ((MapInitializer) this.map).initialize(enableTimer);
+      ((MapInitializer) this.map)
+          .initialize(
+              enableTimer,
+              (this.analysisCacheDirectory == null)
+                  ? null
+                  : new MapAnalysisCache(
+                      this.analysisCacheDirectory, this.analysisCacheValidation));
     }
   }
 }
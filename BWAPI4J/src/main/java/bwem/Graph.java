@@ -21,7 +21,6 @@ import bwem.map.Map;
 import bwem.map.TerrainData;
 import bwem.tile.MiniTile;
 import bwem.tile.Tile;
-import bwem.tile.TileImpl;
 import bwem.typedef.Altitude;
 import bwem.typedef.CPPath;
 import bwem.typedef.Index;
@@ -31,19 +30,17 @@ import bwem.unit.Neutral;
 import bwem.unit.StaticBuilding;
 import bwem.util.Asserts;
 import bwem.util.BwemExt;
+import bwem.util.IndexedMinHeap;
 import bwem.util.Utils;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.openbw.bwapi4j.Position;
 import org.openbw.bwapi4j.TilePosition;
 import org.openbw.bwapi4j.WalkPosition;
-import org.openbw.bwapi4j.util.Pair;
 
 public final class Graph {
   private final Map map;
@@ -544,9 +541,7 @@ public final class Graph {
     }
 
     // 2) Compute distances inside each Area
-    for (final Area area : getAreas()) {
-      computeChokePointDistances(area);
-    }
+    computeChokePointDistances(getAreas());
 
     // 3) Compute distances through connected areas
     computeChokePointDistances(this);
@@ -617,20 +612,39 @@ public final class Graph {
   // If Context == Area, Dijkstra's algorithm works on the Tiles inside one Area.
   // If Context == Graph, Dijkstra's algorithm works on the getChokePoints between the AreaS.
 
-  private void computeChokePointDistances(final Area pContext) {
-    for (final ChokePoint pStart : pContext.getChokePoints()) {
-      final List<ChokePoint> targets = new ArrayList<>();
-      for (final ChokePoint cp : pContext.getChokePoints()) {
-        if (cp.equals(pStart)) {
-          break; // breaks symmetry
+  // The searches inside the Areas only read the Tiles, so they run in parallel. Their results are
+  // applied in the same order as if they had run sequentially, which keeps the matrix identical.
+  private void computeChokePointDistances(final List<Area> pContexts) {
+    final List<Area> contexts = new ArrayList<>();
+    final List<ChokePoint> starts = new ArrayList<>();
+    final List<List<ChokePoint>> targetLists = new ArrayList<>();
+    for (final Area pContext : pContexts) {
+      for (final ChokePoint pStart : pContext.getChokePoints()) {
+        final List<ChokePoint> targets = new ArrayList<>();
+        for (final ChokePoint cp : pContext.getChokePoints()) {
+          if (cp.equals(pStart)) {
+            break; // breaks symmetry
+          }
+          targets.add(cp);
         }
-        targets.add(cp);
+        contexts.add(pContext);
+        starts.add(pStart);
+        targetLists.add(targets);
       }
+    }
 
-      final int[] distanceToTargets =
-          ((AreaInitializer) pContext).computeDistances(pStart, targets);
+    final int[][] distancesToTargets = new int[starts.size()][];
+    IntStream.range(0, starts.size())
+        .parallel()
+        .forEach(
+            i ->
+                distancesToTargets[i] =
+                    ((AreaInitializer) contexts.get(i))
+                        .computeDistances(starts.get(i), targetLists.get(i)));
 
-      setPathForComputeChokePointDistances(distanceToTargets, pStart, targets, false);
+    for (int i = 0; i < starts.size(); ++i) {
+      setPathForComputeChokePointDistances(
+          distancesToTargets[i], starts.get(i), targetLists.get(i), false);
     }
   }
 
@@ -701,25 +715,23 @@ public final class Graph {
   private int[] computeDistances(final ChokePoint start, final List<ChokePoint> targets) {
     final int[] distances = new int[targets.size()];
 
-    TileImpl.getStaticMarkable().unmarkAll();
+    final ChokePoint[] chokePointsByIndex = new ChokePoint[this.chokePoints.size()];
+    for (final ChokePoint cp : this.chokePoints) {
+      chokePointsByIndex[((ChokePointImpl) cp).getIndex().intValue()] = cp;
+    }
+    final boolean[] visited = new boolean[chokePointsByIndex.length];
 
-    final Queue<Pair<Integer, ChokePoint>> toVisit =
-        new PriorityQueue<>(Comparator.comparingInt(a -> a.getFirst()));
-    toVisit.offer(new Pair<>(0, start));
+    // the ChokePoints to visit ordered by their distance to start, indexed by ChokePoint index
+    final IndexedMinHeap toVisit = new IndexedMinHeap(chokePointsByIndex.length);
+    toVisit.add(((ChokePointImpl) start).getIndex().intValue(), 0);
 
     int remainingTargets = targets.size();
     while (!toVisit.isEmpty()) {
-      final Pair<Integer, ChokePoint> distanceAndChokePoint = toVisit.poll();
-      final int currentDist = distanceAndChokePoint.getFirst();
-      final ChokePoint current = distanceAndChokePoint.getSecond();
-      final Tile currentTile =
-          getMap().getData().getTile(current.getCenter().toTilePosition(), CheckMode.NO_CHECK);
-
-      //            bwem_assert(currentTile.InternalData() == currentDist);
-      Asserts.bwem_assert(((TileImpl) currentTile).getInternalData() == currentDist);
+      final int currentDist = toVisit.peekKey();
+      final int currentIndex = toVisit.poll();
+      final ChokePoint current = chokePointsByIndex[currentIndex];
 
-      ((TileImpl) currentTile).setInternalData(0); // resets Tile::m_internalData for future usage
-      ((TileImpl) currentTile).getMarkable().setMarked();
+      visited[currentIndex] = true;
 
       for (int i = 0; i < targets.size(); ++i) {
         if (current == targets.get(i)) {
@@ -738,63 +750,34 @@ public final class Graph {
       for (final Area pArea :
           new Area[] {current.getAreas().getFirst(), current.getAreas().getSecond()}) {
         for (final ChokePoint next : pArea.getChokePoints()) {
-          if (!next.equals(current)) {
+          final int nextIndex = ((ChokePointImpl) next).getIndex().intValue();
+          if (nextIndex != currentIndex && !visited[nextIndex]) {
             final int newNextDist = currentDist + distance(current, next);
-            final Tile nextTile =
-                getMap().getData().getTile(next.getCenter().toTilePosition(), CheckMode.NO_CHECK);
-            if (!((TileImpl) nextTile).getMarkable().isMarked()) {
-              if (((TileImpl) nextTile).getInternalData() != 0) { // next already in toVisit
-                if (newNextDist
-                    < ((TileImpl) nextTile).getInternalData()) { // nextNewDist < nextOldDist
-                  // To update next's distance, we need to remove-insert it from toVisit:
-                  //                                    bwem_assert(iNext != range.second);
-                  final boolean removed =
-                      toVisit.remove(new Pair<>(((TileImpl) nextTile).getInternalData(), next));
-                  if (!removed) {
-                    Asserts.bwem_assert(false);
-                  }
-
-                  ((TileImpl) nextTile).setInternalData(newNextDist);
-                  ((ChokePointImpl) next).setPathBackTrace(current);
-                  toVisit.offer(new Pair<>(newNextDist, next));
-                }
-              } else {
-                ((TileImpl) nextTile).setInternalData(newNextDist);
+            if (toVisit.contains(nextIndex)) {
+              if (newNextDist < toVisit.getKey(nextIndex)) { // nextNewDist < nextOldDist
+                toVisit.decreaseKey(nextIndex, newNextDist);
                 ((ChokePointImpl) next).setPathBackTrace(current);
-                toVisit.offer(new Pair<>(newNextDist, next));
               }
+            } else {
+              toVisit.add(nextIndex, newNextDist);
+              ((ChokePointImpl) next).setPathBackTrace(current);
             }
           }
         }
       }
     }
 
-    //    //	bwem_assert(!remainingTargets);
-    //        if (!(remainingTargets == 0)) {
-    //            throw new IllegalStateException();
-    //        }
-
-    // reset Tile::m_internalData for future usage
-    for (Pair<Integer, ChokePoint> distanceToChokePoint : toVisit) {
-      ((TileImpl)
-              getMap()
-                  .getData()
-                  .getTile(
-                      distanceToChokePoint.getSecond().getCenter().toTilePosition(),
-                      CheckMode.NO_CHECK))
-          .setInternalData(0);
-    }
-
     return distances;
   }
 
   private void updateGroupIds() {
     int nextGroupId = 1;
 
-    AreaInitializerImpl.getStaticMarkable().unmarkAll();
+    // the Areas already reached, indexed by AreaId
+    final boolean[] marked = new boolean[getAreas().size() + 1];
 
     for (final Area start : getAreas()) {
-      if (!((AreaInitializer) start).getMarkable().isMarked()) {
+      if (!marked[start.getId().intValue()]) {
         final List<Area> toVisit = new ArrayList<>();
         toVisit.add(start);
         while (!toVisit.isEmpty()) {
@@ -802,8 +785,8 @@ public final class Graph {
           ((AreaInitializer) current).setGroupId(new GroupId(nextGroupId));
 
           for (final Area next : current.getAccessibleNeighbors()) {
-            if (!((AreaInitializer) next).getMarkable().isMarked()) {
-              ((AreaInitializer) next).getMarkable().setMarked();
+            if (!marked[next.getId().intValue()]) {
+              marked[next.getId().intValue()] = true;
               toVisit.add(next);
             }
           }
@@ -35,7 +35,6 @@ import org.openbw.bwapi4j.WalkPosition;
  * at least one ChokePoint.<br>
  * Like ChokePoints and Bases, the number and the addresses of Area instances remain unchanged.<br>
  * To access Areas one can use their ids or their addresses with equivalent efficiency.<br>
- * Areas inherit utils::Markable, which provides marking ability.<br>
  * Areas inherit utils::UserData, which provides free-to-use data.
  */
 public interface Area {
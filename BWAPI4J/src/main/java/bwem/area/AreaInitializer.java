@@ -13,7 +13,6 @@
 package bwem.area;
 
 import bwem.ChokePoint;
-import bwem.Markable;
 import bwem.area.typedef.GroupId;
 import bwem.map.Map;
 import bwem.map.TerrainData;
@@ -24,8 +23,6 @@ import java.util.List;
 import org.openbw.bwapi4j.TilePosition;
 
 public interface AreaInitializer {
-  Markable getMarkable();
-
   void addChokePoints(Area area, List<ChokePoint> chokePoints);
 
   void addMineral(final Mineral mineral);
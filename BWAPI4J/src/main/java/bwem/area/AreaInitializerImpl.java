@@ -18,8 +18,6 @@ import bwem.Base;
 import bwem.BaseImpl;
 import bwem.CheckMode;
 import bwem.ChokePoint;
-import bwem.Markable;
-import bwem.StaticMarkable;
 import bwem.area.typedef.AreaId;
 import bwem.area.typedef.GroupId;
 import bwem.map.Map;
@@ -34,19 +32,19 @@ import bwem.unit.Resource;
 import bwem.unit.StaticBuilding;
 import bwem.util.Asserts;
 import bwem.util.BwemExt;
+import bwem.util.IndexedMinHeap;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import org.openbw.bwapi4j.TilePosition;
 import org.openbw.bwapi4j.WalkPosition;
 import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.util.MathUtils;
 import org.openbw.bwapi4j.util.Pair;
 
 public class AreaInitializerImpl extends AreaImpl implements AreaInitializer {
-  private static final StaticMarkable staticMarkable = new StaticMarkable();
-  private final Markable markable;
+  // The 8 neighbours of a tile, visited by computeDistances.
+  private static final int[] DELTA_X = {-1, 0, +1, -1, +1, -1, 0, +1};
+  private static final int[] DELTA_Y = {-1, -1, -1, 0, 0, +1, +1, +1};
 
   private final Map map;
 
@@ -56,8 +54,6 @@ public class AreaInitializerImpl extends AreaImpl implements AreaInitializer {
 
     this.map = map;
 
-    this.markable = new Markable(staticMarkable);
-
     //        bwem_assert(areaId > 0);
     if (!(areaId.intValue() > 0)) {
       throw new IllegalArgumentException();
@@ -74,15 +70,6 @@ public class AreaInitializerImpl extends AreaImpl implements AreaInitializer {
     super.highestAltitude = topMiniTile.getAltitude();
   }
 
-  public static StaticMarkable getStaticMarkable() {
-    return staticMarkable;
-  }
-
-  @Override
-  public Markable getMarkable() {
-    return this.markable;
-  }
-
   @Override
   public void addChokePoints(final Area area, final List<ChokePoint> chokePoints) {
     //        bwem_assert(!getChokePointsByArea[pArea] && pChokePoints);
@@ -206,33 +193,29 @@ public class AreaInitializerImpl extends AreaImpl implements AreaInitializer {
   public int[] computeDistances(final TilePosition start, final List<TilePosition> targets) {
     final int[] distances = new int[targets.size()];
 
-    TileImpl.getStaticMarkable().unmarkAll();
+    final TilePosition mapSize = getMap().getData().getMapData().getTileSize();
+    final int width = mapSize.getX();
+    final int height = mapSize.getY();
 
-    final Queue<Pair<Integer, TilePosition>> toVisit =
-        new PriorityQueue<>(
-            Comparator.comparingInt(
-                Pair::getFirst)); // a priority queue holding the tiles to visit ordered by their
-    // distance to start.
-    toVisit.offer(new Pair<>(0, start));
+    // the tiles to visit ordered by their distance to start, a tile being indexed by y * width + x
+    final IndexedMinHeap toVisit = new IndexedMinHeap(width * height);
+    // the tiles already visited; unlike the Tile marks this is private to the search, so several
+    // searches can run concurrently
+    final boolean[] visited = new boolean[width * height];
+    toVisit.add(start.getY() * width + start.getX(), 0);
 
     int remainingTargets = targets.size();
     while (!toVisit.isEmpty()) {
-      final Pair<Integer, TilePosition> distanceAndTilePosition = toVisit.poll();
-      final int currentDist = distanceAndTilePosition.getFirst();
-      final TilePosition current = distanceAndTilePosition.getSecond();
-      final Tile currentTile = getMap().getData().getTile(current, CheckMode.NO_CHECK);
+      final int currentDist = toVisit.peekKey();
+      final int currentIndex = toVisit.poll();
+      final int currentX = currentIndex % width;
+      final int currentY = currentIndex / width;
 
-      //            bwem_assert(currentTile.InternalData() == currentDist);
-      Asserts.bwem_assert(((TileImpl) currentTile).getInternalData() == currentDist, "currentTile.InternalData().intValue()="
-          + ((TileImpl) currentTile).getInternalData()
-          + ", currentDist="
-          + currentDist);
-
-      ((TileImpl) currentTile).setInternalData(0); // resets Tile::m_internalData for future usage
-      ((TileImpl) currentTile).getMarkable().setMarked();
+      visited[currentIndex] = true;
 
       for (int i = 0; i < targets.size(); ++i) {
-        if (current.equals(targets.get(i))) {
+        final TilePosition target = targets.get(i);
+        if (target.getX() == currentX && target.getY() == currentY) {
           distances[i] = (int) Math.round(currentDist * 32.0 / 10000.0);
           --remainingTargets;
         }
@@ -241,41 +224,26 @@ public class AreaInitializerImpl extends AreaImpl implements AreaInitializer {
         break;
       }
 
-      final TilePosition[] deltas = {
-        new TilePosition(-1, -1),
-        new TilePosition(0, -1),
-        new TilePosition(+1, -1),
-        new TilePosition(-1, 0),
-        new TilePosition(+1, 0),
-        new TilePosition(-1, +1),
-        new TilePosition(0, +1),
-        new TilePosition(+1, +1)
-      };
-      for (final TilePosition delta : deltas) {
-        final boolean diagonalMove = (delta.getX() != 0) && (delta.getY() != 0);
+      for (int d = 0; d < DELTA_X.length; ++d) {
+        final int nextX = currentX + DELTA_X[d];
+        final int nextY = currentY + DELTA_Y[d];
+        if (nextX < 0 || nextY < 0 || nextX >= width || nextY >= height) {
+          continue;
+        }
+        final boolean diagonalMove = (DELTA_X[d] != 0) && (DELTA_Y[d] != 0);
         final int newNextDist = currentDist + (diagonalMove ? 14142 : 10000);
 
-        final TilePosition next = current.add(delta);
-        if (getMap().getData().getMapData().isValid(next)) {
-          final Tile nextTile = getMap().getData().getTile(next, CheckMode.NO_CHECK);
-          if (!((TileImpl) nextTile).getMarkable().isMarked()) {
-            if (((TileImpl) nextTile).getInternalData() != 0) { // next already in toVisit
-              if (newNextDist
-                  < ((TileImpl) nextTile).getInternalData()) { // nextNewDist < nextOldDist
-                // To update next's distance, we need to remove-insert it from toVisit:
-                // bwem_assert(iNext != range.second);
-                final boolean removed =
-                    toVisit.remove(new Pair<>(((TileImpl) nextTile).getInternalData(), next));
-                Asserts.bwem_assert(removed);
-
-                ((TileImpl) nextTile).setInternalData(newNextDist);
-                toVisit.offer(new Pair<>(newNextDist, next));
-              }
-            } else if ((nextTile.getAreaId().equals(getId()))
-                || (nextTile.getAreaId().equals(UNINITIALIZED))) {
-              ((TileImpl) nextTile).setInternalData(newNextDist);
-              toVisit.offer(new Pair<>(newNextDist, next));
-            }
+        final int nextIndex = nextY * width + nextX;
+        if (toVisit.contains(nextIndex)) {
+          if (newNextDist < toVisit.getKey(nextIndex)) {
+            toVisit.decreaseKey(nextIndex, newNextDist);
+          }
+        } else if (!visited[nextIndex]) {
+          final Tile nextTile =
+              getMap().getData().getTile(new TilePosition(nextX, nextY), CheckMode.NO_CHECK);
+          if ((nextTile.getAreaId().equals(getId()))
+              || (nextTile.getAreaId().equals(UNINITIALIZED))) {
+            toVisit.add(nextIndex, newNextDist);
           }
         }
       }
@@ -284,13 +252,6 @@ public class AreaInitializerImpl extends AreaImpl implements AreaInitializer {
     //        bwem_assert(!remainingTargets);
     Asserts.bwem_assert(remainingTargets == 0);
 
-    for (final Pair<Integer, TilePosition> distanceAndTilePosition : toVisit) {
-      final TileImpl tileToUpdate =
-          ((TileImpl)
-              getMap().getData().getTile(distanceAndTilePosition.getSecond(), CheckMode.NO_CHECK));
-      tileToUpdate.setInternalData(0);
-    }
-
     return distances;
   }
 
@@ -368,7 +329,12 @@ public class AreaInitializerImpl extends AreaImpl implements AreaInitializer {
               getBottomRight().subtract(resourceDepotDimensions).add(new TilePosition(1, 1)));
 
       // 2) Mark the Tiles with their distances from each remaining Resource (Potential Fields >= 0)
-      for (final Resource r : remainingResources)
+      for (final Resource r : remainingResources) {
+        final long resourceTopLeft =
+            MathUtils.packedTileToPixel(
+                MathUtils.pack(r.getTopLeft().getX(), r.getTopLeft().getY()));
+        final long resourceSize =
+            MathUtils.packedTileToPixel(MathUtils.pack(r.getSize().getX(), r.getSize().getY()));
         for (int dy =
                 -resourceDepotDimensions.getY()
                     - BwemExt.MAX_TILES_BETWEEN_COMMAND_CENTER_AND_RESOURCES;
@@ -388,11 +354,14 @@ public class AreaInitializerImpl extends AreaImpl implements AreaInitializer {
             final TilePosition deltaTilePosition = r.getTopLeft().add(new TilePosition(dx, dy));
             if (terrainData.getMapData().isValid(deltaTilePosition)) {
               final Tile tile = terrainData.getTile(deltaTilePosition, CheckMode.NO_CHECK);
+              final long deltaTileCenter =
+                  MathUtils.pack(
+                      deltaTilePosition.getX() * TilePosition.SIZE_IN_PIXELS
+                          + TilePosition.SIZE_IN_PIXELS / 2,
+                      deltaTilePosition.getY() * TilePosition.SIZE_IN_PIXELS
+                          + TilePosition.SIZE_IN_PIXELS / 2);
               int dist =
-                  (BwemExt.distToRectangle(
-                              BwemExt.center(deltaTilePosition),
-                              r.getTopLeft().toPosition(),
-                              r.getSize().toPosition())
+                  (BwemExt.distToRectangle(deltaTileCenter, resourceTopLeft, resourceSize)
                           + (TilePosition.SIZE_IN_PIXELS / 2))
                       / TilePosition.SIZE_IN_PIXELS;
               int score =
@@ -407,6 +376,7 @@ public class AreaInitializerImpl extends AreaImpl implements AreaInitializer {
               }
             }
           }
+      }
 
       // 3) Invalidate the 7 x 7 Tiles around each remaining Resource (Starcraft rule)
       for (final Resource r : remainingResources)
@@ -471,9 +441,16 @@ public class AreaInitializerImpl extends AreaImpl implements AreaInitializer {
       // 6) Create a new Base at bestLocation, assign to it the relevant resources and remove them
       // from RemainingResources:
       final List<Resource> assignedResources = new ArrayList<>();
+      final long packedBestLocation =
+          MathUtils.packedTileToPixel(MathUtils.pack(bestLocation.getX(), bestLocation.getY()));
+      final long packedDepotSize =
+          MathUtils.packedTileToPixel(
+              MathUtils.pack(resourceDepotDimensions.getX(), resourceDepotDimensions.getY()));
       for (final Resource r : remainingResources) {
         if (BwemExt.distToRectangle(
-                    r.getCenter(), bestLocation.toPosition(), resourceDepotDimensions.toPosition())
+                    MathUtils.pack(r.getCenter().getX(), r.getCenter().getY()),
+                    packedBestLocation,
+                    packedDepotSize)
                 + 2
             <= BwemExt.MAX_TILES_BETWEEN_COMMAND_CENTER_AND_RESOURCES
                 * TilePosition.SIZE_IN_PIXELS) {
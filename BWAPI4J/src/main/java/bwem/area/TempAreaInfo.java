@@ -59,6 +59,22 @@ public class TempAreaInfo {
     Asserts.bwem_assert(isValid());
   }
 
+  /**
+   * Restores a valid TempAreaInfo whose miniTiles already carry its id, e.g. from a cached map
+   * analysis.
+   */
+  public TempAreaInfo(
+      final AreaId id,
+      final WalkPosition walkPositionWithHighestAltitude,
+      final Altitude highestAltitude,
+      final int size) {
+    this.isValid = true;
+    this.id = id;
+    this.walkPositionWithHighestAltitude = walkPositionWithHighestAltitude;
+    this.highestAltitude = highestAltitude;
+    this.size = size;
+  }
+
   public boolean isValid() {
     return this.isValid;
   }
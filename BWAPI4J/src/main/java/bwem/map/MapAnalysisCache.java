@@ -0,0 +1,323 @@
+package bwem.map;
+
+import bwem.area.TempAreaInfo;
+import bwem.area.typedef.AreaId;
+import bwem.tile.TileDataImpl;
+import bwem.typedef.Altitude;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.lang3.tuple.MutablePair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbw.bwapi4j.WalkPosition;
+
+/**
+ * On-disk cache of the map analysis, keyed by {@link org.openbw.bwapi4j.BWMap#mapHash()}.
+ *
+ * <p>Computing the altitudes and the temporary areas of the miniTiles takes most of {@link
+ * MapInitializer#initialize}, and its result only depends on the map. The cache stores the state
+ * of the map right after these two stages, one file per map. The file is read into memory at
+ * once and not kept open, so it can be replaced at any time. The later stages are cheap and always
+ * run, since they reference the units of the current game.
+ *
+ * <p>In validation mode the analysis is always recomputed and compared with the cached one. A
+ * missing or mismatching entry is logged and rewritten.
+ */
+public final class MapAnalysisCache {
+  private static final Logger logger = LogManager.getLogger();
+
+  private static final int MAGIC = 0x4257454d; // "BWEM"
+  // Has to be increased whenever the analysis or the file layout changes.
+  private static final int VERSION = 1;
+  private static final String FILE_EXTENSION = ".bwem";
+
+  private static final int FRONTIER_STRIDE = 4;
+  private static final int TEMP_AREA_STRIDE = 5;
+
+  private final Path directory;
+  private final boolean validating;
+
+  public MapAnalysisCache(final Path directory, final boolean validating) {
+    this.directory = directory;
+    this.validating = validating;
+  }
+
+  public Path getDirectory() {
+    return this.directory;
+  }
+
+  public boolean isValidating() {
+    return this.validating;
+  }
+
+  Path getFile(final String mapHash) {
+    return this.directory.resolve(mapHash + FILE_EXTENSION);
+  }
+
+  /**
+   * Returns the cached analysis of the given map, or {@code null} if there is none or it can not be
+   * used.
+   */
+  Entry load(final String mapHash, final int walkWidth, final int walkHeight) {
+    final Path file = getFile(mapHash);
+    final ByteBuffer buffer;
+    try {
+      buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      logger.warn("Could not read the BWEM analysis cache file " + file, e);
+      return null;
+    }
+
+    try {
+      final Entry entry = Entry.read(buffer, mapHash);
+      if (entry == null) {
+        logger.info("Ignoring outdated BWEM analysis cache file " + file);
+      } else if (entry.walkWidth != walkWidth || entry.walkHeight != walkHeight) {
+        logger.warn("Ignoring BWEM analysis cache file " + file + " made for another map size");
+        return null;
+      }
+      return entry;
+    } catch (BufferUnderflowException | IllegalArgumentException e) {
+      logger.warn("Ignoring corrupt BWEM analysis cache file " + file, e);
+      return null;
+    }
+  }
+
+  /** Stores the analysis of the given map, replacing any previous entry. */
+  void store(final String mapHash, final Entry entry) {
+    final Path file = getFile(mapHash);
+    try {
+      Files.createDirectories(this.directory);
+      final Path tempFile = Files.createTempFile(this.directory, mapHash, ".tmp");
+      try {
+        Files.write(tempFile, entry.toBytes(mapHash));
+        try {
+          Files.move(
+              tempFile,
+              file,
+              StandardCopyOption.REPLACE_EXISTING,
+              StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+          Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+    } catch (IOException e) {
+      logger.warn("Could not write the BWEM analysis cache file " + file, e);
+    }
+  }
+
+  /** The state of a map after {@link MapInitializer#computeTempAreas}. */
+  static final class Entry {
+    private final int walkWidth;
+    private final int walkHeight;
+    private final int highestAltitude;
+    // (areaA, areaB, x, y) for each entry of the raw frontier.
+    private final int[] rawFrontier;
+    // (id, x, y, highestAltitude, size) for each valid temporary area.
+    private final int[] tempAreas;
+    // Altitudes followed by AreaIds, as written by TileDataImpl.writeMiniTiles.
+    private final ByteBuffer miniTiles;
+
+    Entry(
+        final int walkWidth,
+        final int walkHeight,
+        final int highestAltitude,
+        final int[] rawFrontier,
+        final int[] tempAreas,
+        final ByteBuffer miniTiles) {
+      this.walkWidth = walkWidth;
+      this.walkHeight = walkHeight;
+      this.highestAltitude = highestAltitude;
+      this.rawFrontier = rawFrontier;
+      this.tempAreas = tempAreas;
+      this.miniTiles = miniTiles;
+    }
+
+    static Entry capture(final MapImpl map, final List<TempAreaInfo> tempAreaList) {
+      final int walkWidth = map.getData().getMapData().getWalkSize().getX();
+      final int walkHeight = map.getData().getMapData().getWalkSize().getY();
+
+      final int[] rawFrontier = new int[FRONTIER_STRIDE * map.rawFrontier.size()];
+      int index = 0;
+      for (final MutablePair<MutablePair<AreaId, AreaId>, WalkPosition> f : map.rawFrontier) {
+        rawFrontier[index++] = f.getLeft().getLeft().intValue();
+        rawFrontier[index++] = f.getLeft().getRight().intValue();
+        rawFrontier[index++] = f.getRight().getX();
+        rawFrontier[index++] = f.getRight().getY();
+      }
+
+      final List<TempAreaInfo> validTempAreas = new ArrayList<>();
+      for (final TempAreaInfo tempArea : tempAreaList) {
+        if (tempArea.isValid()) {
+          validTempAreas.add(tempArea);
+        }
+      }
+      final int[] tempAreas = new int[TEMP_AREA_STRIDE * validTempAreas.size()];
+      index = 0;
+      for (final TempAreaInfo tempArea : validTempAreas) {
+        tempAreas[index++] = tempArea.getId().intValue();
+        tempAreas[index++] = tempArea.getWalkPositionWithHighestAltitude().getX();
+        tempAreas[index++] = tempArea.getWalkPositionWithHighestAltitude().getY();
+        tempAreas[index++] = tempArea.getHighestAltitude().intValue();
+        tempAreas[index++] = tempArea.getSize();
+      }
+
+      final ByteBuffer miniTiles = ByteBuffer.allocate(4 * walkWidth * walkHeight);
+      ((TileDataImpl) map.getData().getTileData()).writeMiniTiles(miniTiles);
+      miniTiles.flip();
+
+      return new Entry(
+          walkWidth,
+          walkHeight,
+          map.getHighestAltitude().intValue(),
+          rawFrontier,
+          tempAreas,
+          miniTiles);
+    }
+
+    /**
+     * Restores this state into {@code map} and returns the temporary areas, as {@link
+     * MapInitializer#computeTempAreas} would.
+     */
+    List<TempAreaInfo> restore(final MapImpl map) {
+      ((TileDataImpl) map.getData().getTileData()).readMiniTiles(this.miniTiles.duplicate());
+      map.highestAltitude = new Altitude(this.highestAltitude);
+
+      map.rawFrontier.clear();
+      for (int i = 0; i < this.rawFrontier.length; i += FRONTIER_STRIDE) {
+        map.rawFrontier.add(
+            new MutablePair<>(
+                new MutablePair<>(
+                    new AreaId(this.rawFrontier[i]), new AreaId(this.rawFrontier[i + 1])),
+                new WalkPosition(this.rawFrontier[i + 2], this.rawFrontier[i + 3])));
+      }
+
+      final List<TempAreaInfo> tempAreaList = new ArrayList<>();
+      tempAreaList.add(new TempAreaInfo()); // tempAreaList[0] left unused, as AreaIds are > 0
+      for (int i = 0; i < this.tempAreas.length; i += TEMP_AREA_STRIDE) {
+        tempAreaList.add(
+            new TempAreaInfo(
+                new AreaId(this.tempAreas[i]),
+                new WalkPosition(this.tempAreas[i + 1], this.tempAreas[i + 2]),
+                new Altitude(this.tempAreas[i + 3]),
+                this.tempAreas[i + 4]));
+      }
+      return tempAreaList;
+    }
+
+    /** Returns the names of the parts of the analysis which differ between the two entries. */
+    List<String> diff(final Entry that) {
+      final List<String> differences = new ArrayList<>();
+      if (this.walkWidth != that.walkWidth || this.walkHeight != that.walkHeight) {
+        differences.add("map size");
+        return differences;
+      }
+      if (this.highestAltitude != that.highestAltitude) {
+        differences.add("highest altitude");
+      }
+      if (!Arrays.equals(this.rawFrontier, that.rawFrontier)) {
+        differences.add("raw frontier");
+      }
+      if (!Arrays.equals(this.tempAreas, that.tempAreas)) {
+        differences.add("temporary areas");
+      }
+      final ByteBuffer thisMiniTiles = this.miniTiles.duplicate();
+      final ByteBuffer thatMiniTiles = that.miniTiles.duplicate();
+      final int areaIdsOffset = this.miniTiles.remaining() / 2;
+      thisMiniTiles.limit(areaIdsOffset);
+      thatMiniTiles.limit(areaIdsOffset);
+      if (!thisMiniTiles.equals(thatMiniTiles)) {
+        differences.add("miniTile altitudes");
+      }
+      thisMiniTiles.limit(this.miniTiles.limit()).position(areaIdsOffset);
+      thatMiniTiles.limit(that.miniTiles.limit()).position(areaIdsOffset);
+      if (!thisMiniTiles.equals(thatMiniTiles)) {
+        differences.add("miniTile AreaIds");
+      }
+      return differences;
+    }
+
+    byte[] toBytes(final String mapHash) {
+      final byte[] hash = mapHash.getBytes(StandardCharsets.UTF_8);
+      final ByteBuffer buffer =
+          ByteBuffer.allocate(
+              4 * 8
+                  + hash.length
+                  + 4 * (this.rawFrontier.length + this.tempAreas.length)
+                  + this.miniTiles.remaining());
+      buffer.putInt(MAGIC).putInt(VERSION).putInt(hash.length).put(hash);
+      buffer.putInt(this.walkWidth).putInt(this.walkHeight).putInt(this.highestAltitude);
+      buffer.putInt(this.rawFrontier.length / FRONTIER_STRIDE);
+      buffer.putInt(this.tempAreas.length / TEMP_AREA_STRIDE);
+      buffer.asIntBuffer().put(this.rawFrontier).put(this.tempAreas);
+      buffer.position(buffer.position() + 4 * (this.rawFrontier.length + this.tempAreas.length));
+      buffer.put(this.miniTiles.duplicate());
+      return buffer.array();
+    }
+
+    /**
+     * Reads an entry in the format of {@link #toBytes}. Returns {@code null} if the entry was
+     * written by another version.
+     */
+    static Entry read(final ByteBuffer buffer, final String mapHash) {
+      if (buffer.getInt() != MAGIC) {
+        throw new IllegalArgumentException("Not a BWEM analysis cache file");
+      }
+      if (buffer.getInt() != VERSION) {
+        return null;
+      }
+      final int hashLength = buffer.getInt();
+      if (hashLength < 0 || hashLength > buffer.remaining()) {
+        throw new IllegalArgumentException("Invalid map hash length");
+      }
+      final byte[] hash = new byte[hashLength];
+      buffer.get(hash);
+      if (!mapHash.equals(new String(hash, StandardCharsets.UTF_8))) {
+        throw new IllegalArgumentException("Map hash mismatch");
+      }
+
+      final int walkWidth = buffer.getInt();
+      final int walkHeight = buffer.getInt();
+      final int highestAltitude = buffer.getInt();
+      final int frontierCount = buffer.getInt();
+      final int tempAreaCount = buffer.getInt();
+      final int[] rawFrontier = new int[checkedLength(buffer, frontierCount, FRONTIER_STRIDE)];
+      final int[] tempAreas = new int[checkedLength(buffer, tempAreaCount, TEMP_AREA_STRIDE)];
+      buffer.asIntBuffer().get(rawFrontier).get(tempAreas);
+      buffer.position(buffer.position() + 4 * (rawFrontier.length + tempAreas.length));
+
+      final ByteBuffer miniTiles = buffer.slice();
+      if (walkWidth < 0
+          || walkHeight < 0
+          || miniTiles.remaining() != 4L * walkWidth * walkHeight) {
+        throw new IllegalArgumentException("Unexpected miniTile data size");
+      }
+      return new Entry(walkWidth, walkHeight, highestAltitude, rawFrontier, tempAreas, miniTiles);
+    }
+
+    /**
+     * Returns the number of ints of {@code count} records of {@code stride} ints, after checking
+     * that they fit into the rest of {@code buffer}.
+     */
+    private static int checkedLength(final ByteBuffer buffer, final int count, final int stride) {
+      if (count < 0 || 4L * stride * count > buffer.remaining()) {
+        throw new IllegalArgumentException("Invalid record count: " + count);
+      }
+      return stride * count;
+    }
+  }
+}
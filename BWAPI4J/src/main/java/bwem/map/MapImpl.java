@@ -27,6 +27,7 @@ import bwem.area.typedef.AreaId;
 import bwem.tile.MiniTile;
 import bwem.tile.MiniTileImpl;
 import bwem.tile.Tile;
+import bwem.tile.TileDataImpl;
 import bwem.tile.TileImpl;
 import bwem.typedef.Altitude;
 import bwem.typedef.CPPath;
@@ -62,6 +63,10 @@ import org.openbw.bwapi4j.unit.UnitImpl;
 import org.openbw.bwapi4j.unit.VespeneGeyser;
 
 public abstract class MapImpl implements Map {
+  /* The four neighbors of a MiniTile in the order up, left, right, down. */
+  static final int[] NEIGHBOR_DX = {0, -1, +1, 0};
+  static final int[] NEIGHBOR_DY = {-1, 0, 0, +1};
+
   private final MapPrinter mapPrinter;
 
   protected TerrainData terrainData = null;
@@ -593,30 +598,31 @@ public abstract class MapImpl implements Map {
   }
 
   public MutablePair<AreaId, AreaId> findNeighboringAreas(final WalkPosition p) {
-    final MutablePair<AreaId, AreaId> result = new MutablePair<>(null, null);
-
-    final WalkPosition[] deltas = {
-      new WalkPosition(0, -1),
-      new WalkPosition(-1, 0),
-      new WalkPosition(+1, 0),
-      new WalkPosition(0, +1)
-    };
-    for (final WalkPosition delta : deltas) {
-      if (getData().getMapData().isValid(p.add(delta))) {
-        final AreaId areaId = getData().getMiniTile(p.add(delta), CheckMode.NO_CHECK).getAreaId();
-        if (areaId.intValue() > 0) {
-          if (result.getLeft() == null) {
-            result.setLeft(areaId);
-          } else if (!result.getLeft().equals(areaId)) {
-            if (result.getRight() == null || ((areaId.intValue() < result.getRight().intValue()))) {
-              result.setRight(areaId);
+    final TileDataImpl tileData = (TileDataImpl) getData().getTileData();
+    final int walkWidth = getData().getMapData().getWalkSize().getX();
+    final int walkHeight = getData().getMapData().getWalkSize().getY();
+
+    int left = 0;
+    int right = 0;
+    for (int i = 0; i < NEIGHBOR_DX.length; ++i) {
+      final int x = p.getX() + NEIGHBOR_DX[i];
+      final int y = p.getY() + NEIGHBOR_DY[i];
+      if (x >= 0 && x < walkWidth && y >= 0 && y < walkHeight) {
+        final int areaId = tileData.getMiniTileAreaId(walkWidth * y + x);
+        if (areaId > 0) {
+          if (left == 0) {
+            left = areaId;
+          } else if (left != areaId) {
+            if (right == 0 || areaId < right) {
+              right = areaId;
             }
           }
         }
       }
     }
 
-    return result;
+    return new MutablePair<>(
+        left == 0 ? null : new AreaId(left), right == 0 ? null : new AreaId(right));
   }
 
   public AreaId chooseNeighboringArea(final AreaId a, final AreaId b) {
@@ -35,6 +35,12 @@ public interface MapInitializer {
   // A good place to do this is in ExampleAIModule::onStart()
   void initialize(boolean enableTimer);
 
+  /**
+   * Same as {@link #initialize(boolean)}, but loads the analysis of the map from {@code
+   * analysisCache} if it is there, and stores it otherwise. {@code analysisCache} may be null.
+   */
+  void initialize(boolean enableTimer, MapAnalysisCache analysisCache);
+
   void initializeTerrainData(
       int mapTileWidth, int mapTileHeight, List<TilePosition> startingLocations);
 
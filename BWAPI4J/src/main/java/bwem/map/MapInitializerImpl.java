@@ -29,12 +29,11 @@ import bwem.unit.StaticBuilding;
 import bwem.util.Asserts;
 import bwem.util.BwemExt;
 import bwem.util.PairGenericAltitudeComparator;
-import bwem.util.PairGenericMiniTileAltitudeComparator;
 import bwem.util.Timer;
 import bwem.util.Utils;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.logging.log4j.LogManager;
@@ -66,6 +65,11 @@ public class MapInitializerImpl extends MapImpl implements MapInitializer {
 
   @Override
   public void initialize(final boolean enableTimer) {
+    initialize(enableTimer, null);
+  }
+
+  @Override
+  public void initialize(final boolean enableTimer, final MapAnalysisCache analysisCache) {
     //        initialize_native();
 
     final Timer overallTimer = new Timer();
@@ -111,7 +115,24 @@ public class MapInitializerImpl extends MapImpl implements MapInitializer {
       timer.reset();
     }
 
-    computeAltitude(getData());
+    final String mapHash = (analysisCache == null) ? null : getBWMap().mapHash();
+    final MapAnalysisCache.Entry cachedAnalysis =
+        (analysisCache == null)
+            ? null
+            : analysisCache.load(
+                mapHash,
+                getData().getMapData().getWalkSize().getX(),
+                getData().getMapData().getWalkSize().getY());
+    final boolean useCachedAnalysis = (cachedAnalysis != null && !analysisCache.isValidating());
+    if (enableTimer && analysisCache != null) {
+      logger.info("Map::loadAnalysisCache: " + timer.elapsedMilliseconds() + " ms");
+      timer.reset();
+    }
+
+    // The altitudes are restored together with the temporary areas, below.
+    if (!useCachedAnalysis) {
+      computeAltitude(getData());
+    }
     //    ///	bw << "Map::ComputeAltitude: " << timer.elapsedMilliseconds() << " ms" << endl;
     // timer.reset();
     if (enableTimer) {
@@ -128,8 +149,16 @@ public class MapInitializerImpl extends MapImpl implements MapInitializer {
       timer.reset();
     }
 
-    computeAreas(
-        computeTempAreas(getSortedMiniTilesByDescendingAltitude()), BwemExt.area_min_miniTiles);
+    final List<TempAreaInfo> tempAreaList;
+    if (useCachedAnalysis) {
+      tempAreaList = cachedAnalysis.restore(this);
+    } else {
+      tempAreaList = computeTempAreas(getSortedMiniTilesByDescendingAltitude());
+      if (analysisCache != null) {
+        storeAnalysis(analysisCache, mapHash, cachedAnalysis, tempAreaList);
+      }
+    }
+    computeAreas(tempAreaList, BwemExt.area_min_miniTiles);
     //    ///	bw << "Map::computeAreas: " << timer.elapsedMilliseconds() << " ms" << endl;
     // timer.reset();
     if (enableTimer) {
@@ -180,6 +209,30 @@ public class MapInitializerImpl extends MapImpl implements MapInitializer {
     }
   }
 
+  private void storeAnalysis(
+      final MapAnalysisCache analysisCache,
+      final String mapHash,
+      final MapAnalysisCache.Entry cachedAnalysis,
+      final List<TempAreaInfo> tempAreaList) {
+    final MapAnalysisCache.Entry analysis = MapAnalysisCache.Entry.capture(this, tempAreaList);
+    if (cachedAnalysis == null) {
+      analysisCache.store(mapHash, analysis);
+    } else {
+      final List<String> differences = cachedAnalysis.diff(analysis);
+      if (differences.isEmpty()) {
+        logger.info("Cached BWEM analysis of map " + mapHash + " is valid.");
+      } else {
+        logger.warn(
+            "Cached BWEM analysis of map "
+                + mapHash
+                + " differs in: "
+                + differences
+                + ". Replacing it.");
+        analysisCache.store(mapHash, analysis);
+      }
+    }
+  }
+
   @Override
   public void initializeTerrainData(
       final int mapTileWidth, final int mapTileHeight, final List<TilePosition> startingLocations) {
@@ -557,22 +610,29 @@ public class MapInitializerImpl extends MapImpl implements MapInitializer {
 
   @Override
   public List<MutablePair<WalkPosition, MiniTile>> getSortedMiniTilesByDescendingAltitude() {
-    final List<MutablePair<WalkPosition, MiniTile>> miniTilesByDescendingAltitude =
-        new ArrayList<>();
-
-    for (int y = 0; y < getData().getMapData().getWalkSize().getY(); ++y) {
-      for (int x = 0; x < getData().getMapData().getWalkSize().getX(); ++x) {
-        final WalkPosition w = new WalkPosition(x, y);
-        final MiniTile miniTile =
-            ((TerrainDataInitializer) getData()).getMiniTile_(w, CheckMode.NO_CHECK);
-        if (((MiniTileImpl) miniTile).isAreaIdMissing()) {
-          miniTilesByDescendingAltitude.add(new MutablePair<>(w, miniTile));
-        }
+    final TileDataImpl tileData = (TileDataImpl) getData().getTileData();
+    final int walkWidth = getData().getMapData().getWalkSize().getX();
+
+    // Sorts (altitude, index) keys instead of the pairs: ascending indices keep equal altitudes in
+    // the order of a stable sort, and reading the keys backwards reverses it as before.
+    final long[] keys = new long[tileData.getMiniTiles().size()];
+    int count = 0;
+    for (int index = 0; index < keys.length; ++index) {
+      if (tileData.getMiniTileAreaId(index) == -1) {
+        keys[count++] = ((long) tileData.getMiniTileAltitude(index) << 32) | index;
       }
     }
+    Arrays.sort(keys, 0, count);
 
-    miniTilesByDescendingAltitude.sort(new PairGenericMiniTileAltitudeComparator<>());
-    Collections.reverse(miniTilesByDescendingAltitude);
+    final List<MiniTile> miniTiles = tileData.getMiniTiles();
+    final List<MutablePair<WalkPosition, MiniTile>> miniTilesByDescendingAltitude =
+        new ArrayList<>(count);
+    for (int i = count - 1; i >= 0; --i) {
+      final int index = (int) keys[i];
+      miniTilesByDescendingAltitude.add(
+          new MutablePair<>(
+              new WalkPosition(index % walkWidth, index / walkWidth), miniTiles.get(index)));
+    }
 
     return miniTilesByDescendingAltitude;
   }
@@ -580,11 +640,13 @@ public class MapInitializerImpl extends MapImpl implements MapInitializer {
   @Override
   public List<TempAreaInfo> computeTempAreas(
       final List<MutablePair<WalkPosition, MiniTile>> miniTilesByDescendingAltitude) {
+    final TileDataImpl tileData = (TileDataImpl) getData().getTileData();
+    final int walkWidth = getData().getMapData().getWalkSize().getX();
     final List<TempAreaInfo> tempAreaList = new ArrayList<>();
     tempAreaList.add(new TempAreaInfo()); // tempAreaList[0] left unused, as AreaIds are > 0
 
     for (final MutablePair<WalkPosition, MiniTile> current : miniTilesByDescendingAltitude) {
-      final WalkPosition pos = new WalkPosition(current.getLeft().getX(), current.getLeft().getY());
+      final WalkPosition pos = current.getLeft();
       final MiniTile cur = current.getRight();
 
       final MutablePair<AreaId, AreaId> neighboringAreas = findNeighboringAreas(pos);
@@ -617,7 +679,7 @@ public class MapInitializerImpl extends MapImpl implements MapInitializer {
                     startingLoc ->
                         BwemExt.dist(pos.toTilePosition(), startingLoc.add(new TilePosition(2, 1)))
                             <= 3.0);
-        final int curAltitude = cur.getAltitude().intValue();
+        final int curAltitude = tileData.getMiniTileAltitude(walkWidth * pos.getY() + pos.getX());
         final int biggerHighestAltitude =
             tempAreaList.get(bigger.intValue()).getHighestAltitude().intValue();
         final int smallerHighestAltitude =
@@ -656,25 +718,31 @@ public class MapInitializerImpl extends MapImpl implements MapInitializer {
     final AreaId oldAreaId = origin.getAreaId();
     ((MiniTileImpl) origin).replaceAreaId(newAreaId);
 
-    List<WalkPosition> toSearch = new ArrayList<>();
-    toSearch.add(p);
-    while (!toSearch.isEmpty()) {
-      final WalkPosition current = toSearch.remove(toSearch.size() - 1);
-
-      final WalkPosition[] deltas = {
-        new WalkPosition(0, -1),
-        new WalkPosition(-1, 0),
-        new WalkPosition(+1, 0),
-        new WalkPosition(0, +1)
-      };
-      for (final WalkPosition delta : deltas) {
-        final WalkPosition next = current.add(delta);
-        if (getData().getMapData().isValid(next)) {
-          final MiniTile miniTile =
-              ((TerrainDataInitializer) getData()).getMiniTile_(next, CheckMode.NO_CHECK);
-          if (miniTile.getAreaId().equals(oldAreaId)) {
-            toSearch.add(next);
-            ((MiniTileImpl) miniTile).replaceAreaId(newAreaId);
+    // Flood fills by MiniTile index. The neighbors share the origin's AreaId, so the checks of
+    // MiniTileImpl.replaceAreaId above hold for them as well.
+    final TileDataImpl tileData = (TileDataImpl) getData().getTileData();
+    final int walkWidth = getData().getMapData().getWalkSize().getX();
+    final int walkHeight = getData().getMapData().getWalkSize().getY();
+    final int oldId = oldAreaId.intValue();
+    final int newId = newAreaId.intValue();
+    int[] toSearch = new int[64];
+    int toSearchSize = 0;
+    toSearch[toSearchSize++] = walkWidth * p.getY() + p.getX();
+    while (toSearchSize > 0) {
+      final int current = toSearch[--toSearchSize];
+      final int x = current % walkWidth;
+      final int y = current / walkWidth;
+      for (int i = 0; i < NEIGHBOR_DX.length; ++i) {
+        final int nextX = x + NEIGHBOR_DX[i];
+        final int nextY = y + NEIGHBOR_DY[i];
+        if (nextX >= 0 && nextX < walkWidth && nextY >= 0 && nextY < walkHeight) {
+          final int next = walkWidth * nextY + nextX;
+          if (tileData.getMiniTileAreaId(next) == oldId) {
+            if (toSearchSize == toSearch.length) {
+              toSearch = Arrays.copyOf(toSearch, 2 * toSearchSize);
+            }
+            toSearch[toSearchSize++] = next;
+            tileData.setMiniTileAreaId(next, newId);
           }
         }
       }
@@ -12,8 +12,6 @@
 
 package bwem.tile;
 
-import static bwem.area.typedef.AreaId.UNINITIALIZED;
-
 import bwem.area.typedef.AreaId;
 import bwem.typedef.Altitude;
 import bwem.util.Asserts;
@@ -21,36 +19,41 @@ import bwem.util.Asserts;
 public class MiniTileImpl implements MiniTile {
   private static final AreaId blockingCP = new AreaId(Integer.MIN_VALUE);
 
-  private Altitude
-      altitude; // 0 for seas  ;  != 0 for terrain and lakes (-1 = not computed yet)  ;  1 =
-  // SeaOrLake intermediate value
-  private AreaId
-      areaId; // 0 -> unwalkable  ;  > 0 -> index of some Area  ;  < 0 -> some walkable terrain, but
+  // altitude: 0 for seas  ;  != 0 for terrain and lakes (-1 = not computed yet)  ;  1 = SeaOrLake
+  // intermediate value
+  // areaId: 0 -> unwalkable  ;  > 0 -> index of some Area  ;  < 0 -> some walkable terrain, but
   // too small to be part of an Area
+  private final TileDataImpl data;
+  private final int index;
 
+  /** Creates a detached MiniTile backed by its own storage. */
   public MiniTileImpl() {
-    this.altitude = Altitude.UNINITIALIZED;
-    this.areaId = UNINITIALIZED;
+    this(new TileDataImpl(0, 1), 0);
+  }
+
+  MiniTileImpl(final TileDataImpl data, final int index) {
+    this.data = data;
+    this.index = index;
   }
 
   @Override
   public boolean isWalkable() {
-    return (this.areaId.intValue() != 0);
+    return (this.data.getMiniTileAreaId(this.index) != 0);
   }
 
   @Override
   public Altitude getAltitude() {
-    return this.altitude;
+    return new Altitude(this.data.getMiniTileAltitude(this.index));
   }
 
   @Override
   public boolean isSea() {
-    return (this.altitude.intValue() == 0);
+    return (this.data.getMiniTileAltitude(this.index) == 0);
   }
 
   @Override
   public boolean isLake() {
-    return (this.altitude.intValue() != 0 && !isWalkable());
+    return (this.data.getMiniTileAltitude(this.index) != 0 && !isWalkable());
   }
 
   @Override
@@ -60,76 +63,94 @@ public class MiniTileImpl implements MiniTile {
 
   @Override
   public AreaId getAreaId() {
-    return this.areaId;
+    return new AreaId(this.data.getMiniTileAreaId(this.index));
   }
 
   public void setWalkable(boolean walkable) {
-    this.areaId = new AreaId(walkable ? -1 : 0);
-    this.altitude = new Altitude(walkable ? -1 : 1);
+    this.data.setMiniTileAreaId(this.index, walkable ? -1 : 0);
+    this.data.setMiniTileAltitude(this.index, walkable ? -1 : 1);
   }
 
   public boolean isSeaOrLake() {
-    return (this.altitude.intValue() == 1);
+    return (this.data.getMiniTileAltitude(this.index) == 1);
   }
 
   public void setSea() {
     //        { bwem_assert(!Walkable() && SeaOrLake()); this.altitude = 0; }
     Asserts.bwem_assert(!isWalkable() && isSeaOrLake());
 
-    this.altitude = Altitude.ZERO;
+    this.data.setMiniTileAltitude(this.index, 0);
   }
 
   public void setLake() {
     //        { bwem_assert(!Walkable() && Sea()); this.altitude = -1; }
     Asserts.bwem_assert(!isWalkable() && isSea());
 
-    this.altitude = Altitude.UNINITIALIZED;
+    this.data.setMiniTileAltitude(this.index, -1);
   }
 
   public boolean isAltitudeMissing() {
-    return (altitude.intValue() == -1);
+    return (this.data.getMiniTileAltitude(this.index) == -1);
   }
 
   public void setAltitude(final Altitude altitude) {
     //        { bwem_assert_debug_only(AltitudeMissing() && (a > 0)); this.altitude = a; }
     Asserts.bwem_assert(isAltitudeMissing() && altitude.intValue() > 0);
 
-    this.altitude = altitude;
+    this.data.setMiniTileAltitude(this.index, altitude.intValue());
   }
 
   public boolean isAreaIdMissing() {
-    return (this.areaId.intValue() == -1);
+    return (this.data.getMiniTileAreaId(this.index) == -1);
   }
 
   public void setAreaId(final AreaId areaId) {
     //        { bwem_assert(AreaIdMissing() && (id >= 1)); this.areaId = id; }
     Asserts.bwem_assert(isAreaIdMissing() && areaId.intValue() >= 1);
 
-    this.areaId = areaId;
+    this.data.setMiniTileAreaId(this.index, areaId.intValue());
   }
 
   public void replaceAreaId(final AreaId areaId) {
 //    { bwem_assert((m_areaId > 0) && ((id >= 1) || (id <= -2)) && (id != m_areaId)); m_areaId = id; }
-    Asserts.bwem_assert((this.areaId.intValue() > 0) && ((areaId.intValue() >= 1) || (areaId.intValue() <= -2)) && (!areaId.equals(this.areaId)));
+    final int currentAreaId = this.data.getMiniTileAreaId(this.index);
+    Asserts.bwem_assert((currentAreaId > 0) && ((areaId.intValue() >= 1) || (areaId.intValue() <= -2)) && (areaId.intValue() != currentAreaId));
 
-    this.areaId = areaId;
+    this.data.setMiniTileAreaId(this.index, areaId.intValue());
   }
 
   public void setBlocked() {
     //        { bwem_assert(AreaIdMissing()); this.areaId = blockingCP; }
     Asserts.bwem_assert(isAreaIdMissing());
 
-    this.areaId = MiniTileImpl.blockingCP;
+    this.data.setMiniTileAreaId(this.index, MiniTileImpl.blockingCP.intValue());
   }
 
   public boolean isBlocked() {
-    return this.areaId.equals(MiniTileImpl.blockingCP);
+    return (this.data.getMiniTileAreaId(this.index) == MiniTileImpl.blockingCP.intValue());
   }
 
   public void replaceBlockedAreaId(final AreaId areaId) {
     //        { bwem_assert( (areaId == blockingCP) && (id >= 1)); this.areaId = id; }
     Asserts.bwem_assert(areaId.equals(MiniTileImpl.blockingCP) && areaId.intValue() >= 1);
 
-    this.areaId = areaId;
+    this.data.setMiniTileAreaId(this.index, areaId.intValue());
+  }
+
+  @Override
+  public boolean equals(final Object object) {
+    if (this == object) {
+      return true;
+    } else if (!(object instanceof MiniTileImpl)) {
+      return false;
+    } else {
+      final MiniTileImpl that = (MiniTileImpl) object;
+      return (this.data == that.data && this.index == that.index);
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return this.index;
   }
 }
@@ -12,23 +12,56 @@
 
 package bwem.tile;
 
-import java.util.ArrayList;
+import bwem.unit.Neutral;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
+/**
+ * Stores Tiles and MiniTiles as parallel primitive arrays (one array per field) instead of one
+ * object per tile. The {@link Tile} and {@link MiniTile} instances handed out by {@link
+ * #getTiles()} and {@link #getMiniTiles()} are lightweight views that read and write these arrays.
+ *
+ * <p>Altitudes and AreaIds are stored as shorts, as are altitude_t and Area::id in the original
+ * C++ library. The AreaId of blocking ChokePoints, Integer.MIN_VALUE, is stored as
+ * Short.MIN_VALUE.
+ */
 public class TileDataImpl implements TileData {
+  static final int BUILDABLE = 1;
+  static final int DOODAD = 1 << 1;
+  static final int GROUND_HEIGHT_SHIFT = 2;
+  static final int GROUND_HEIGHT_MASK = 0x3 << GROUND_HEIGHT_SHIFT;
+
+  private static final short BLOCKING_AREA_ID = Short.MIN_VALUE;
+
+  private final Neutral[] neutrals;
+  private final short[] tileLowestAltitudes;
+  private final short[] tileAreaIds;
+  private final int[] tileInternalData;
+  private final byte[] tileFlags;
+
+  private final short[] miniTileAltitudes;
+  private final short[] miniTileAreaIds;
+
   private final List<Tile> tiles;
   private final List<MiniTile> miniTiles;
 
   public TileDataImpl(final int tileCount, final int miniTileCount) {
-    this.tiles = new ArrayList<>(tileCount);
-    for (int i = 0; i < tileCount; ++i) {
-      this.tiles.add(new TileImpl());
-    }
+    this.neutrals = new Neutral[tileCount];
+    this.tileLowestAltitudes = new short[tileCount];
+    this.tileAreaIds = new short[tileCount];
+    this.tileInternalData = new int[tileCount];
+    this.tileFlags = new byte[tileCount];
 
-    this.miniTiles = new ArrayList<>(miniTileCount);
-    for (int i = 0; i < miniTileCount; ++i) {
-      this.miniTiles.add(new MiniTileImpl());
-    }
+    this.miniTileAltitudes = new short[miniTileCount];
+    this.miniTileAreaIds = new short[miniTileCount];
+    Arrays.fill(this.miniTileAltitudes, (short) -1);
+    Arrays.fill(this.miniTileAreaIds, (short) -1);
+
+    this.tiles = new TileList();
+    this.miniTiles = new MiniTileList();
   }
 
   @Override
@@ -40,4 +73,135 @@ public class TileDataImpl implements TileData {
   public List<MiniTile> getMiniTiles() {
     return this.miniTiles;
   }
+
+  /**
+   * Writes the altitudes followed by the AreaIds of all MiniTiles to {@code buffer}, two bytes per
+   * value.
+   */
+  public void writeMiniTiles(final ByteBuffer buffer) {
+    buffer.asShortBuffer().put(this.miniTileAltitudes).put(this.miniTileAreaIds);
+    buffer.position(buffer.position() + 4 * this.miniTileAltitudes.length);
+  }
+
+  /** Reads the MiniTiles back from {@code buffer} in the format of {@link #writeMiniTiles}. */
+  public void readMiniTiles(final ByteBuffer buffer) {
+    buffer.asShortBuffer().get(this.miniTileAltitudes).get(this.miniTileAreaIds);
+    buffer.position(buffer.position() + 4 * this.miniTileAltitudes.length);
+  }
+
+  Neutral getNeutral(final int index) {
+    return this.neutrals[index];
+  }
+
+  void setNeutral(final int index, final Neutral neutral) {
+    this.neutrals[index] = neutral;
+  }
+
+  int getTileLowestAltitude(final int index) {
+    return this.tileLowestAltitudes[index];
+  }
+
+  void setTileLowestAltitude(final int index, final int altitude) {
+    this.tileLowestAltitudes[index] = toShort(altitude);
+  }
+
+  int getTileAreaId(final int index) {
+    return fromAreaIdShort(this.tileAreaIds[index]);
+  }
+
+  void setTileAreaId(final int index, final int areaId) {
+    this.tileAreaIds[index] = toAreaIdShort(areaId);
+  }
+
+  int getTileInternalData(final int index) {
+    return this.tileInternalData[index];
+  }
+
+  void setTileInternalData(final int index, final int internalData) {
+    this.tileInternalData[index] = internalData;
+  }
+
+  int getTileFlags(final int index) {
+    return this.tileFlags[index];
+  }
+
+  void setTileFlags(final int index, final int flags) {
+    this.tileFlags[index] = (byte) flags;
+  }
+
+  /**
+   * Returns the altitude of the MiniTile at {@code index} in {@link #getMiniTiles()} without
+   * creating a view, see {@link MiniTile#getAltitude()}.
+   */
+  public int getMiniTileAltitude(final int index) {
+    return this.miniTileAltitudes[index];
+  }
+
+  void setMiniTileAltitude(final int index, final int altitude) {
+    this.miniTileAltitudes[index] = toShort(altitude);
+  }
+
+  /**
+   * Returns the AreaId of the MiniTile at {@code index} in {@link #getMiniTiles()} without creating
+   * a view, see {@link MiniTile#getAreaId()}.
+   */
+  public int getMiniTileAreaId(final int index) {
+    return fromAreaIdShort(this.miniTileAreaIds[index]);
+  }
+
+  /** Sets the AreaId of the MiniTile at {@code index} without the checks of the view. */
+  public void setMiniTileAreaId(final int index, final int areaId) {
+    this.miniTileAreaIds[index] = toAreaIdShort(areaId);
+  }
+
+  private static short toAreaIdShort(final int areaId) {
+    if (areaId == Integer.MIN_VALUE) {
+      return BLOCKING_AREA_ID;
+    } else if (areaId == BLOCKING_AREA_ID) {
+      throw new IllegalArgumentException("Value out of range: " + areaId);
+    }
+    return toShort(areaId);
+  }
+
+  private static int fromAreaIdShort(final short areaId) {
+    return (areaId == BLOCKING_AREA_ID) ? Integer.MIN_VALUE : areaId;
+  }
+
+  private static short toShort(final int value) {
+    if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Value out of range: " + value);
+    }
+    return (short) value;
+  }
+
+  private final class TileList extends AbstractList<Tile> implements RandomAccess {
+    @Override
+    public Tile get(final int index) {
+      if (index < 0 || index >= neutrals.length) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + neutrals.length);
+      }
+      return new TileImpl(TileDataImpl.this, index);
+    }
+
+    @Override
+    public int size() {
+      return neutrals.length;
+    }
+  }
+
+  private final class MiniTileList extends AbstractList<MiniTile> implements RandomAccess {
+    @Override
+    public MiniTile get(final int index) {
+      if (index < 0 || index >= miniTileAltitudes.length) {
+        throw new IndexOutOfBoundsException(
+            "Index: " + index + ", Size: " + miniTileAltitudes.length);
+      }
+      return new MiniTileImpl(TileDataImpl.this, index);
+    }
+
+    @Override
+    public int size() {
+      return miniTileAltitudes.length;
+    }
+  }
 }
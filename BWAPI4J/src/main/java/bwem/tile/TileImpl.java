@@ -12,62 +12,43 @@
 
 package bwem.tile;
 
-import bwem.Markable;
-import bwem.StaticMarkable;
 import bwem.area.typedef.AreaId;
 import bwem.typedef.Altitude;
 import bwem.unit.Neutral;
 import bwem.util.Asserts;
 
 public class TileImpl implements Tile {
-  private static final StaticMarkable staticMarkable = new StaticMarkable();
-  private final Markable markable;
-
-  private Neutral neutral;
-  private Altitude lowestAltitude;
-  private AreaId areaId;
-  private int internalData;
-  private Tile.GroundHeight groundHeight;
-  private boolean isBuildable;
-  private boolean isDoodad;
+  private final TileDataImpl data;
+  private final int index;
 
+  /** Creates a detached Tile backed by its own storage. */
   public TileImpl() {
-    this.markable = new Markable(TileImpl.staticMarkable);
-    this.neutral = null;
-    this.lowestAltitude = Altitude.ZERO;
-    this.areaId = AreaId.ZERO;
-    this.internalData = 0;
-    this.groundHeight = GroundHeight.LOW_GROUND;
-    this.isBuildable = false;
-    this.isDoodad = false;
-  }
-
-  public static StaticMarkable getStaticMarkable() {
-    return TileImpl.staticMarkable;
+    this(new TileDataImpl(1, 0), 0);
   }
 
-  public Markable getMarkable() {
-    return this.markable;
+  TileImpl(final TileDataImpl data, final int index) {
+    this.data = data;
+    this.index = index;
   }
 
   @Override
   public boolean isBuildable() {
-    return this.isBuildable;
+    return (this.data.getTileFlags(this.index) & TileDataImpl.BUILDABLE) != 0;
   }
 
   @Override
   public AreaId getAreaId() {
-    return this.areaId;
+    return new AreaId(this.data.getTileAreaId(this.index));
   }
 
   @Override
   public Altitude getLowestAltitude() {
-    return this.lowestAltitude;
+    return new Altitude(this.data.getTileLowestAltitude(this.index));
   }
 
   @Override
   public boolean isWalkable() {
-    return (getAreaId().intValue() != 0);
+    return (this.data.getTileAreaId(this.index) != 0);
   }
 
   @Override
@@ -77,17 +58,19 @@ public class TileImpl implements Tile {
 
   @Override
   public GroundHeight getGroundHeight() {
-    return this.groundHeight;
+    return GroundHeight.parseGroundHeight(
+        (this.data.getTileFlags(this.index) & TileDataImpl.GROUND_HEIGHT_MASK)
+            >> TileDataImpl.GROUND_HEIGHT_SHIFT);
   }
 
   @Override
   public boolean isDoodad() {
-    return this.isDoodad;
+    return (this.data.getTileFlags(this.index) & TileDataImpl.DOODAD) != 0;
   }
 
   @Override
   public Neutral getNeutral() {
-    return this.neutral;
+    return this.data.getNeutral(this.index);
   }
 
   @Override
@@ -102,7 +85,7 @@ public class TileImpl implements Tile {
   }
 
   public void setBuildable() {
-    this.isBuildable = true;
+    this.data.setTileFlags(this.index, this.data.getTileFlags(this.index) | TileDataImpl.BUILDABLE);
   }
 
   public void setGroundHeight(final int groundHeight) {
@@ -110,29 +93,33 @@ public class TileImpl implements Tile {
     //        if (!((0 <= h) && (h <= 2))) {
     //            throw new IllegalArgumentException();
     //        }
-    this.groundHeight = GroundHeight.parseGroundHeight(groundHeight);
+    final int height = GroundHeight.parseGroundHeight(groundHeight).intValue();
+    this.data.setTileFlags(
+        this.index,
+        (this.data.getTileFlags(this.index) & ~TileDataImpl.GROUND_HEIGHT_MASK)
+            | (height << TileDataImpl.GROUND_HEIGHT_SHIFT));
   }
 
   public void setDoodad() {
-    this.isDoodad = true;
+    this.data.setTileFlags(this.index, this.data.getTileFlags(this.index) | TileDataImpl.DOODAD);
   }
 
   public void addNeutral(final Neutral neutral) {
     //        { bwem_assert(!pNeutral && pNeutral); neutral = pNeutral; }
     Asserts.bwem_assert(getNeutral() == null && neutral != null);
 
-    this.neutral = neutral;
+    this.data.setNeutral(this.index, neutral);
   }
 
   public void setAreaId(final AreaId areaId) {
     //        { bwem_assert((id == -1) || !areaId && id); areaId = id; }
     Asserts.bwem_assert(areaId.intValue() == -1 || getAreaId().intValue() == 0 && areaId.intValue() != 0);
 
-    this.areaId = areaId;
+    this.data.setTileAreaId(this.index, areaId.intValue());
   }
 
   public void resetAreaId() {
-    this.areaId = AreaId.ZERO;
+    this.data.setTileAreaId(this.index, 0);
   }
 
   public void setLowestAltitude(final Altitude lowestAltitude) {
@@ -140,21 +127,38 @@ public class TileImpl implements Tile {
     if (!(lowestAltitude.intValue() >= 0)) {
       throw new IllegalArgumentException();
     }
-    this.lowestAltitude = lowestAltitude;
+    this.data.setTileLowestAltitude(this.index, lowestAltitude.intValue());
   }
 
   public void removeNeutral(final Neutral neutral) {
     // { bwem_assert(pNeutral && (m_pNeutral == pNeutral)); utils::unused(pNeutral); m_pNeutral = nullptr; }
     Asserts.bwem_assert(neutral != null && getNeutral().equals(neutral));
 
-    this.neutral = null;
+    this.data.setNeutral(this.index, null);
   }
 
   public int getInternalData() {
-    return this.internalData;
+    return this.data.getTileInternalData(this.index);
   }
 
   public void setInternalData(int internalData) {
-    this.internalData = internalData;
+    this.data.setTileInternalData(this.index, internalData);
+  }
+
+  @Override
+  public boolean equals(final Object object) {
+    if (this == object) {
+      return true;
+    } else if (!(object instanceof TileImpl)) {
+      return false;
+    } else {
+      final TileImpl that = (TileImpl) object;
+      return (this.data == that.data && this.index == that.index);
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return this.index;
   }
 }
@@ -21,6 +21,7 @@ import org.openbw.bwapi4j.Position;
 import org.openbw.bwapi4j.TilePosition;
 import org.openbw.bwapi4j.WalkPosition;
 import org.openbw.bwapi4j.type.Color;
+import org.openbw.bwapi4j.util.MathUtils;
 import org.openbw.bwapi4j.util.Pair;
 
 public final class BwemExt {
@@ -111,48 +112,39 @@ public final class BwemExt {
   }
 
   public static int queenWiseDist(final TilePosition a, final TilePosition b) {
-    final TilePosition ret = a.subtract(b);
-    return Utils.queenWiseNorm(ret.getX(), ret.getY());
+    return Utils.queenWiseNorm(a.getX() - b.getX(), a.getY() - b.getY());
   }
 
   public static int queenWiseDist(final WalkPosition a, final WalkPosition b) {
-    final WalkPosition ret = a.subtract(b);
-    return Utils.queenWiseNorm(ret.getX(), ret.getY());
+    return Utils.queenWiseNorm(a.getX() - b.getX(), a.getY() - b.getY());
   }
 
   public static int queenWiseDist(final Position a, final Position b) {
-    final Position ret = a.subtract(b);
-    return Utils.queenWiseNorm(ret.getX(), ret.getY());
+    return Utils.queenWiseNorm(a.getX() - b.getX(), a.getY() - b.getY());
   }
 
   public static int squaredDist(final TilePosition a, final TilePosition b) {
-    final TilePosition ret = a.subtract(b);
-    return Utils.squaredNorm(ret.getX(), ret.getY());
+    return Utils.squaredNorm(a.getX() - b.getX(), a.getY() - b.getY());
   }
 
   public static int squaredDist(final WalkPosition a, final WalkPosition b) {
-    final WalkPosition ret = a.subtract(b);
-    return Utils.squaredNorm(ret.getX(), ret.getY());
+    return Utils.squaredNorm(a.getX() - b.getX(), a.getY() - b.getY());
   }
 
   public static int squaredDist(final Position a, final Position b) {
-    final Position ret = a.subtract(b);
-    return Utils.squaredNorm(ret.getX(), ret.getY());
+    return Utils.squaredNorm(a.getX() - b.getX(), a.getY() - b.getY());
   }
 
   public static double dist(final TilePosition a, final TilePosition b) {
-    final TilePosition ret = a.subtract(b);
-    return Utils.norm(ret.getX(), ret.getY());
+    return Utils.norm(a.getX() - b.getX(), a.getY() - b.getY());
   }
 
   public static double dist(final WalkPosition a, final WalkPosition b) {
-    final WalkPosition ret = a.subtract(b);
-    return Utils.norm(ret.getX(), ret.getY());
+    return Utils.norm(a.getX() - b.getX(), a.getY() - b.getY());
   }
 
   public static double dist(final Position a, final Position b) {
-    final Position ret = a.subtract(b);
-    return Utils.norm(ret.getX(), ret.getY());
+    return Utils.norm(a.getX() - b.getX(), a.getY() - b.getY());
   }
 
   public static int roundedDist(final TilePosition a, final TilePosition b) {
@@ -167,22 +159,42 @@ public final class BwemExt {
     return (int) Math.round(dist(a, b));
   }
 
-  public static int distToRectangle(final Position a, final Position topLeft, final Position size) {
-    final Position bottomRight = topLeft.add(size).subtract(new Position(1, 1));
+  private static int roundedDist(final int dx, final int dy) {
+    return (int) Math.round(Utils.norm(dx, dy));
+  }
 
-    if (a.getX() >= topLeft.getX())
-      if (a.getX() <= bottomRight.getX())
-        if (a.getY() > bottomRight.getY()) return a.getY() - bottomRight.getY(); // S
-        else if (a.getY() < topLeft.getY()) return topLeft.getY() - a.getY(); // N
+  public static int distToRectangle(final Position a, final Position topLeft, final Position size) {
+    return distToRectangle(
+        a.getX(), a.getY(), topLeft.getX(), topLeft.getY(), size.getX(), size.getY());
+  }
+
+  /** Packed variant of {@link #distToRectangle(Position, Position, Position)}. */
+  public static int distToRectangle(final long a, final long topLeft, final long size) {
+    return distToRectangle(
+        MathUtils.packedX(a),
+        MathUtils.packedY(a),
+        MathUtils.packedX(topLeft),
+        MathUtils.packedY(topLeft),
+        MathUtils.packedX(size),
+        MathUtils.packedY(size));
+  }
+
+  private static int distToRectangle(
+      final int x, final int y, final int left, final int top, final int width, final int height) {
+    final int right = left + width - 1;
+    final int bottom = top + height - 1;
+
+    if (x >= left)
+      if (x <= right)
+        if (y > bottom) return y - bottom; // S
+        else if (y < top) return top - y; // N
         else return 0; // inside
-      else if (a.getY() > bottomRight.getY()) return roundedDist(a, bottomRight); // SE
-      else if (a.getY() < topLeft.getY())
-        return roundedDist(a, new Position(bottomRight.getX(), topLeft.getY())); // NE
-      else return a.getX() - bottomRight.getX(); // E
-    else if (a.getY() > bottomRight.getY())
-      return roundedDist(a, new Position(topLeft.getX(), bottomRight.getY())); // SW
-    else if (a.getY() < topLeft.getY()) return roundedDist(a, topLeft); // NW
-    else return topLeft.getX() - a.getX(); // W
+      else if (y > bottom) return roundedDist(x - right, y - bottom); // SE
+      else if (y < top) return roundedDist(x - right, y - top); // NE
+      else return x - right; // E
+    else if (y > bottom) return roundedDist(x - left, y - bottom); // SW
+    else if (y < top) return roundedDist(x - left, y - top); // NW
+    else return left - x; // W
   }
 
   private static List<Pair<Integer, Integer>> innerBorderDeltas(
@@ -450,20 +462,7 @@ public final class BwemExt {
   // TODO: Add these functions to main BWAPI4J target type source files?
   // ----------------------------------------------------------------------
   private static int getApproxDistance(int x0, int y0, int x1, int y1) {
-    int min = Math.abs(x0 - x1);
-    int max = Math.abs(y0 - y1);
-    if (max < min) {
-      int minTmp = min;
-      min = max;
-      max = minTmp;
-    }
-
-    if (min < (max >> 2)) {
-      return max;
-    }
-
-    int minCalc = (3 * min) >> 3;
-    return (minCalc >> 5) + minCalc + max - (max >> 4) - (max >> 6);
+    return MathUtils.estimateDistanceBetween(x0, y0, x1, y1);
   }
 
   public static int getApproxDistance(TilePosition source, TilePosition target) {
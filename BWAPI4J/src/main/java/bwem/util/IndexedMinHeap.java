@@ -0,0 +1,116 @@
+package bwem.util;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int nodes in {@code [0, capacity)} ordered by int keys. In contrast to {@link
+ * java.util.PriorityQueue}, the key of a queued node can be looked up in O(1) and decreased in
+ * O(log n), and no objects are allocated per node. Used by the Dijkstra searches of BWEM.
+ */
+public final class IndexedMinHeap {
+  private static final int INITIAL_CAPACITY = 64;
+
+  private int[] nodes = new int[INITIAL_CAPACITY];
+  private int[] keys = new int[INITIAL_CAPACITY];
+  /* Position of every node in the heap plus one, 0 if the node is not queued. */
+  private final int[] positions;
+  private int size;
+
+  public IndexedMinHeap(final int capacity) {
+    this.positions = new int[capacity];
+  }
+
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public boolean contains(final int node) {
+    return this.positions[node] != 0;
+  }
+
+  /** Returns the key of a queued node. */
+  public int getKey(final int node) {
+    return this.keys[this.positions[node] - 1];
+  }
+
+  /** Returns the node at the given position, {@code 0 <= position < size()}, in heap order. */
+  public int getNode(final int position) {
+    return this.nodes[position];
+  }
+
+  /** Returns the smallest key in the heap. */
+  public int peekKey() {
+    return this.keys[0];
+  }
+
+  /** Queues a node which is not queued yet. */
+  public void add(final int node, final int key) {
+    if (this.size == this.nodes.length) {
+      this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+      this.keys = Arrays.copyOf(this.keys, 2 * this.size);
+    }
+    siftUp(this.size++, node, key);
+  }
+
+  /** Lowers the key of a queued node. */
+  public void decreaseKey(final int node, final int key) {
+    siftUp(this.positions[node] - 1, node, key);
+  }
+
+  /** Removes and returns the node with the smallest key. */
+  public int poll() {
+    final int min = this.nodes[0];
+    this.positions[min] = 0;
+    --this.size;
+    if (this.size > 0) {
+      siftDown(0, this.nodes[this.size], this.keys[this.size]);
+    }
+    return min;
+  }
+
+  /** Removes all nodes. Only the queued nodes are touched, so this is O(size()). */
+  public void clear() {
+    for (int i = 0; i < this.size; ++i) {
+      this.positions[this.nodes[i]] = 0;
+    }
+    this.size = 0;
+  }
+
+  private void siftUp(int position, final int node, final int key) {
+    while (position > 0) {
+      final int parent = (position - 1) >>> 1;
+      if (this.keys[parent] <= key) {
+        break;
+      }
+      set(position, this.nodes[parent], this.keys[parent]);
+      position = parent;
+    }
+    set(position, node, key);
+  }
+
+  private void siftDown(int position, final int node, final int key) {
+    final int half = this.size >>> 1;
+    while (position < half) {
+      int child = 2 * position + 1;
+      if (child + 1 < this.size && this.keys[child + 1] < this.keys[child]) {
+        ++child;
+      }
+      if (key <= this.keys[child]) {
+        break;
+      }
+      set(position, this.nodes[child], this.keys[child]);
+      position = child;
+    }
+    set(position, node, key);
+  }
+
+  private void set(final int position, final int node, final int key) {
+    this.nodes[position] = node;
+    this.keys[position] = key;
+    this.positions[node] = position + 1;
+  }
+}
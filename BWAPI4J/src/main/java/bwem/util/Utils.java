@@ -14,12 +14,10 @@ package bwem.util;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
 import org.apache.commons.lang3.mutable.MutableDouble;
 
 public final class Utils {
-  private static final SplittableRandom randomGenerator = new SplittableRandom();
-
   private Utils() {}
 
   public static int queenWiseNorm(final int dx, final int dy) {
@@ -89,7 +87,7 @@ public final class Utils {
    * @param list the specified list
    */
   public static <T> T getRandomElement(final List<T> list) {
-    final int randomIndex = randomGenerator.nextInt(list.size());
+    final int randomIndex = ThreadLocalRandom.current().nextInt(list.size());
     return list.get(randomIndex);
   }
 
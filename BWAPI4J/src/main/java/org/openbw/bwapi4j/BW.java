@@ -20,17 +20,19 @@
 
 package org.openbw.bwapi4j;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -58,6 +60,9 @@ import org.openbw.bwapi4j.util.system.SystemUtils;
 public class BW {
   private static final Logger logger = LogManager.getLogger();
 
+  /** Capacity in ints of the direct buffer the bridge writes per-frame snapshots into. */
+  private static final int FRAME_BUFFER_SIZE = 1 << 20;
+
   private final DependencyManager dependencyManager;
 
   private BWEventListener listener;
@@ -75,12 +80,21 @@ public class BW {
   private UnitTypeBridge unitTypeBridge;
 
   private Map<Integer, Player> players;
-  private Map<Integer, UnitImpl> units;
+  private UnitStore units;
+  private final PlayerUnitIndex playerUnitIndex = new PlayerUnitIndex();
+  private final UnitGrid unitGrid = new UnitGrid();
   private Map<Integer, Bullet> bullets;
   private UnitFactory unitFactory;
   private Charset charset;
 
-  private Cache<Map<Player, List<PlayerUnit>>> getUnitsFromPlayerCache;
+  private final boolean directTransport;
+  private IntBuffer frameBuffer;
+  private final boolean unitDeltaEncoding;
+  private final boolean eventBatching;
+  private final UnitDeltaDecoder unitDeltaDecoder = new UnitDeltaDecoder();
+  private final CommandBuffer commandBuffer;
+  private final RedundantCommandFilter redundantCommandFilter;
+
   private Cache<List<MineralPatch>> getMineralPatchesCache;
   private Cache<List<VespeneGeyser>> getVespeneGeysersCache;
 
@@ -110,7 +124,16 @@ public class BW {
       final BWEventListener listener,
       BWAPI4J.BridgeType bridgeType,
       boolean extractBridgeDependencies) {
-    this.dependencyManager = new DependencyManager();
+    this(listener, new DependencyManager(), bridgeType, extractBridgeDependencies);
+  }
+
+  /** Creates a BW instance that loads the bridge through the given dependency manager. */
+  BW(
+      final BWEventListener listener,
+      final DependencyManager dependencyManager,
+      BWAPI4J.BridgeType bridgeType,
+      boolean extractBridgeDependencies) {
+    this.dependencyManager = dependencyManager;
 
     try {
       bridgeType =
@@ -133,12 +156,27 @@ public class BW {
 
     this.dependencyManager.loadSharedLibraries(bridgeType, extractBridgeDependencies);
 
+    this.directTransport =
+        !SystemUtils.systemPropertyEquals(BWAPI4J.Property.DIRECT_TRANSPORT.toString(), false);
+    this.unitDeltaEncoding =
+        !SystemUtils.systemPropertyEquals(BWAPI4J.Property.UNIT_DELTA_ENCODING.toString(), false);
+    this.eventBatching =
+        !SystemUtils.systemPropertyEquals(BWAPI4J.Property.EVENT_BATCHING.toString(), false);
+
+    this.commandBuffer =
+        new CommandBuffer(
+            this,
+            SystemUtils.systemPropertyEquals(BWAPI4J.Property.COMMAND_BATCHING.toString(), true));
+    this.redundantCommandFilter =
+        new RedundantCommandFilter(
+            Integer.getInteger(BWAPI4J.Property.REDUNDANT_COMMAND_WINDOW.toString(), 0));
+
     this.players = new HashMap<>();
-    this.units = new HashMap<>();
+    this.units = new UnitStore();
     this.bullets = new HashMap<>();
     this.listener = listener;
     this.interactionHandler = new InteractionHandler(this);
-    this.mapDrawer = new MapDrawer();
+    this.mapDrawer = new MapDrawer(this.interactionHandler);
     this.damageEvaluator = new DamageEvaluator();
     this.bwMap = new BWMapImpl(this.interactionHandler);
     this.unitDataBridge = new UnitImplBridge(this, new WeaponBridge(this));
@@ -160,6 +198,15 @@ public class BW {
   }
 
   public void startGame() {
+    if (this.directTransport) {
+      this.frameBuffer =
+          ByteBuffer.allocateDirect(FRAME_BUFFER_SIZE * Integer.BYTES)
+              .order(ByteOrder.nativeOrder())
+              .asIntBuffer();
+      registerFrameBuffer(this.frameBuffer);
+    }
+    setEventBatching(this.eventBatching);
+    updateEventMask();
     startGame(this);
   }
 
@@ -179,6 +226,12 @@ public class BW {
 
   private native void startGame(BW bw);
 
+  /**
+   * Hands the direct frame buffer to the bridge. All {@code *Direct} calls write into this buffer
+   * and return the number of ints written, so no Java array is allocated per call.
+   */
+  private native void registerFrameBuffer(IntBuffer buffer);
+
   private native int[] getUpgradeTypesData();
 
   private native int[] getWeaponTypesData();
@@ -187,19 +240,69 @@ public class BW {
 
   private native int[] getUnitTypesData();
 
-  private native int[] getAllUnitsData();
+  /**
+   * Returns the complete per-frame state in one call. The snapshot consists of length-prefixed
+   * sections in this order: game, players, player extras, units, bullets.
+   */
+  private native int[] getFrameSnapshot();
+
+  private native int getFrameSnapshotDirect();
+
+  /**
+   * Discards what the bridge remembers as sent for units and player extras, and sets whether units
+   * are sent as deltas.
+   */
+  private native void resetDeltaRecords(boolean unitDeltaEncoding);
 
-  private native int[] getAllBulletsData();
+  /**
+   * Selects whether the bridge calls {@link #onEvents(int[], String[])} once per frame or the
+   * individual event callbacks.
+   */
+  private native void setEventBatching(boolean eventBatching);
 
-  private native int[] getAllPlayersData();
+  /**
+   * Sets the events the bridge sends while batching events, as a bit mask over the {@link
+   * EventType} ordinals.
+   */
+  private native void setEventMask(int eventMask);
+
+  /* Lets the bridge skip the events no handler subscribed to if the listener is an event bus. */
+  private void updateEventMask() {
+    if (this.listener instanceof EventBus) {
+      final int eventMask = ((EventBus) this.listener).pollEventMask();
+      if (eventMask != -1) {
+        setEventMask(eventMask);
+      }
+    }
+  }
 
-  private native int[] getGameData();
+  /**
+   * Issues {@code count} commands of six ints each and sets the bit of every accepted command in
+   * {@code successes}. Returns the ID of the {@code BwError} of the last rejected command.
+   */
+  native int issueCommands(int[] commands, int count, long[] successes);
 
   private native int getClientVersion();
 
-  private native String getPlayerName(int playerId);
+  native String getPlayerName(int playerId);
+
+  /**
+   * Exposes the first {@code size} ints of the frame buffer. The returned view is only valid until
+   * the next {@code *Direct} call.
+   */
+  private IntBuffer frameData(final int size) {
+    if (size < 0) {
+      throw new IllegalStateException(
+          "frame data does not fit into the frame buffer of " + FRAME_BUFFER_SIZE + " ints.");
+    }
+    this.frameBuffer.clear();
+    this.frameBuffer.limit(size);
+    return this.frameBuffer;
+  }
 
-  private native int[] getPlayerExtra(int playerId);
+  UnitFactory getUnitFactory() {
+    return this.unitFactory;
+  }
 
   public void setUnitFactory(UnitFactory unitFactory) {
     this.unitFactory = unitFactory;
@@ -222,17 +325,23 @@ public class BW {
     return this.interactionHandler;
   }
 
-  private void updateGame() {
-    int[] data = this.getGameData();
-    this.interactionHandler.update(data);
+  /** Returns the buffer unit commands are queued in while command batching is enabled. */
+  public CommandBuffer getCommandBuffer() {
+    return this.commandBuffer;
   }
 
-  private void updateAllBullets() {
-    int[] bulletData = this.getAllBulletsData();
+  /** Returns the filter that drops repeated unit commands, disabled unless configured. */
+  public RedundantCommandFilter getRedundantCommandFilter() {
+    return this.redundantCommandFilter;
+  }
 
-    int index = 0;
-    while (index < bulletData.length) {
-      int bulletId = bulletData[index + BulletBridge.ID];
+  private void updateGame(final IntBuffer data, final int index) {
+    this.interactionHandler.update(data, index);
+  }
+
+  private void updateAllBullets(final IntBuffer bulletData, int index, final int end) {
+    while (index < end) {
+      int bulletId = bulletData.get(index + BulletBridge.ID);
       Bullet bullet = this.bullets.get(bulletId);
       if (bullet == null) {
         bullet = new Bullet();
@@ -249,17 +358,17 @@ public class BW {
         && !newType.equals(UnitType.Terran_Siege_Tank_Siege_Mode);
   }
 
-  private void updateAllUnits(int frame) {
-    for (UnitImpl unit : this.units.values()) {
-      unitDataBridge.reset(unit);
+  private void updateAllUnits(final IntBuffer unitData, int index, final int end, int frame) {
+    for (final Player player : this.players.values()) {
+      player.resetUnitCounts();
     }
-    int[] unitData = this.getAllUnitsData();
 
-    int index = 0;
-    while (index < unitData.length) {
-      int unitId = unitData[index + UnitImplBridge.ID];
-      int typeId = unitData[index + UnitImplBridge.TYPE];
-      UnitImpl unit = this.units.get(unitId);
+    while (index < end) {
+      int unitId = unitData.get(index);
+      index = this.unitDeltaDecoder.decode(unitData, index);
+      final IntBuffer unitRecord = this.unitDeltaDecoder.get(unitId);
+      int typeId = unitRecord.get(UnitImplBridge.TYPE);
+      UnitImpl unit = this.units.getById(unitId);
       if (unit == null || typeChanged(unit.getType(), UnitType.values()[typeId])) {
         if (unit != null) {
           logger.debug(
@@ -283,15 +392,33 @@ public class BW {
           logger.trace("state: {}", unit.exists() ? "completed" : "created");
 
           this.units.put(unitId, unit);
-          unitDataBridge.initialize(unit, unitData, index);
-          index = unitDataBridge.update(unit, unitData, index);
+          unitDataBridge.initialize(unit, unitRecord, 0);
+          unitDataBridge.update(unit, unitRecord, 0);
+          this.unitFactory.setLastUpdatedFrame(unit, frame);
+          this.playerUnitIndex.update(unitId, unit);
+          this.unitGrid.update(unitId, unit);
+          countUnit(unit);
           logger.trace("initial pos: {}", unit.getInitialTilePosition());
           logger.trace("current pos: {}", unit.getTilePosition());
 
           logger.trace(" done.");
         }
       } else {
-        index = unitDataBridge.update(unit, unitData, index);
+        unitDataBridge.update(unit, unitRecord, 0);
+        this.unitFactory.setLastUpdatedFrame(unit, frame);
+        this.playerUnitIndex.update(unitId, unit);
+        this.unitGrid.update(unitId, unit);
+        countUnit(unit);
+      }
+    }
+  }
+
+  private void countUnit(final UnitImpl unit) {
+    if (unit instanceof PlayerUnit) {
+      final PlayerUnit playerUnit = (PlayerUnit) unit;
+      final Player player = playerUnit.getPlayer();
+      if (player != null) {
+        player.countUnit(playerUnit.getType(), playerUnit.isCompleted(), playerUnit.isVisible());
       }
     }
   }
@@ -301,12 +428,9 @@ public class BW {
   // [DEBUG] [Thread-1] openbw.bwapi4j.BW:updateAllPlayers:617 - creating player for id 0 ...
   // [DEBUG] [Thread-1] openbw.bwapi4j.BW:updateAllPlayers:617 - creating player for id 1 ...
   // [DEBUG] [Thread-1] openbw.bwapi4j.BW:updateAllPlayers:617 - creating player for id 0 ...
-  private void updateAllPlayers() {
-    int[] playerData = this.getAllPlayersData();
-
-    int index = 0;
-    while (index < playerData.length) {
-      int playerId = playerData[index + PlayerBridge.ID];
+  private void updateAllPlayers(final IntBuffer playerData, int index, final int end) {
+    while (index < end) {
+      int playerId = playerData.get(index + PlayerBridge.ID);
       Player player = this.players.get(playerId);
       if (player == null) {
         logger.debug("creating player for id {} ...", playerId);
@@ -319,7 +443,16 @@ public class BW {
         logger.trace(" done.");
       }
       index = playerBridge.update(player, playerData, index);
-      player.update(this.getPlayerExtra(playerId));
+    }
+  }
+
+  /** Each player extras entry is a player ID followed by a length-prefixed record. */
+  private void updateAllPlayerExtras(final IntBuffer extraData, int index, final int end) {
+    while (index < end) {
+      final Player player = this.players.get(extraData.get(index++));
+      final int length = extraData.get(index++);
+      player.update(extraData, index);
+      index += length;
     }
   }
 
@@ -332,7 +465,7 @@ public class BW {
   }
 
   public Unit getUnit(int unitId) {
-    return unitId > 0 ? this.units.get(unitId) : null;
+    return unitId > 0 ? this.units.getById(unitId) : null;
   }
 
   public Collection<Bullet> getBullets() {
@@ -344,13 +477,31 @@ public class BW {
   }
 
   /**
-   * Gets all units for given player.
+   * Gets all units for given player. The list is a read-only view that is kept up to date as units
+   * are created, destroyed, morph or change their owner.
+   *
+   * <p>Unlike in earlier versions, this is not a fresh copy per frame: sorting, filtering or
+   * otherwise modifying it in place throws {@link UnsupportedOperationException}. Copy it first,
+   * e.g. with {@code new ArrayList<>(bw.getUnits(player))}, if it needs to be modified or kept
+   * unchanged across frames.
    *
    * @param player player whose units to return
    * @return list of <code>PlayerUnit</code>
    */
   public List<PlayerUnit> getUnits(Player player) {
-    return this.getUnitsFromPlayerCache.get().getOrDefault(player, Collections.emptyList());
+    return this.playerUnitIndex.getUnits(player);
+  }
+
+  /**
+   * Gets all units of the given type for given player. The list is a read-only view like the one
+   * returned by {@link #getUnits(Player)}.
+   *
+   * @param player player whose units to return
+   * @param type type of the units to return
+   * @return list of <code>PlayerUnit</code>
+   */
+  public List<PlayerUnit> getUnits(Player player, UnitType type) {
+    return this.playerUnitIndex.getUnits(player, type);
   }
 
   /**
@@ -371,8 +522,55 @@ public class BW {
     return this.getVespeneGeysersCache.get();
   }
 
+  /**
+   * Gets all units currently known. The returned collection is a read-only view that reflects the
+   * state of the current frame.
+   */
   public Collection<UnitImpl> getAllUnits() {
-    return this.units.values();
+    return this.units;
+  }
+
+  /**
+   * Gets all units of the current frame whose edge is within the given radius of the given
+   * position, like BWAPI's {@code Game::getUnitsInRadius}. Uses a spatial index, so only units near
+   * the position are looked at.
+   *
+   * @param center position to measure the distance from
+   * @param radius maximum distance in pixels
+   * @param filter predicate the units have to match, or {@code null} to accept all units
+   * @return list of units
+   */
+  public List<Unit> getUnitsInRadius(
+      final Position center, final int radius, final Predicate<? super Unit> filter) {
+    return this.unitGrid.getUnitsInRadius(center, radius, filter);
+  }
+
+  /**
+   * Gets all units of the current frame whose bounding box overlaps the given rectangle, like
+   * BWAPI's {@code Game::getUnitsInRectangle}.
+   *
+   * @param topLeft top left corner of the rectangle
+   * @param bottomRight bottom right corner of the rectangle, inclusive
+   * @param filter predicate the units have to match, or {@code null} to accept all units
+   * @return list of units
+   */
+  public List<Unit> getUnitsInRectangle(
+      final Position topLeft, final Position bottomRight, final Predicate<? super Unit> filter) {
+    return this.unitGrid.getUnitsInRectangle(topLeft, bottomRight, filter);
+  }
+
+  /**
+   * Gets the unit of the current frame closest to the given position, like BWAPI's {@code
+   * Game::getClosestUnit}.
+   *
+   * @param center position to measure the distance from
+   * @param filter predicate the unit has to match, or {@code null} to accept all units
+   * @param maxRadius maximum distance in pixels
+   * @return the closest unit or {@code null} if no unit matches
+   */
+  public Unit getClosestUnit(
+      final Position center, final Predicate<? super Unit> filter, final int maxRadius) {
+    return this.unitGrid.getClosestUnit(center, filter, maxRadius);
   }
 
   // TODO: Remove "canBuildHere" functions from this class. It should only be in bwMap
@@ -384,47 +582,48 @@ public class BW {
     return bwMap.canBuildHere(position, type, builder);
   }
 
+  /** Returns the snapshot of the current frame, see {@link #getFrameSnapshot()}. */
+  IntBuffer frameSnapshot() {
+    return this.directTransport
+        ? frameData(this.getFrameSnapshotDirect())
+        : IntBuffer.wrap(this.getFrameSnapshot());
+  }
+
   private void preFrame() {
     //    logger.trace("updating game state for frame {}...", this.frame);
-    updateGame();
+    final IntBuffer snapshot = frameSnapshot();
+
+    int index = 0;
+    int end = index + 1 + snapshot.get(index);
+    updateGame(snapshot, index + 1);
     logger.trace("updated game.");
-    updateAllPlayers();
+
+    index = end;
+    end = index + 1 + snapshot.get(index);
+    updateAllPlayers(snapshot, index + 1, end);
     logger.trace("updated players.");
-    updateAllUnits(getInteractionHandler().getFrameCount());
+
+    index = end;
+    end = index + 1 + snapshot.get(index);
+    updateAllPlayerExtras(snapshot, index + 1, end);
+    logger.trace("updated player extras.");
+
+    index = end;
+    end = index + 1 + snapshot.get(index);
+    updateAllUnits(snapshot, index + 1, end, getInteractionHandler().getFrameCount());
     logger.trace("updated all units.");
-    updateAllBullets();
+
+    index = end;
+    end = index + 1 + snapshot.get(index);
+    updateAllBullets(snapshot, index + 1, end);
     logger.trace("updated all bullets.");
   }
 
   private void resetCache() {
-    this.getUnitsFromPlayerCache =
-        new Cache<>(
-            () -> {
-              final Map<Player, List<PlayerUnit>> playerListMap = new HashMap<>();
-
-              for (final Unit unit : this.units.values()) {
-                if (unit instanceof PlayerUnit) {
-                  final PlayerUnit playerUnit = (PlayerUnit) unit;
-
-                  final Player player = playerUnit.getPlayer();
-
-                  if (player != null) {
-                    final List<PlayerUnit> units =
-                        playerListMap.computeIfAbsent(player, list -> new ArrayList<>());
-                    units.add(playerUnit);
-                  }
-                }
-              }
-
-              return playerListMap;
-            },
-            this.interactionHandler);
-
     this.getMineralPatchesCache =
         new Cache<>(
             () ->
                 this.units
-                    .values()
                     .stream()
                     .filter(u -> u instanceof MineralPatch)
                     .map(u -> (MineralPatch) u)
@@ -435,7 +634,6 @@ public class BW {
         new Cache<>(
             () ->
                 this.units
-                    .values()
                     .stream()
                     .filter(u -> u instanceof VespeneGeyser)
                     .map(u -> (VespeneGeyser) u)
@@ -451,8 +649,15 @@ public class BW {
     try {
       logger.trace(" --- onStart called.");
       this.players.clear();
-      this.units.clear();
+      this.units.reset();
+      this.playerUnitIndex.clear();
+      this.unitGrid.clear();
       this.bullets.clear();
+      this.unitDeltaDecoder.clear();
+      this.commandBuffer.clear();
+      this.redundantCommandFilter.resetCounters();
+      this.mapDrawer.reset();
+      resetDeltaRecords(this.unitDeltaEncoding);
 
       resetCache();
 
@@ -462,6 +667,7 @@ public class BW {
       preFrame();
       logger.trace("done.");
       listener.onStart();
+      updateEventMask();
     } catch (Throwable e) {
       logger.error("exception during onStart.", e);
       throw e;
@@ -476,41 +682,110 @@ public class BW {
   }
 
   private void initializeUpgradeTypes() {
-    int data[] = getUpgradeTypesData();
+    final IntBuffer data = IntBuffer.wrap(getUpgradeTypesData());
     int index = 0;
-    while (index < data.length) {
-      int id = data[index + UpgradeTypeBridge.ID];
+    while (index < data.limit()) {
+      int id = data.get(index + UpgradeTypeBridge.ID);
       index = upgradeTypeBridge.update(UpgradeType.withId(id), data, index);
     }
   }
 
   private void initializeWeaponTypes() {
-    int data[] = getWeaponTypesData();
+    final IntBuffer data = IntBuffer.wrap(getWeaponTypesData());
     int index = 0;
-    while (index < data.length) {
-      int id = data[index + WeaponTypeBridge.ID];
+    while (index < data.limit()) {
+      int id = data.get(index + WeaponTypeBridge.ID);
       index = weaponTypeBridge.update(WeaponType.withId(id), data, index);
     }
   }
 
   private void initializeTechTypes() {
-    int data[] = getTechTypesData();
+    final IntBuffer data = IntBuffer.wrap(getTechTypesData());
     int index = 0;
-    while (index < data.length) {
-      int id = data[index + TechTypeBridge.ID];
+    while (index < data.limit()) {
+      int id = data.get(index + TechTypeBridge.ID);
       index = techTypeBridge.update(TechType.withId(id), data, index);
     }
   }
 
   private void initializeUnitTypes() {
-    int data[] = getUnitTypesData();
+    final IntBuffer data = IntBuffer.wrap(getUnitTypesData());
     int index = 0;
-    while (index < data.length) {
-      int id = data[index + UnitTypeBridge.ID];
+    while (index < data.limit()) {
+      int id = data.get(index + UnitTypeBridge.ID);
       index = unitTypeBridge.update(UnitType.withId(id), data, index);
     }
   }
 
+  /**
+   * Called once per frame by the bridge if event batching is enabled. Updates the game state and
+   * dispatches the events of the frame in the order they occurred, see {@link EventType} for the
+   * layout.
+   *
+   * @param events the events of the frame
+   * @param texts the texts referred to by the events, or {@code null} if there are none
+   */
+  void onEvents(final int[] events, final String[] texts) {
+    preFrame();
+    for (int index = 0; index < events.length; index += EventType.STRIDE) {
+      final int id = events[index + EventType.ID];
+      final int text = events[index + EventType.TEXT];
+      switch (EventType.withOrdinal(events[index])) {
+        case MatchStart:
+          onStart();
+          break;
+        case MatchEnd:
+          onEnd(id == 1);
+          break;
+        case MatchFrame:
+          onFrame();
+          break;
+        case SendText:
+          onSendText(texts[text]);
+          break;
+        case ReceiveText:
+          onReceiveText(id, texts[text]);
+          break;
+        case PlayerLeft:
+          onPlayerLeft(id);
+          break;
+        case NukeDetect:
+          onNukeDetect(events[index + EventType.X], events[index + EventType.Y]);
+          break;
+        case UnitDiscover:
+          onUnitDiscover(id);
+          break;
+        case UnitEvade:
+          onUnitEvade(id);
+          break;
+        case UnitShow:
+          onUnitShow(id);
+          break;
+        case UnitHide:
+          onUnitHide(id);
+          break;
+        case UnitCreate:
+          onUnitCreate(id);
+          break;
+        case UnitDestroy:
+          onUnitDestroy(id);
+          break;
+        case UnitMorph:
+          onUnitMorph(id);
+          break;
+        case UnitRenegade:
+          onUnitRenegade(id);
+          break;
+        case SaveGame:
+          onSaveGame(texts[text]);
+          break;
+        case UnitComplete:
+          onUnitComplete(id);
+          break;
+      }
+    }
+  }
+
   private void onEnd(boolean isWinner) {
     catchAllCalling(listener::onEnd, isWinner);
   }
@@ -519,9 +794,14 @@ public class BW {
     try {
       preFrame();
       listener.onFrame();
+      updateEventMask();
     } catch (Throwable e) {
       logger.error("exception during onFrame", e);
       throw e;
+    } finally {
+      /* Commands of this frame must not be sent along with the next frame's. */
+      this.commandBuffer.flush();
+      this.mapDrawer.flush();
     }
   }
 
@@ -544,7 +824,7 @@ public class BW {
   }
 
   private void onUnitDiscover(int unitId) {
-    Unit unit = this.units.get(unitId);
+    Unit unit = this.units.getById(unitId);
     if (unit == null) {
       logger.error("onUnitDiscover: no unit found for ID {}.", unitId);
     }
@@ -552,7 +832,7 @@ public class BW {
   }
 
   private void onUnitEvade(int unitId) {
-    Unit unit = this.units.get(unitId);
+    Unit unit = this.units.getById(unitId);
     if (unit == null) {
       logger.error("onUnitEvade: no unit found for ID {}.", unitId);
     }
@@ -560,7 +840,7 @@ public class BW {
   }
 
   private void onUnitShow(int unitId) {
-    Unit unit = this.units.get(unitId);
+    Unit unit = this.units.getById(unitId);
     if (unit == null) {
       logger.error("onUnitShow: no unit found for ID {}.", unitId);
     }
@@ -568,7 +848,7 @@ public class BW {
   }
 
   private void onUnitHide(int unitId) {
-    Unit unit = this.units.get(unitId);
+    Unit unit = this.units.getById(unitId);
     if (unit == null) {
       logger.error("onUnitHide: no unit found for ID {}.", unitId);
     }
@@ -576,7 +856,7 @@ public class BW {
   }
 
   private void onUnitCreate(int unitId) {
-    Unit unit = this.units.get(unitId);
+    Unit unit = this.units.getById(unitId);
     if (unit == null) {
       logger.error("onUnitCreate: no unit found for ID {}.", unitId);
     }
@@ -584,16 +864,22 @@ public class BW {
   }
 
   private void onUnitDestroy(int unitId) {
-    Unit unit = this.units.get(unitId);
+    Unit unit = this.units.getById(unitId);
     if (unit == null) {
       logger.error("onUnitDestroy: no unit found for ID {}.", unitId);
     }
+    if (unit instanceof PlayerUnit && ((PlayerUnit) unit).getPlayer() != null) {
+      ((PlayerUnit) unit).getPlayer().countDeadUnit(unit.getType());
+    }
     catchAllCalling(listener::onUnitDestroy, unit);
-    this.units.remove(unitId);
+    this.units.removeById(unitId);
+    this.playerUnitIndex.remove(unitId);
+    this.unitGrid.remove(unitId);
+    this.unitDeltaDecoder.remove(unitId);
   }
 
   private void onUnitMorph(int unitId) {
-    Unit unit = this.units.get(unitId);
+    Unit unit = this.units.getById(unitId);
     if (unit == null) {
       logger.error("onUnitMorph: no unit found for ID {}.", unitId);
     }
@@ -601,7 +887,7 @@ public class BW {
   }
 
   private void onUnitRenegade(int unitId) {
-    Unit unit = this.units.get(unitId);
+    Unit unit = this.units.getById(unitId);
     if (unit == null) {
       logger.error("onUnitRenegade: no unit found for ID {}.", unitId);
     }
@@ -613,7 +899,7 @@ public class BW {
   }
 
   private void onUnitComplete(int unitId) {
-    Unit unit = this.units.get(unitId);
+    Unit unit = this.units.getById(unitId);
     if (unit == null) {
       logger.error("onUnitComplete: no unit found for ID {}.", unitId);
     }
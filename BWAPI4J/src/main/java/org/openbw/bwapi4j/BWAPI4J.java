@@ -25,7 +25,32 @@ public class BWAPI4J {
 
   public enum Property {
     EXTRACT_DEPENDENCIES("bwapi4j.extractDependencies"),
-    BRIDGE_TYPE("bwapi4j.bridgeType");
+    BRIDGE_TYPE("bwapi4j.bridgeType"),
+    /**
+     * Whether per-frame snapshots are written into a shared direct buffer ({@code true}, default) or
+     * returned as freshly allocated Java arrays ({@code false}, useful for debugging).
+     */
+    DIRECT_TRANSPORT("bwapi4j.directTransport"),
+    /**
+     * Whether the bridge only sends the fields of a unit that changed since the previous frame
+     * ({@code true}, default) or always sends complete unit records ({@code false}).
+     */
+    UNIT_DELTA_ENCODING("bwapi4j.unitDeltaEncoding"),
+    /**
+     * Whether unit commands are queued and issued in one call at the end of each frame ({@code
+     * true}) or issued immediately ({@code false}, default). See {@link CommandBuffer}.
+     */
+    COMMAND_BATCHING("bwapi4j.commandBatching"),
+    /**
+     * Number of frames in which a command identical to the one a unit was last sent is dropped
+     * (default 0, disabled). See {@link RedundantCommandFilter}.
+     */
+    REDUNDANT_COMMAND_WINDOW("bwapi4j.redundantCommandWindow"),
+    /**
+     * Whether the bridge delivers all events of a frame in one call ({@code true}, default) or
+     * makes one call per event ({@code false}).
+     */
+    EVENT_BATCHING("bwapi4j.eventBatching");
 
     private final String property;
 
@@ -20,8 +20,10 @@
 
 package org.openbw.bwapi4j;
 
+import java.util.BitSet;
 import java.util.List;
 import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.unit.Unit;
 
 public interface BWMap {
   public String mapHash();
@@ -74,7 +76,29 @@ public interface BWMap {
 
   public boolean canBuildHere(TilePosition position, UnitType type);
 
+  /**
+   * Checks many candidate positions in one native call. Candidates whose footprint is not on the
+   * map or not buildable terrain are rejected without asking BWAPI, except for addons with a
+   * builder, which BWAPI checks at the builder's position.
+   *
+   * @param candidates top left tiles of the positions to check
+   * @param type type of the building
+   * @param builder unit that would build it, or {@code null}
+   * @return a bitset in which bit {@code i} is set if {@code candidates.get(i)} can be built on
+   */
+  public BitSet canBuildHere(List<TilePosition> candidates, UnitType type, Unit builder);
+
   public boolean hasCreep(TilePosition tilePosition);
 
   public boolean hasPower(TilePosition tilePosition);
+
+  /**
+   * Returns the tiles whose creep appeared or receded in the last update of the creep and power
+   * data. The data is updated at most once per frame, the first time it is accessed, so changes
+   * accumulate over frames in which it is not accessed.
+   */
+  public List<TilePosition> getCreepChanges();
+
+  /** Returns the tiles whose pylon power changed, see {@link #getCreepChanges()}. */
+  public List<TilePosition> getPowerChanges();
 }
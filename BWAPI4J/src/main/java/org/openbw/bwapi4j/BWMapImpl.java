@@ -21,12 +21,25 @@
 package org.openbw.bwapi4j;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import org.openbw.bwapi4j.type.UnitType;
 import org.openbw.bwapi4j.unit.PlayerUnit;
+import org.openbw.bwapi4j.unit.Unit;
 import org.openbw.bwapi4j.util.Cache;
 
 class BWMapImpl implements BWMap {
+  /* Layers of the tile state data. */
+  private static final int VISIBLE = 0;
+  private static final int EXPLORED = 1;
+  private static final int BUILDABLE_CONSIDERING_BUILDINGS = 2;
+
+  /* Flags of the creep and power changes. The changed flags are the state flags shifted by 2. */
+  private static final int CREEP = 1;
+  private static final int POWER = 2;
+  private static final int CHANGED_SHIFT = 2;
+
   private String mapHash;
   private String mapFileName;
   private String mapName;
@@ -38,8 +51,10 @@ class BWMapImpl implements BWMap {
   int tileHeight;
   private int[][] groundHeightData;
   private int[][] isBuildableData;
-  private Cache<boolean[][]> getCreepDataCache;
-  private Cache<boolean[][]> getPylonPowerDataCache;
+  private long[] creepData;
+  private long[] powerData;
+  private Cache<int[]> getCreepAndPowerChangesCache;
+  private Cache<long[]> getTileStateDataCache;
   private ArrayList<TilePosition> startLocations;
 
   // WalkPosition resolution
@@ -58,8 +73,12 @@ class BWMapImpl implements BWMap {
   }
 
   void resetCache() {
-    this.getCreepDataCache = new Cache<>(this::getCreepData, this.interactionHandler);
-    this.getPylonPowerDataCache = new Cache<>(this::getPylonPowerData, this.interactionHandler);
+    this.creepData = null;
+    this.powerData = null;
+    this.getCreepAndPowerChangesCache =
+        new Cache<>(this::updateCreepAndPowerData, this.interactionHandler);
+    this.getTileStateDataCache =
+        new Cache<>(this::getTileStateData_native, this.interactionHandler);
   }
 
   public String mapHash() {
@@ -145,11 +164,9 @@ class BWMapImpl implements BWMap {
     return this.pixelHeight;
   }
 
-  private native int _isBuildable(int tileX, int tileY, boolean considerBuildings);
-
   public boolean isBuildable(final int tileX, final int tileY, final boolean considerBuildings) {
     return considerBuildings
-        ? (_isBuildable(tileX, tileY, considerBuildings) == 1)
+        ? getTileState(BUILDABLE_CONSIDERING_BUILDINGS, tileX, tileY)
         : isBuildable(tileX, tileY);
   }
 
@@ -169,24 +186,47 @@ class BWMapImpl implements BWMap {
     return isBuildable(tilePosition.getX(), tilePosition.getY());
   }
 
-  private native int _isExplored(int tileX, int tileY);
-
   public boolean isExplored(int tileX, int tileY) {
-    return _isExplored(tileX, tileY) == 1;
+    return getTileState(EXPLORED, tileX, tileY);
   }
 
   public boolean isExplored(TilePosition position) {
-    return _isExplored(position.getX(), position.getY()) == 1;
+    return isExplored(position.getX(), position.getY());
   }
 
-  private native int _isVisible(int tileX, int tileY);
-
   public boolean isVisible(int tileX, int tileY) {
-    return _isVisible(tileX, tileY) == 1;
+    return getTileState(VISIBLE, tileX, tileY);
   }
 
   public boolean isVisible(TilePosition position) {
-    return _isVisible(position.getX(), position.getY()) == 1;
+    return isVisible(position.getX(), position.getY());
+  }
+
+  /**
+   * Returns three bitsets over all tiles in one call: visible, explored and buildable considering
+   * buildings. Each has {@link #tileStateWordCount()} words, bit {@code tileX * mapHeight() +
+   * tileY} belongs to a tile.
+   */
+  private native long[] getTileStateData_native();
+
+  private int tileStateWordCount() {
+    return (mapWidth() * mapHeight() + Long.SIZE - 1) / Long.SIZE;
+  }
+
+  private boolean isValidTile(final int tileX, final int tileY) {
+    return tileX >= 0 && tileX < mapWidth() && tileY >= 0 && tileY < mapHeight();
+  }
+
+  private boolean getTileState(final int layer, final int tileX, final int tileY) {
+    if (!isValidTile(tileX, tileY)) {
+      return false;
+    }
+    final long[] data = this.getTileStateDataCache.get();
+    return getBit(data, layer * tileStateWordCount(), tileX * mapHeight() + tileY);
+  }
+
+  private static boolean getBit(final long[] words, final int offset, final int bit) {
+    return (words[offset + (bit >>> 6)] & (1L << bit)) != 0;
   }
 
   private native int _hasPath(int x1, int y1, int x2, int y2);
@@ -207,59 +247,146 @@ class BWMapImpl implements BWMap {
     return _canBuildHere(position.getX(), position.getY(), type.getId(), builder.getId()) == 1;
   }
 
-  private native int[] getCreepData_native();
+  /**
+   * Checks all given x and y pairs in one call and returns a bitset over the pairs. Pass -1 as
+   * {@code builderId} to check without a builder.
+   */
+  private native long[] _canBuildHereAll(int[] positions, int typeId, int builderId);
 
-  private boolean[][] getCreepData() {
-    final int[] data = getCreepData_native();
-
-    final int mapTileWidth = mapWidth();
-    final int mapTileHeight = mapHeight();
+  /** Calls {@link #_canBuildHereAll(int[], int, int)}, replaced by a stub in tests. */
+  long[] canBuildHereAll(final int[] positions, final int typeId, final int builderId) {
+    return _canBuildHereAll(positions, typeId, builderId);
+  }
 
-    final boolean[][] creepData = new boolean[mapTileWidth][mapTileHeight];
+  @Override
+  public BitSet canBuildHere(
+      final List<TilePosition> candidates, final UnitType type, final Unit builder) {
+    final int[] positions = new int[2 * candidates.size()];
+    final int[] candidateIndices = new int[candidates.size()];
+    // BW checks an addon built by a unit at the builder's tile offset by (4, 1), not the candidate.
+    final boolean precheck = !type.isAddon() || builder == null;
+    int checked = 0;
+    for (int i = 0; i < candidates.size(); ++i) {
+      final TilePosition candidate = candidates.get(i);
+      if (!precheck || isStaticallyBuildable(candidate, type)) {
+        positions[2 * checked] = candidate.getX();
+        positions[2 * checked + 1] = candidate.getY();
+        candidateIndices[checked++] = i;
+      }
+    }
 
-    int index = 0;
+    final BitSet result = new BitSet(candidates.size());
+    if (checked == 0) {
+      return result;
+    }
+    final long[] buildable =
+        canBuildHereAll(
+            Arrays.copyOf(positions, 2 * checked),
+            type.getId(),
+            builder == null ? -1 : builder.getId());
+    for (int i = 0; i < checked; ++i) {
+      if (getBit(buildable, 0, i)) {
+        result.set(candidateIndices[i]);
+      }
+    }
+    return result;
+  }
 
-    for (int tileX = 0; tileX < mapTileWidth; ++tileX) {
-      for (int tileY = 0; tileY < mapTileHeight; ++tileY) {
-        creepData[tileX][tileY] = data[index++] == 1;
+  /**
+   * Whether every tile the building would occupy is on the map and buildable terrain, which BW
+   * requires regardless of units and creep. Refineries are exempt since geysers are not buildable.
+   */
+  private boolean isStaticallyBuildable(final TilePosition position, final UnitType type) {
+    if (type.isRefinery()) {
+      return isValidPosition(position);
+    }
+    final int right = position.getX() + type.tileWidth();
+    final int bottom = position.getY() + type.tileHeight();
+    for (int tileX = position.getX(); tileX < right; ++tileX) {
+      for (int tileY = position.getY(); tileY < bottom; ++tileY) {
+        if (!isBuildable(tileX, tileY)) {
+          return false;
+        }
       }
     }
+    return true;
+  }
+
+  /**
+   * Returns the tiles whose creep or power changed since the last call as pairs of the tile's bit,
+   * see {@link #getTileStateData_native()}, and flags. The flags hold the new {@link #CREEP} and
+   * {@link #POWER} state and, shifted by {@link #CHANGED_SHIFT}, which of them changed. If {@code
+   * reset} is true, the bridge forgets what it sent before and reports every tile with
+   * creep or power.
+   */
+  private native int[] getCreepAndPowerChanges_native(boolean reset);
+
+  /** Applies the changes since the last update to the creep and power bitsets in place. */
+  private int[] updateCreepAndPowerData() {
+    final boolean reset = this.creepData == null;
+    if (reset) {
+      this.creepData = new long[tileStateWordCount()];
+      this.powerData = new long[tileStateWordCount()];
+    }
 
-    return creepData;
+    final int[] changes = getCreepAndPowerChanges_native(reset);
+    for (int i = 0; i < changes.length; i += 2) {
+      final int bit = changes[i];
+      final int flags = changes[i + 1];
+      setBit(this.creepData, bit, (flags & CREEP) != 0);
+      setBit(this.powerData, bit, (flags & POWER) != 0);
+    }
+    return changes;
   }
 
-  public boolean hasCreep(final int tileX, final int tileY) {
-    return this.getCreepDataCache.get()[tileX][tileY];
+  private static void setBit(final long[] words, final int bit, final boolean value) {
+    if (value) {
+      words[bit >>> 6] |= 1L << bit;
+    } else {
+      words[bit >>> 6] &= ~(1L << bit);
+    }
   }
 
-  @Override
-  public boolean hasCreep(final TilePosition tilePosition) {
-    return hasCreep(tilePosition.getX(), tilePosition.getY());
+  private List<TilePosition> getChangedTiles(final int flag) {
+    final int[] changes = this.getCreepAndPowerChangesCache.get();
+    final List<TilePosition> changedTiles = new ArrayList<>();
+    for (int i = 0; i < changes.length; i += 2) {
+      if ((changes[i + 1] & (flag << CHANGED_SHIFT)) != 0) {
+        changedTiles.add(new TilePosition(changes[i] / mapHeight(), changes[i] % mapHeight()));
+      }
+    }
+    return changedTiles;
   }
 
-  private native int[] getPylonPowerData_native();
-
-  private boolean[][] getPylonPowerData() {
-    final int[] data = getPylonPowerData_native();
-
-    final int mapTileWidth = mapWidth();
-    final int mapTileHeight = mapHeight();
-
-    final boolean[][] powerData = new boolean[mapTileWidth][mapTileHeight];
+  @Override
+  public List<TilePosition> getCreepChanges() {
+    return getChangedTiles(CREEP);
+  }
 
-    int index = 0;
+  @Override
+  public List<TilePosition> getPowerChanges() {
+    return getChangedTiles(POWER);
+  }
 
-    for (int tileX = 0; tileX < mapTileWidth; ++tileX) {
-      for (int tileY = 0; tileY < mapTileHeight; ++tileY) {
-        powerData[tileX][tileY] = data[index++] == 1;
-      }
+  public boolean hasCreep(final int tileX, final int tileY) {
+    if (!isValidTile(tileX, tileY)) {
+      return false;
     }
+    this.getCreepAndPowerChangesCache.get();
+    return getBit(this.creepData, 0, tileX * mapHeight() + tileY);
+  }
 
-    return powerData;
+  @Override
+  public boolean hasCreep(final TilePosition tilePosition) {
+    return hasCreep(tilePosition.getX(), tilePosition.getY());
   }
 
   public boolean hasPower(final int tileX, final int tileY) {
-    return this.getPylonPowerDataCache.get()[tileX][tileY];
+    if (!isValidTile(tileX, tileY)) {
+      return false;
+    }
+    this.getCreepAndPowerChangesCache.get();
+    return getBit(this.powerData, 0, tileX * mapHeight() + tileY);
   }
 
   @Override
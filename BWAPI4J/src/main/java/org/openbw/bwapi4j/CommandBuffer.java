@@ -0,0 +1,157 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.openbw.bwapi4j;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import org.openbw.bwapi4j.type.BwError;
+import org.openbw.bwapi4j.type.UnitCommandType;
+import org.openbw.bwapi4j.unit.UnitFactory;
+import org.openbw.bwapi4j.unit.UnitImpl;
+
+/**
+ * Collects unit commands while batching is enabled and hands them to the bridge in one call, at
+ * the end of {@code onFrame} or when the buffer is full. Commands are stored as flat ints, see
+ * {@link #FIELDS}.
+ *
+ * <p>While batching, {@code UnitImpl.issueCommand} returns {@code true} as soon as the command is
+ * queued. Whether it was accepted is known after the flush, see {@link #getLastSuccesses()} and
+ * {@link #getLastError()}. The unit's last command frame is only updated for accepted commands,
+ * and a rejected command is forgotten by the {@link RedundantCommandFilter} so its retry is issued.
+ */
+public final class CommandBuffer {
+  /* unitId, commandTypeId, targetUnitId, x, y, extra */
+  private static final int FIELDS = 6;
+  private static final int CAPACITY = 1024;
+
+  private final BW bw;
+  private final int[] commands = new int[CAPACITY * FIELDS];
+  private final UnitImpl[] units = new UnitImpl[CAPACITY];
+  private final UnitCommandType[] types = new UnitCommandType[CAPACITY];
+  private final long[] successes = new long[(CAPACITY + Long.SIZE - 1) / Long.SIZE];
+  private int size;
+  private boolean enabled;
+
+  private int lastCount;
+  private BwError lastError = BwError.None;
+
+  CommandBuffer(final BW bw, final boolean enabled) {
+    this.bw = bw;
+    this.enabled = enabled;
+  }
+
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /** Enables or disables batching. Commands that are still queued are flushed when disabling. */
+  public void setEnabled(final boolean enabled) {
+    if (!enabled) {
+      flush();
+    }
+    this.enabled = enabled;
+  }
+
+  /** Queues a command of the given unit. Flushes first if the buffer is full. */
+  public void add(
+      final UnitImpl unit,
+      final UnitCommandType type,
+      final int targetUnitId,
+      final int x,
+      final int y,
+      final int extra) {
+    if (this.size == CAPACITY) {
+      flush();
+    }
+
+    int index = this.size * FIELDS;
+    this.commands[index++] = unit.getId();
+    this.commands[index++] = type.ordinal();
+    this.commands[index++] = targetUnitId;
+    this.commands[index++] = x;
+    this.commands[index++] = y;
+    this.commands[index] = extra;
+    this.units[this.size] = unit;
+    this.types[this.size] = type;
+    ++this.size;
+  }
+
+  /** Returns the number of commands waiting for the next flush. */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Issues all queued commands in one native call.
+   *
+   * @return the number of commands issued
+   */
+  public int flush() {
+    if (this.size == 0) {
+      return 0;
+    }
+
+    final int count = this.size;
+    this.size = 0;
+    Arrays.fill(this.successes, 0);
+    final int errorId = this.bw.issueCommands(this.commands, count, this.successes);
+    this.lastError = BwError.values()[errorId];
+    this.lastCount = count;
+
+    final int frame = this.bw.getInteractionHandler().getFrameCount();
+    final UnitFactory unitFactory = this.bw.getUnitFactory();
+    for (int i = 0; i < count; ++i) {
+      if ((this.successes[i >>> 6] & (1L << i)) != 0) {
+        unitFactory.setLastCommand(this.units[i], this.types[i], frame);
+      } else {
+        unitFactory.clearSentCommand(this.units[i]);
+      }
+      this.units[i] = null;
+    }
+    return count;
+  }
+
+  /**
+   * Returns a bitset in which bit {@code i} is set if command {@code i} of the last flush was
+   * accepted.
+   */
+  public BitSet getLastSuccesses() {
+    final int words = (this.lastCount + Long.SIZE - 1) / Long.SIZE;
+    return BitSet.valueOf(Arrays.copyOf(this.successes, words));
+  }
+
+  /** Returns the number of commands in the last flush. */
+  public int getLastCount() {
+    return this.lastCount;
+  }
+
+  /** Returns the error of the last rejected command of the last flush, or {@link BwError#None}. */
+  public BwError getLastError() {
+    return this.lastError;
+  }
+
+  void clear() {
+    Arrays.fill(this.units, null);
+    this.size = 0;
+    this.lastCount = 0;
+    this.lastError = BwError.None;
+  }
+}
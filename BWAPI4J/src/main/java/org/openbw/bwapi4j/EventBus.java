@@ -0,0 +1,368 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.openbw.bwapi4j;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.unit.PlayerUnit;
+import org.openbw.bwapi4j.unit.Unit;
+
+/**
+ * Dispatches game events to handlers subscribed to specific event types, as an alternative to
+ * implementing every method of {@link BWEventListener}. Pass the bus to {@link BW} as its listener
+ * and let each module subscribe to the events it needs:
+ *
+ * <pre>{@code
+ * EventBus bus = new EventBus();
+ * BW bw = new BW(bus);
+ * bus.subscribe(EventType.UnitComplete, self, UnitType.Terran_SCV, workerManager::add);
+ * }</pre>
+ *
+ * <p>Every {@code subscribe} method returns a {@link Handle} which removes the subscription when
+ * closed.
+ *
+ * <p>The handlers of every event type are kept in an array which is rebuilt on subscription, so
+ * dispatching an event with no subscribers costs a single array length check. With event batching
+ * enabled, the bridge does not even send events nobody subscribed to.
+ */
+public final class EventBus implements BWEventListener {
+  private static final Logger logger = LogManager.getLogger();
+
+  private static final EventType[] EVENT_TYPES = EventType.values();
+  private static final Subscription[] NO_SUBSCRIPTIONS = {};
+
+  /* Events BW needs for its own bookkeeping, they are sent by the bridge regardless. */
+  static final int REQUIRED_EVENTS =
+      1 << EventType.MatchStart.ordinal()
+          | 1 << EventType.MatchEnd.ordinal()
+          | 1 << EventType.MatchFrame.ordinal()
+          | 1 << EventType.UnitDestroy.ordinal();
+
+  /** Handle of a subscription. Closing it removes the subscription. */
+  public interface Handle extends AutoCloseable {
+    /** Removes the subscription. Does nothing if it was removed already. */
+    @Override
+    void close();
+  }
+
+  private final class Subscription implements Handle {
+    private final EventType type;
+    private final Object handler;
+    /* Number of arguments the handler takes. */
+    private final int arity;
+    private final Player player;
+    private final UnitType unitType;
+
+    private Subscription(
+        final EventType type,
+        final Object handler,
+        final int arity,
+        final Player player,
+        final UnitType unitType) {
+      this.type = type;
+      this.handler = handler;
+      this.arity = arity;
+      this.player = player;
+      this.unitType = unitType;
+    }
+
+    @Override
+    public void close() {
+      remove(this.type, subscription -> subscription == this);
+    }
+
+    private boolean matches(final Unit unit) {
+      if (unit == null) {
+        return this.unitType == null && this.player == null;
+      }
+      if (this.unitType != null && unit.getType() != this.unitType) {
+        return false;
+      }
+      return this.player == null
+          || unit instanceof PlayerUnit && ((PlayerUnit) unit).getPlayer() == this.player;
+    }
+  }
+
+  private final Subscription[][] subscriptions = new Subscription[EVENT_TYPES.length][];
+  private boolean subscriptionsChanged = true;
+
+  public EventBus() {
+    Arrays.fill(this.subscriptions, NO_SUBSCRIPTIONS);
+  }
+
+  /** Subscribes a handler to events of the given type, ignoring the details of the event. */
+  public Handle subscribe(final EventType type, final Runnable handler) {
+    return add(new Subscription(type, handler, 0, null, null));
+  }
+
+  /**
+   * Subscribes a handler to unit events of the given type.
+   *
+   * @throws IllegalArgumentException if {@code type} is not a unit event
+   */
+  public Handle subscribe(final EventType type, final Consumer<? super Unit> handler) {
+    return subscribe(type, null, null, handler);
+  }
+
+  /**
+   * Subscribes a handler to unit events of the given type concerning units of the given player and
+   * type only.
+   *
+   * @param type type of the unit event
+   * @param player player owning the unit, or {@code null} for any unit
+   * @param unitType type of the unit, or {@code null} for any type
+   * @param handler handler to call with the unit
+   * @throws IllegalArgumentException if {@code type} is not a unit event
+   */
+  public Handle subscribe(
+      final EventType type,
+      final Player player,
+      final UnitType unitType,
+      final Consumer<? super Unit> handler) {
+    if (type.ordinal() < EventType.UnitDiscover.ordinal() || type == EventType.SaveGame) {
+      throw new IllegalArgumentException(type + " is not a unit event.");
+    }
+    return add(new Subscription(type, handler, 1, player, unitType));
+  }
+
+  /** Subscribes a handler to the end of the game, called with whether the game was won. */
+  public Handle subscribeEnd(final Consumer<Boolean> handler) {
+    return add(new Subscription(EventType.MatchEnd, handler, 1, null, null));
+  }
+
+  /**
+   * Subscribes a handler to text events. The handler is called with the sending player, which is
+   * {@code null} unless {@code type} is {@code ReceiveText}, and the text.
+   *
+   * @throws IllegalArgumentException if {@code type} is not {@code SendText}, {@code ReceiveText}
+   *     or {@code SaveGame}
+   */
+  public Handle subscribeText(final EventType type, final BiConsumer<Player, String> handler) {
+    if (type != EventType.SendText && type != EventType.ReceiveText && type != EventType.SaveGame) {
+      throw new IllegalArgumentException(type + " is not a text event.");
+    }
+    return add(new Subscription(type, handler, 2, null, null));
+  }
+
+  public Handle subscribePlayerLeft(final Consumer<Player> handler) {
+    return add(new Subscription(EventType.PlayerLeft, handler, 1, null, null));
+  }
+
+  public Handle subscribeNukeDetect(final Consumer<Position> handler) {
+    return add(new Subscription(EventType.NukeDetect, handler, 1, null, null));
+  }
+
+  /**
+   * Removes all subscriptions of the given handler. Handlers are compared by identity, and each
+   * evaluation of a lambda or a method reference such as {@code this::onUnitCreate} creates a new
+   * object. Pass the very object that was subscribed, or close the {@link Handle} returned by
+   * {@code subscribe} instead.
+   *
+   * @return whether the handler was subscribed
+   */
+  public boolean unsubscribe(final Object handler) {
+    boolean removed = false;
+    for (final EventType type : EVENT_TYPES) {
+      removed |= remove(type, subscription -> subscription.handler == handler);
+    }
+    return removed;
+  }
+
+  public boolean hasSubscribers(final EventType type) {
+    return this.subscriptions[type.ordinal()].length > 0;
+  }
+
+  private Handle add(final Subscription subscription) {
+    final int type = subscription.type.ordinal();
+    final Subscription[] current = this.subscriptions[type];
+    final Subscription[] extended = Arrays.copyOf(current, current.length + 1);
+    extended[current.length] = subscription;
+    this.subscriptions[type] = extended;
+    this.subscriptionsChanged = true;
+    return subscription;
+  }
+
+  /** Removes the matching subscriptions of the given type and returns whether there were any. */
+  private boolean remove(final EventType type, final Predicate<Subscription> filter) {
+    final Subscription[] current = this.subscriptions[type.ordinal()];
+    int size = 0;
+    final Subscription[] remaining = new Subscription[current.length];
+    for (final Subscription subscription : current) {
+      if (!filter.test(subscription)) {
+        remaining[size++] = subscription;
+      }
+    }
+    if (size == current.length) {
+      return false;
+    }
+    this.subscriptions[type.ordinal()] =
+        size == 0 ? NO_SUBSCRIPTIONS : Arrays.copyOf(remaining, size);
+    this.subscriptionsChanged = true;
+    return true;
+  }
+
+  /**
+   * Returns the events the bridge has to send as a bit mask over the {@link EventType} ordinals, or
+   * -1 if the subscriptions did not change since the last call.
+   */
+  int pollEventMask() {
+    if (!this.subscriptionsChanged) {
+      return -1;
+    }
+    this.subscriptionsChanged = false;
+    int mask = REQUIRED_EVENTS;
+    for (int type = 0; type < this.subscriptions.length; ++type) {
+      if (this.subscriptions[type].length > 0) {
+        mask |= 1 << type;
+      }
+    }
+    return mask;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void dispatch(final EventType type, final Object value, final Player player) {
+    for (final Subscription subscription : this.subscriptions[type.ordinal()]) {
+      try {
+        switch (subscription.arity) {
+          case 0:
+            ((Runnable) subscription.handler).run();
+            break;
+          case 1:
+            ((Consumer<Object>) subscription.handler).accept(value);
+            break;
+          default:
+            ((BiConsumer<Player, Object>) subscription.handler).accept(player, value);
+            break;
+        }
+      } catch (Throwable t) {
+        logger.error("exception in {} handler.", type, t);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void dispatchUnit(final EventType type, final Unit unit) {
+    for (final Subscription subscription : this.subscriptions[type.ordinal()]) {
+      if (subscription.arity == 1 && !subscription.matches(unit)) {
+        continue;
+      }
+      try {
+        if (subscription.arity == 0) {
+          ((Runnable) subscription.handler).run();
+        } else {
+          ((Consumer<Unit>) subscription.handler).accept(unit);
+        }
+      } catch (Throwable t) {
+        logger.error("exception in {} handler.", type, t);
+      }
+    }
+  }
+
+  @Override
+  public void onStart() {
+    dispatch(EventType.MatchStart, null, null);
+  }
+
+  @Override
+  public void onEnd(final boolean isWinner) {
+    dispatch(EventType.MatchEnd, isWinner, null);
+  }
+
+  @Override
+  public void onFrame() {
+    dispatch(EventType.MatchFrame, null, null);
+  }
+
+  @Override
+  public void onSendText(final String text) {
+    dispatch(EventType.SendText, text, null);
+  }
+
+  @Override
+  public void onReceiveText(final Player player, final String text) {
+    dispatch(EventType.ReceiveText, text, player);
+  }
+
+  @Override
+  public void onPlayerLeft(final Player player) {
+    dispatch(EventType.PlayerLeft, player, null);
+  }
+
+  @Override
+  public void onNukeDetect(final Position target) {
+    dispatch(EventType.NukeDetect, target, null);
+  }
+
+  @Override
+  public void onUnitDiscover(final Unit unit) {
+    dispatchUnit(EventType.UnitDiscover, unit);
+  }
+
+  @Override
+  public void onUnitEvade(final Unit unit) {
+    dispatchUnit(EventType.UnitEvade, unit);
+  }
+
+  @Override
+  public void onUnitShow(final Unit unit) {
+    dispatchUnit(EventType.UnitShow, unit);
+  }
+
+  @Override
+  public void onUnitHide(final Unit unit) {
+    dispatchUnit(EventType.UnitHide, unit);
+  }
+
+  @Override
+  public void onUnitCreate(final Unit unit) {
+    dispatchUnit(EventType.UnitCreate, unit);
+  }
+
+  @Override
+  public void onUnitDestroy(final Unit unit) {
+    dispatchUnit(EventType.UnitDestroy, unit);
+  }
+
+  @Override
+  public void onUnitMorph(final Unit unit) {
+    dispatchUnit(EventType.UnitMorph, unit);
+  }
+
+  @Override
+  public void onUnitRenegade(final Unit unit) {
+    dispatchUnit(EventType.UnitRenegade, unit);
+  }
+
+  @Override
+  public void onSaveGame(final String gameName) {
+    dispatch(EventType.SaveGame, gameName, null);
+  }
+
+  @Override
+  public void onUnitComplete(final Unit unit) {
+    dispatchUnit(EventType.UnitComplete, unit);
+  }
+}
@@ -0,0 +1,62 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.openbw.bwapi4j;
+
+/**
+ * Types of the game events, corresponding to the methods of {@link BWEventListener}. Used to
+ * subscribe to events on an {@link EventBus}.
+ *
+ * <p>The ordinals match the event codes used by the bridge when it delivers the events of a frame
+ * in one batch. Every event of a batch takes {@link #STRIDE} ints: its ordinal, the id of the unit
+ * or player it concerns (for {@code MatchEnd} 1 if the game was won), the x and y of its position
+ * and the index of its text, or -1 if it has no text.
+ */
+public enum EventType {
+  MatchStart,
+  MatchEnd,
+  MatchFrame,
+  SendText,
+  ReceiveText,
+  PlayerLeft,
+  NukeDetect,
+  UnitDiscover,
+  UnitEvade,
+  UnitShow,
+  UnitHide,
+  UnitCreate,
+  UnitDestroy,
+  UnitMorph,
+  UnitRenegade,
+  SaveGame,
+  UnitComplete;
+
+  static final int STRIDE = 5;
+  static final int ID = 1;
+  static final int X = 2;
+  static final int Y = 3;
+  static final int TEXT = 4;
+
+  private static final EventType[] VALUES = values();
+
+  static EventType withOrdinal(final int ordinal) {
+    return VALUES[ordinal];
+  }
+}
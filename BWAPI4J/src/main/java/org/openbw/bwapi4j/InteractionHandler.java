@@ -20,6 +20,7 @@
 
 package org.openbw.bwapi4j;
 
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -98,27 +99,28 @@ public final class InteractionHandler {
     this.getNukeDotsCache = new Cache<>(this::getNukeDotsData, this);
   }
 
-  void update(int[] data) {
-    this.screenPositionX = data[CacheIndex.SCREEN_POSITION_X.ordinal()];
-    this.screenPositionY = data[CacheIndex.SCREEN_POSITION_Y.ordinal()];
-    this.screenSizeX = data[CacheIndex.SCREEN_SIZE_X.ordinal()];
-    this.screenSizeY = data[CacheIndex.SCREEN_SIZE_Y.ordinal()];
-    this.mousePositionX = data[CacheIndex.MOUSE_POSITION_X.ordinal()];
-    this.mousePositionY = data[CacheIndex.MOUSE_POSITION_Y.ordinal()];
-    this.frameCount = data[CacheIndex.FRAME_COUNT.ordinal()];
-    this.fps = data[CacheIndex.FPS.ordinal()];
-    this.averageFPS = BridgeUtils.parsePreservedDouble(data[CacheIndex.AVERAGE_FPS.ordinal()]);
-    this.latComEnabled = data[CacheIndex.LATCOM_ENABLED.ordinal()] == 1;
-    this.remainingLatencyFrames = data[CacheIndex.REMAINING_LATENCY_FRAMES.ordinal()];
-    this.latencyFrames = data[CacheIndex.LATENCY_FRAMES.ordinal()];
-    this.latency = data[CacheIndex.LATENCY.ordinal()];
-    this.selfId = data[CacheIndex.SELF_ID.ordinal()];
-    this.enemyId = data[CacheIndex.ENEMY_ID.ordinal()];
-    this.gameTypeId = data[CacheIndex.GAME_TYPE_ID.ordinal()];
-    this.isReplay = data[CacheIndex.IS_REPLAY.ordinal()] == 1;
-    this.isPaused = data[CacheIndex.IS_PAUSED.ordinal()] == 1;
-    this.apm = data[CacheIndex.APM.ordinal()];
-    this.apm_including_selects = data[CacheIndex.APM_INCLUDING_SELECTS.ordinal()];
+  void update(final IntBuffer data, final int index) {
+    this.screenPositionX = data.get(index + CacheIndex.SCREEN_POSITION_X.ordinal());
+    this.screenPositionY = data.get(index + CacheIndex.SCREEN_POSITION_Y.ordinal());
+    this.screenSizeX = data.get(index + CacheIndex.SCREEN_SIZE_X.ordinal());
+    this.screenSizeY = data.get(index + CacheIndex.SCREEN_SIZE_Y.ordinal());
+    this.mousePositionX = data.get(index + CacheIndex.MOUSE_POSITION_X.ordinal());
+    this.mousePositionY = data.get(index + CacheIndex.MOUSE_POSITION_Y.ordinal());
+    this.frameCount = data.get(index + CacheIndex.FRAME_COUNT.ordinal());
+    this.fps = data.get(index + CacheIndex.FPS.ordinal());
+    this.averageFPS =
+        BridgeUtils.parsePreservedDouble(data.get(index + CacheIndex.AVERAGE_FPS.ordinal()));
+    this.latComEnabled = data.get(index + CacheIndex.LATCOM_ENABLED.ordinal()) == 1;
+    this.remainingLatencyFrames = data.get(index + CacheIndex.REMAINING_LATENCY_FRAMES.ordinal());
+    this.latencyFrames = data.get(index + CacheIndex.LATENCY_FRAMES.ordinal());
+    this.latency = data.get(index + CacheIndex.LATENCY.ordinal());
+    this.selfId = data.get(index + CacheIndex.SELF_ID.ordinal());
+    this.enemyId = data.get(index + CacheIndex.ENEMY_ID.ordinal());
+    this.gameTypeId = data.get(index + CacheIndex.GAME_TYPE_ID.ordinal());
+    this.isReplay = data.get(index + CacheIndex.IS_REPLAY.ordinal()) == 1;
+    this.isPaused = data.get(index + CacheIndex.IS_PAUSED.ordinal()) == 1;
+    this.apm = data.get(index + CacheIndex.APM.ordinal());
+    this.apm_including_selects = data.get(index + CacheIndex.APM_INCLUDING_SELECTS.ordinal());
   }
 
   /**
@@ -20,10 +20,13 @@
 
 package org.openbw.bwapi4j;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 import org.openbw.bwapi4j.type.Color;
 
 /** Contains all map-drawing-related bwapi functionality. */
-public final class MapDrawer {
+public class MapDrawer {
   public enum CoordinateType {
     None,
     Screen,
@@ -49,9 +52,419 @@ public final class MapDrawer {
     Huge
   }
 
+  /* Rough extent of a character, used to estimate the bounding box of texts for culling. */
+  private static final int CHAR_WIDTH = 8;
+  private static final int LINE_HEIGHT = 12;
+
+  private final InteractionHandler interactionHandler;
+
+  private TextSize textSize = TextSize.Default;
+
+  /* Shapes are recorded here instead of being drawn immediately while buffering. */
+  private final ShapeBuffer buffer = new ShapeBuffer();
+  private boolean buffered;
+  private int shapeBudget = Integer.MAX_VALUE;
+  private int droppedShapes;
+  private int lastDroppedShapes;
+
+  private boolean culling;
+  private int cullingMargin = 32;
+  /* The viewport including the margin, read once per frame. */
+  private boolean viewportKnown;
+  private int viewportLeft;
+  private int viewportTop;
+  private int viewportRight;
+  private int viewportBottom;
+  private int drawnShapes;
+  private int culledShapes;
+  private int lastDrawnShapes;
+  private int lastCulledShapes;
+
+  MapDrawer(final InteractionHandler interactionHandler) {
+    this.interactionHandler = interactionHandler;
+  }
+
+  /**
+   * Enables or disables buffered drawing. While buffering, shapes are recorded and drawn by the
+   * bridge in one call at the end of {@code onFrame} instead of one native call per shape.
+   */
+  public void setBuffered(final boolean buffered) {
+    if (!buffered) {
+      flush();
+    }
+    this.buffered = buffered;
+  }
+
+  public boolean isBuffered() {
+    return this.buffered;
+  }
+
+  /**
+   * Sets the maximum number of shapes drawn per frame while buffering. Further shapes of the frame
+   * are dropped.
+   */
+  public void setShapeBudget(final int shapeBudget) {
+    if (shapeBudget < 0) {
+      throw new IllegalArgumentException("shapeBudget must not be negative: " + shapeBudget);
+    }
+    this.shapeBudget = shapeBudget;
+  }
+
+  public int getShapeBudget() {
+    return this.shapeBudget;
+  }
+
+  /** Returns the number of shapes dropped in the last frame because the budget was exhausted. */
+  public int getDroppedShapeCount() {
+    return this.lastDroppedShapes;
+  }
+
+  /**
+   * Enables or disables viewport culling. While culling, shapes in map coordinates whose bounding
+   * box lies outside of the screen extended by the culling margin are dropped in Java instead of
+   * being passed to the bridge. Shapes of overlay layers are never culled.
+   */
+  public void setCulling(final boolean culling) {
+    this.culling = culling;
+  }
+
+  public boolean isCulling() {
+    return this.culling;
+  }
+
+  /**
+   * Sets the number of pixels the viewport is extended by on every side for culling. The bounding
+   * box of texts is estimated, so the margin should cover the text drawn next to the screen.
+   */
+  public void setCullingMargin(final int cullingMargin) {
+    this.cullingMargin = cullingMargin;
+    this.viewportKnown = false;
+  }
+
+  public int getCullingMargin() {
+    return this.cullingMargin;
+  }
+
+  /** Returns the number of shapes passed to the bridge in the last frame. */
+  public int getDrawnShapeCount() {
+    return this.lastDrawnShapes;
+  }
+
+  /** Returns the number of shapes dropped in the last frame because they were off screen. */
+  public int getCulledShapeCount() {
+    return this.lastCulledShapes;
+  }
+
+  /** Draws all buffered shapes in one native call. Called by BW at the end of every frame. */
+  void flush() {
+    if (this.buffer.size() > 0) {
+      drawShapes(this.buffer.getShapes(), this.buffer.size(), this.buffer.getStrings());
+      this.buffer.clear();
+    }
+    this.lastDroppedShapes = this.droppedShapes;
+    this.droppedShapes = 0;
+    this.lastDrawnShapes = this.drawnShapes;
+    this.drawnShapes = 0;
+    this.lastCulledShapes = this.culledShapes;
+    this.culledShapes = 0;
+    this.viewportKnown = false;
+  }
+
+  /** Draws {@code count} shapes in the format of {@link ShapeBuffer}. */
+  private native void drawShapes_native(int[] shapes, int count, String[] strings);
+
+  /** Calls {@link #drawShapes_native(int[], int, String[])}, replaced by a stub in tests. */
+  void drawShapes(final int[] shapes, final int count, final String[] strings) {
+    drawShapes_native(shapes, count, strings);
+  }
+
+  private static final class Layer {
+    private final int id;
+    private final ShapeBuffer shapes = new ShapeBuffer();
+    private boolean visible = true;
+
+    private Layer(final int id) {
+      this.id = id;
+    }
+  }
+
+  private final Map<String, Layer> layers = new HashMap<>();
+  private int nextLayerId;
+  /* The shapes of the layer being built, see buildLayer. */
+  private ShapeBuffer layerShapes;
+
+  /**
+   * Builds or rebuilds the named overlay layer. All shapes drawn by {@code painter} through the
+   * given drawer are recorded into the layer and uploaded to the bridge once. The bridge then draws
+   * the layer every frame without any call into Java until it is rebuilt, hidden or removed. Use
+   * this for drawings that rarely change, e.g. map analysis results. Layers are drawn in the order
+   * they were first built and are dropped when a new game starts.
+   *
+   * @param name name of the layer
+   * @param painter draws the shapes of the layer
+   */
+  public void buildLayer(final String name, final Consumer<MapDrawer> painter) {
+    if (this.layerShapes != null) {
+      throw new IllegalStateException("layers cannot be built while building a layer.");
+    }
+    final Layer layer = this.layers.computeIfAbsent(name, n -> new Layer(this.nextLayerId++));
+    layer.shapes.clear();
+    this.layerShapes = layer.shapes;
+    try {
+      painter.accept(this);
+    } finally {
+      this.layerShapes = null;
+    }
+    uploadLayer(
+        layer.id, layer.shapes.getShapes(), layer.shapes.size(), layer.shapes.getStrings());
+  }
+
+  /** Shows or hides the named layer. Does nothing if there is no such layer. */
+  public void setLayerVisible(final String name, final boolean visible) {
+    final Layer layer = this.layers.get(name);
+    if (layer != null && layer.visible != visible) {
+      layer.visible = visible;
+      setLayerVisible_native(layer.id, visible);
+    }
+  }
+
+  public boolean isLayerVisible(final String name) {
+    final Layer layer = this.layers.get(name);
+    return layer != null && layer.visible;
+  }
+
+  /** Removes the named layer from the bridge. Does nothing if there is no such layer. */
+  public void removeLayer(final String name) {
+    final Layer layer = this.layers.remove(name);
+    if (layer != null) {
+      removeLayer_native(layer.id);
+    }
+  }
+
+  private native void uploadLayer_native(int layerId, int[] shapes, int count, String[] strings);
+
+  /** Calls {@link #uploadLayer_native(int, int[], int, String[])}, replaced by a stub in tests. */
+  void uploadLayer(final int layerId, final int[] shapes, final int count, final String[] strings) {
+    uploadLayer_native(layerId, shapes, count, strings);
+  }
+
+  private native void setLayerVisible_native(int layerId, boolean visible);
+
+  private native void removeLayer_native(int layerId);
+
+  /** Drops the buffered shapes and all layers of the last game. Called by BW on game start. */
+  void reset() {
+    this.buffer.clear();
+    this.layers.clear();
+    this.nextLayerId = 0;
+    clearLayers();
+  }
+
+  private native void clearLayers_native();
+
+  /** Calls {@link #clearLayers_native()}, replaced by a stub in tests. */
+  void clearLayers() {
+    clearLayers_native();
+  }
+
+  /* Returns the buffer to record the next shape into, or null if the shape is drawn immediately. */
+  private ShapeBuffer target() {
+    if (this.layerShapes != null) {
+      return this.layerShapes;
+    }
+    return this.buffered ? this.buffer : null;
+  }
+
+  /*
+   * Whether a shape with the given bounding box is drawn into the given buffer, or immediately if
+   * it is null. Counts the shape as drawn, culled or dropped.
+   */
+  private boolean accept(
+      final ShapeBuffer target,
+      final int coordinateType,
+      final int left,
+      final int top,
+      final int right,
+      final int bottom) {
+    if (target != null && target == this.layerShapes) {
+      return true;
+    }
+    if (this.culling
+        && coordinateType == CoordinateType.Map.ordinal()
+        && !intersectsViewport(left, top, right, bottom)) {
+      ++this.culledShapes;
+      return false;
+    }
+    if (target == this.buffer && this.buffer.size() >= this.shapeBudget) {
+      ++this.droppedShapes;
+      return false;
+    }
+    ++this.drawnShapes;
+    return true;
+  }
+
+  private boolean intersectsViewport(
+      final int left, final int top, final int right, final int bottom) {
+    if (!this.viewportKnown) {
+      final Position position = this.interactionHandler.getScreenPosition();
+      final Position size = this.interactionHandler.getScreenSize();
+      this.viewportLeft = position.getX() - this.cullingMargin;
+      this.viewportTop = position.getY() - this.cullingMargin;
+      this.viewportRight = position.getX() + size.getX() + this.cullingMargin;
+      this.viewportBottom = position.getY() + size.getY() + this.cullingMargin;
+      this.viewportKnown = true;
+    }
+    return left <= this.viewportRight
+        && right >= this.viewportLeft
+        && top <= this.viewportBottom
+        && bottom >= this.viewportTop;
+  }
+
+  private void drawTextShape(
+      final int coordinateType, final int x, final int y, final String text) {
+    final ShapeBuffer target = target();
+    if (!accept(target, coordinateType, x, y, x + CHAR_WIDTH * text.length(), y + LINE_HEIGHT)) {
+      return;
+    }
+    if (target == null) {
+      drawText_native(coordinateType, x, y, text);
+    } else {
+      final int size = this.textSize.ordinal();
+      target.add(Shape.Text, coordinateType, x, y, target.intern(text), size, 0, 0, 0, 0);
+    }
+  }
+
+  private void drawBoxShape(
+      final int coordinateType,
+      final int left,
+      final int top,
+      final int right,
+      final int bottom,
+      final int color,
+      final boolean isSolid) {
+    final ShapeBuffer target = target();
+    if (!accept(
+        target,
+        coordinateType,
+        Math.min(left, right),
+        Math.min(top, bottom),
+        Math.max(left, right),
+        Math.max(top, bottom))) {
+      return;
+    }
+    if (target == null) {
+      drawBox_native(coordinateType, left, top, right, bottom, color, isSolid);
+    } else {
+      target.add(
+          Shape.Box, coordinateType, left, top, right, bottom, color, isSolid ? 1 : 0, 0, 0);
+    }
+  }
+
+  private void drawTriangleShape(
+      final int coordinateType,
+      final int ax,
+      final int ay,
+      final int bx,
+      final int by,
+      final int cx,
+      final int cy,
+      final int color,
+      final boolean isSolid) {
+    final ShapeBuffer target = target();
+    if (!accept(
+        target,
+        coordinateType,
+        Math.min(ax, Math.min(bx, cx)),
+        Math.min(ay, Math.min(by, cy)),
+        Math.max(ax, Math.max(bx, cx)),
+        Math.max(ay, Math.max(by, cy)))) {
+      return;
+    }
+    if (target == null) {
+      drawTriangle_native(coordinateType, ax, ay, bx, by, cx, cy, color, isSolid);
+    } else {
+      target.add(Shape.Triangle, coordinateType, ax, ay, bx, by, cx, cy, color, isSolid ? 1 : 0);
+    }
+  }
+
+  private void drawCircleShape(
+      final int coordinateType,
+      final int x,
+      final int y,
+      final int radius,
+      final int color,
+      final boolean isSolid) {
+    final ShapeBuffer target = target();
+    if (!accept(target, coordinateType, x - radius, y - radius, x + radius, y + radius)) {
+      return;
+    }
+    if (target == null) {
+      drawCircle_native(coordinateType, x, y, radius, color, isSolid);
+    } else {
+      target.add(Shape.Circle, coordinateType, x, y, radius, color, isSolid ? 1 : 0, 0, 0, 0);
+    }
+  }
+
+  private void drawEllipseShape(
+      final int coordinateType,
+      final int x,
+      final int y,
+      final int xrad,
+      final int yrad,
+      final int color,
+      final boolean isSolid) {
+    final ShapeBuffer target = target();
+    if (!accept(target, coordinateType, x - xrad, y - yrad, x + xrad, y + yrad)) {
+      return;
+    }
+    if (target == null) {
+      drawEllipse_native(coordinateType, x, y, xrad, yrad, color, isSolid);
+    } else {
+      target.add(Shape.Ellipse, coordinateType, x, y, xrad, yrad, color, isSolid ? 1 : 0, 0, 0);
+    }
+  }
+
+  private void drawDotShape(final int coordinateType, final int x, final int y, final int color) {
+    final ShapeBuffer target = target();
+    if (!accept(target, coordinateType, x, y, x, y)) {
+      return;
+    }
+    if (target == null) {
+      drawDot_native(coordinateType, x, y, color);
+    } else {
+      target.add(Shape.Dot, coordinateType, x, y, color, 0, 0, 0, 0, 0);
+    }
+  }
+
+  private void drawLineShape(
+      final int coordinateType,
+      final int ax,
+      final int ay,
+      final int bx,
+      final int by,
+      final int color) {
+    final ShapeBuffer target = target();
+    if (!accept(
+        target,
+        coordinateType,
+        Math.min(ax, bx),
+        Math.min(ay, by),
+        Math.max(ax, bx),
+        Math.max(ay, by))) {
+      return;
+    }
+    if (target == null) {
+      drawLine_native(coordinateType, ax, ay, bx, by, color);
+    } else {
+      target.add(Shape.Line, coordinateType, ax, ay, bx, by, color, 0, 0, 0);
+    }
+  }
+
   private native void setTextSize_native(int textSize);
 
+  /** Sets the size of the following texts. Buffered texts keep the size they were drawn with. */
   public void setTextSize(final TextSize textSize) {
+    this.textSize = textSize;
     setTextSize_native(textSize.ordinal());
   }
 
@@ -83,35 +496,35 @@ public final class MapDrawer {
       int coordinateType, int ax, int ay, int bx, int by, int color);
 
   public void drawText(CoordinateType ctype, int x, int y, String cstr_format) {
-    drawText_native(ctype.ordinal(), x, y, cstr_format);
+    drawTextShape(ctype.ordinal(), x, y, cstr_format);
   }
 
   public void drawTextMap(int x, int y, String cstr_format) {
-    drawText_native(CoordinateType.Map.ordinal(), x, y, cstr_format);
+    drawTextShape(CoordinateType.Map.ordinal(), x, y, cstr_format);
   }
 
   public void drawTextMap(Position p, String cstr_format) {
-    drawText_native(CoordinateType.Map.ordinal(), p.getX(), p.getY(), cstr_format);
+    drawTextShape(CoordinateType.Map.ordinal(), p.getX(), p.getY(), cstr_format);
   }
 
   public void drawTextMouse(int x, int y, String cstr_format) {
-    drawText_native(CoordinateType.Mouse.ordinal(), x, y, cstr_format);
+    drawTextShape(CoordinateType.Mouse.ordinal(), x, y, cstr_format);
   }
 
   public void drawTextMouse(Position p, String cstr_format) {
-    drawText_native(CoordinateType.Mouse.ordinal(), p.getX(), p.getY(), cstr_format);
+    drawTextShape(CoordinateType.Mouse.ordinal(), p.getX(), p.getY(), cstr_format);
   }
 
   public void drawTextScreen(int x, int y, String cstr_format) {
-    drawText_native(CoordinateType.Screen.ordinal(), x, y, cstr_format);
+    drawTextShape(CoordinateType.Screen.ordinal(), x, y, cstr_format);
   }
 
   public void drawTextScreen(Position p, String cstr_format) {
-    drawText_native(CoordinateType.Screen.ordinal(), p.getX(), p.getY(), cstr_format);
+    drawTextShape(CoordinateType.Screen.ordinal(), p.getX(), p.getY(), cstr_format);
   }
 
   public void drawBox(CoordinateType ctype, int left, int top, int right, int bottom, Color color) {
-    drawBox_native(ctype.ordinal(), left, top, right, bottom, color.getValue(), false);
+    drawBoxShape(ctype.ordinal(), left, top, right, bottom, color.getValue(), false);
   }
 
   public void drawBox(
@@ -122,20 +535,20 @@ public final class MapDrawer {
       int bottom,
       Color color,
       boolean isSolid) {
-    drawBox_native(ctype.ordinal(), left, top, right, bottom, color.getValue(), isSolid);
+    drawBoxShape(ctype.ordinal(), left, top, right, bottom, color.getValue(), isSolid);
   }
 
   public void drawBoxMap(int left, int top, int right, int bottom, Color color) {
-    drawBox_native(CoordinateType.Map.ordinal(), left, top, right, bottom, color.getValue(), false);
+    drawBoxShape(CoordinateType.Map.ordinal(), left, top, right, bottom, color.getValue(), false);
   }
 
   public void drawBoxMap(int left, int top, int right, int bottom, Color color, boolean isSolid) {
-    drawBox_native(
+    drawBoxShape(
         CoordinateType.Map.ordinal(), left, top, right, bottom, color.getValue(), isSolid);
   }
 
   public void drawBoxMap(Position leftTop, Position rightBottom, Color color) {
-    drawBox_native(
+    drawBoxShape(
         CoordinateType.Map.ordinal(),
         leftTop.getX(),
         leftTop.getY(),
@@ -146,7 +559,7 @@ public final class MapDrawer {
   }
 
   public void drawBoxMap(Position leftTop, Position rightBottom, Color color, boolean isSolid) {
-    drawBox_native(
+    drawBoxShape(
         CoordinateType.Map.ordinal(),
         leftTop.getX(),
         leftTop.getY(),
@@ -157,17 +570,17 @@ public final class MapDrawer {
   }
 
   public void drawBoxMouse(int left, int top, int right, int bottom, Color color) {
-    drawBox_native(
+    drawBoxShape(
         CoordinateType.Mouse.ordinal(), left, top, right, bottom, color.getValue(), false);
   }
 
   public void drawBoxMouse(int left, int top, int right, int bottom, Color color, boolean isSolid) {
-    drawBox_native(
+    drawBoxShape(
         CoordinateType.Mouse.ordinal(), left, top, right, bottom, color.getValue(), isSolid);
   }
 
   public void drawBoxMouse(Position leftTop, Position rightBottom, Color color) {
-    drawBox_native(
+    drawBoxShape(
         CoordinateType.Mouse.ordinal(),
         leftTop.getX(),
         leftTop.getY(),
@@ -178,7 +591,7 @@ public final class MapDrawer {
   }
 
   public void drawBoxMouse(Position leftTop, Position rightBottom, Color color, boolean isSolid) {
-    drawBox_native(
+    drawBoxShape(
         CoordinateType.Mouse.ordinal(),
         leftTop.getX(),
         leftTop.getY(),
@@ -189,18 +602,18 @@ public final class MapDrawer {
   }
 
   public void drawBoxScreen(int left, int top, int right, int bottom, Color color) {
-    drawBox_native(
+    drawBoxShape(
         CoordinateType.Screen.ordinal(), left, top, right, bottom, color.getValue(), false);
   }
 
   public void drawBoxScreen(
       int left, int top, int right, int bottom, Color color, boolean isSolid) {
-    drawBox_native(
+    drawBoxShape(
         CoordinateType.Screen.ordinal(), left, top, right, bottom, color.getValue(), isSolid);
   }
 
   public void drawBoxScreen(Position leftTop, Position rightBottom, Color color) {
-    drawBox_native(
+    drawBoxShape(
         CoordinateType.Screen.ordinal(),
         leftTop.getX(),
         leftTop.getY(),
@@ -211,7 +624,7 @@ public final class MapDrawer {
   }
 
   public void drawBoxScreen(Position leftTop, Position rightBottom, Color color, boolean isSolid) {
-    drawBox_native(
+    drawBoxShape(
         CoordinateType.Screen.ordinal(),
         leftTop.getX(),
         leftTop.getY(),
@@ -223,7 +636,7 @@ public final class MapDrawer {
 
   public void drawTriangle(
       CoordinateType ctype, int ax, int ay, int bx, int by, int cx, int cy, Color color) {
-    drawTriangle_native(ctype.ordinal(), ax, ay, bx, by, cx, cy, color.getValue(), false);
+    drawTriangleShape(ctype.ordinal(), ax, ay, bx, by, cx, cy, color.getValue(), false);
   }
 
   public void drawTriangle(
@@ -236,22 +649,22 @@ public final class MapDrawer {
       int cy,
       Color color,
       boolean isSolid) {
-    drawTriangle_native(ctype.ordinal(), ax, ay, bx, by, cx, cy, color.getValue(), isSolid);
+    drawTriangleShape(ctype.ordinal(), ax, ay, bx, by, cx, cy, color.getValue(), isSolid);
   }
 
   public void drawTriangleMap(int ax, int ay, int bx, int by, int cx, int cy, Color color) {
-    drawTriangle_native(
+    drawTriangleShape(
         CoordinateType.Map.ordinal(), ax, ay, bx, by, cx, cy, color.getValue(), false);
   }
 
   public void drawTriangleMap(
       int ax, int ay, int bx, int by, int cx, int cy, Color color, boolean isSolid) {
-    drawTriangle_native(
+    drawTriangleShape(
         CoordinateType.Map.ordinal(), ax, ay, bx, by, cx, cy, color.getValue(), isSolid);
   }
 
   public void drawTriangleMap(Position a, Position b, Position c, Color color) {
-    drawTriangle_native(
+    drawTriangleShape(
         CoordinateType.Map.ordinal(),
         a.getX(),
         a.getY(),
@@ -264,7 +677,7 @@ public final class MapDrawer {
   }
 
   public void drawTriangleMap(Position a, Position b, Position c, Color color, boolean isSolid) {
-    drawTriangle_native(
+    drawTriangleShape(
         CoordinateType.Map.ordinal(),
         a.getX(),
         a.getY(),
@@ -277,18 +690,18 @@ public final class MapDrawer {
   }
 
   public void drawTriangleMouse(int ax, int ay, int bx, int by, int cx, int cy, Color color) {
-    drawTriangle_native(
+    drawTriangleShape(
         CoordinateType.Mouse.ordinal(), ax, ay, bx, by, cx, cy, color.getValue(), false);
   }
 
   public void drawTriangleMouse(
       int ax, int ay, int bx, int by, int cx, int cy, Color color, boolean isSolid) {
-    drawTriangle_native(
+    drawTriangleShape(
         CoordinateType.Mouse.ordinal(), ax, ay, bx, by, cx, cy, color.getValue(), isSolid);
   }
 
   public void drawTriangleMouse(Position a, Position b, Position c, Color color) {
-    drawTriangle_native(
+    drawTriangleShape(
         CoordinateType.Mouse.ordinal(),
         a.getX(),
         a.getY(),
@@ -301,7 +714,7 @@ public final class MapDrawer {
   }
 
   public void drawTriangleMouse(Position a, Position b, Position c, Color color, boolean isSolid) {
-    drawTriangle_native(
+    drawTriangleShape(
         CoordinateType.Mouse.ordinal(),
         a.getX(),
         a.getY(),
@@ -314,18 +727,18 @@ public final class MapDrawer {
   }
 
   public void drawTriangleScreen(int ax, int ay, int bx, int by, int cx, int cy, Color color) {
-    drawTriangle_native(
+    drawTriangleShape(
         CoordinateType.Screen.ordinal(), ax, ay, bx, by, cx, cy, color.getValue(), false);
   }
 
   public void drawTriangleScreen(
       int ax, int ay, int bx, int by, int cx, int cy, Color color, boolean isSolid) {
-    drawTriangle_native(
+    drawTriangleShape(
         CoordinateType.Screen.ordinal(), ax, ay, bx, by, cx, cy, color.getValue(), isSolid);
   }
 
   public void drawTriangleScreen(Position a, Position b, Position c, Color color) {
-    drawTriangle_native(
+    drawTriangleShape(
         CoordinateType.Screen.ordinal(),
         a.getX(),
         a.getY(),
@@ -338,7 +751,7 @@ public final class MapDrawer {
   }
 
   public void drawTriangleScreen(Position a, Position b, Position c, Color color, boolean isSolid) {
-    drawTriangle_native(
+    drawTriangleShape(
         CoordinateType.Screen.ordinal(),
         a.getX(),
         a.getY(),
@@ -351,188 +764,188 @@ public final class MapDrawer {
   }
 
   public void drawCircle(CoordinateType ctype, int x, int y, int radius, Color color) {
-    drawCircle_native(ctype.ordinal(), x, y, radius, color.getValue(), false);
+    drawCircleShape(ctype.ordinal(), x, y, radius, color.getValue(), false);
   }
 
   public void drawCircle(
       CoordinateType ctype, int x, int y, int radius, Color color, boolean isSolid) {
-    drawCircle_native(ctype.ordinal(), x, y, radius, color.getValue(), isSolid);
+    drawCircleShape(ctype.ordinal(), x, y, radius, color.getValue(), isSolid);
   }
 
   public void drawCircleMap(int x, int y, int radius, Color color) {
-    drawCircle_native(CoordinateType.Map.ordinal(), x, y, radius, color.getValue(), false);
+    drawCircleShape(CoordinateType.Map.ordinal(), x, y, radius, color.getValue(), false);
   }
 
   public void drawCircleMap(int x, int y, int radius, Color color, boolean isSolid) {
-    drawCircle_native(CoordinateType.Map.ordinal(), x, y, radius, color.getValue(), isSolid);
+    drawCircleShape(CoordinateType.Map.ordinal(), x, y, radius, color.getValue(), isSolid);
   }
 
   public void drawCircleMap(Position p, int radius, Color color) {
-    drawCircle_native(
+    drawCircleShape(
         CoordinateType.Map.ordinal(), p.getX(), p.getY(), radius, color.getValue(), false);
   }
 
   public void drawCircleMap(Position p, int radius, Color color, boolean isSolid) {
-    drawCircle_native(
+    drawCircleShape(
         CoordinateType.Map.ordinal(), p.getX(), p.getY(), radius, color.getValue(), isSolid);
   }
 
   public void drawCircleMouse(int x, int y, int radius, Color color) {
-    drawCircle_native(CoordinateType.Mouse.ordinal(), x, y, radius, color.getValue(), false);
+    drawCircleShape(CoordinateType.Mouse.ordinal(), x, y, radius, color.getValue(), false);
   }
 
   public void drawCircleMouse(int x, int y, int radius, Color color, boolean isSolid) {
-    drawCircle_native(CoordinateType.Mouse.ordinal(), x, y, radius, color.getValue(), isSolid);
+    drawCircleShape(CoordinateType.Mouse.ordinal(), x, y, radius, color.getValue(), isSolid);
   }
 
   public void drawCircleMouse(Position p, int radius, Color color) {
-    drawCircle_native(
+    drawCircleShape(
         CoordinateType.Mouse.ordinal(), p.getX(), p.getY(), radius, color.getValue(), false);
   }
 
   public void drawCircleMouse(Position p, int radius, Color color, boolean isSolid) {
-    drawCircle_native(
+    drawCircleShape(
         CoordinateType.Mouse.ordinal(), p.getX(), p.getY(), radius, color.getValue(), isSolid);
   }
 
   public void drawCircleScreen(int x, int y, int radius, Color color) {
-    drawCircle_native(CoordinateType.Screen.ordinal(), x, y, radius, color.getValue(), false);
+    drawCircleShape(CoordinateType.Screen.ordinal(), x, y, radius, color.getValue(), false);
   }
 
   public void drawCircleScreen(int x, int y, int radius, Color color, boolean isSolid) {
-    drawCircle_native(CoordinateType.Screen.ordinal(), x, y, radius, color.getValue(), isSolid);
+    drawCircleShape(CoordinateType.Screen.ordinal(), x, y, radius, color.getValue(), isSolid);
   }
 
   public void drawCircleScreen(Position p, int radius, Color color) {
-    drawCircle_native(
+    drawCircleShape(
         CoordinateType.Screen.ordinal(), p.getX(), p.getY(), radius, color.getValue(), false);
   }
 
   public void drawCircleScreen(Position p, int radius, Color color, boolean isSolid) {
-    drawCircle_native(
+    drawCircleShape(
         CoordinateType.Screen.ordinal(), p.getX(), p.getY(), radius, color.getValue(), isSolid);
   }
 
   public void drawEllipse(CoordinateType ctype, int x, int y, int xrad, int yrad, Color color) {
-    drawEllipse_native(ctype.ordinal(), x, y, xrad, yrad, color.getValue(), false);
+    drawEllipseShape(ctype.ordinal(), x, y, xrad, yrad, color.getValue(), false);
   }
 
   public void drawEllipse(
       CoordinateType ctype, int x, int y, int xrad, int yrad, Color color, boolean isSolid) {
-    drawEllipse_native(ctype.ordinal(), x, y, xrad, yrad, color.getValue(), isSolid);
+    drawEllipseShape(ctype.ordinal(), x, y, xrad, yrad, color.getValue(), isSolid);
   }
 
   public void drawEllipseMap(int x, int y, int xrad, int yrad, Color color) {
-    drawEllipse_native(CoordinateType.Map.ordinal(), x, y, xrad, yrad, color.getValue(), false);
+    drawEllipseShape(CoordinateType.Map.ordinal(), x, y, xrad, yrad, color.getValue(), false);
   }
 
   public void drawEllipseMap(int x, int y, int xrad, int yrad, Color color, boolean isSolid) {
-    drawEllipse_native(CoordinateType.Map.ordinal(), x, y, xrad, yrad, color.getValue(), isSolid);
+    drawEllipseShape(CoordinateType.Map.ordinal(), x, y, xrad, yrad, color.getValue(), isSolid);
   }
 
   public void drawEllipseMap(Position p, int xrad, int yrad, Color color) {
-    drawEllipse_native(
+    drawEllipseShape(
         CoordinateType.Map.ordinal(), p.getX(), p.getY(), xrad, yrad, color.getValue(), false);
   }
 
   public void drawEllipseMap(Position p, int xrad, int yrad, Color color, boolean isSolid) {
-    drawEllipse_native(
+    drawEllipseShape(
         CoordinateType.Map.ordinal(), p.getX(), p.getY(), xrad, yrad, color.getValue(), isSolid);
   }
 
   public void drawEllipseMouse(int x, int y, int xrad, int yrad, Color color) {
-    drawEllipse_native(CoordinateType.Mouse.ordinal(), x, y, xrad, yrad, color.getValue(), false);
+    drawEllipseShape(CoordinateType.Mouse.ordinal(), x, y, xrad, yrad, color.getValue(), false);
   }
 
   public void drawEllipseMouse(int x, int y, int xrad, int yrad, Color color, boolean isSolid) {
-    drawEllipse_native(CoordinateType.Mouse.ordinal(), x, y, xrad, yrad, color.getValue(), isSolid);
+    drawEllipseShape(CoordinateType.Mouse.ordinal(), x, y, xrad, yrad, color.getValue(), isSolid);
   }
 
   public void drawEllipseMouse(Position p, int xrad, int yrad, Color color) {
-    drawEllipse_native(
+    drawEllipseShape(
         CoordinateType.Mouse.ordinal(), p.getX(), p.getY(), xrad, yrad, color.getValue(), false);
   }
 
   public void drawEllipseMouse(Position p, int xrad, int yrad, Color color, boolean isSolid) {
-    drawEllipse_native(
+    drawEllipseShape(
         CoordinateType.Mouse.ordinal(), p.getX(), p.getY(), xrad, yrad, color.getValue(), isSolid);
   }
 
   public void drawEllipseScreen(int x, int y, int xrad, int yrad, Color color) {
-    drawEllipse_native(CoordinateType.Screen.ordinal(), x, y, xrad, yrad, color.getValue(), false);
+    drawEllipseShape(CoordinateType.Screen.ordinal(), x, y, xrad, yrad, color.getValue(), false);
   }
 
   public void drawEllipseScreen(int x, int y, int xrad, int yrad, Color color, boolean isSolid) {
-    drawEllipse_native(
+    drawEllipseShape(
         CoordinateType.Screen.ordinal(), x, y, xrad, yrad, color.getValue(), isSolid);
   }
 
   public void drawEllipseScreen(Position p, int xrad, int yrad, Color color) {
-    drawEllipse_native(
+    drawEllipseShape(
         CoordinateType.Screen.ordinal(), p.getX(), p.getY(), xrad, yrad, color.getValue(), false);
   }
 
   public void drawEllipseScreen(Position p, int xrad, int yrad, Color color, boolean isSolid) {
-    drawEllipse_native(
+    drawEllipseShape(
         CoordinateType.Screen.ordinal(), p.getX(), p.getY(), xrad, yrad, color.getValue(), isSolid);
   }
 
   public void drawDot(CoordinateType ctype, int x, int y, Color color) {
-    drawDot_native(ctype.ordinal(), x, y, color.getValue());
+    drawDotShape(ctype.ordinal(), x, y, color.getValue());
   }
 
   public void drawDotMap(int x, int y, Color color) {
-    drawDot_native(CoordinateType.Map.ordinal(), x, y, color.getValue());
+    drawDotShape(CoordinateType.Map.ordinal(), x, y, color.getValue());
   }
 
   public void drawDotMap(Position p, Color color) {
-    drawDot_native(CoordinateType.Map.ordinal(), p.getX(), p.getY(), color.getValue());
+    drawDotShape(CoordinateType.Map.ordinal(), p.getX(), p.getY(), color.getValue());
   }
 
   public void drawDotMouse(int x, int y, Color color) {
-    drawDot_native(CoordinateType.Mouse.ordinal(), x, y, color.getValue());
+    drawDotShape(CoordinateType.Mouse.ordinal(), x, y, color.getValue());
   }
 
   public void drawDotMouse(Position p, Color color) {
-    drawDot_native(CoordinateType.Mouse.ordinal(), p.getX(), p.getY(), color.getValue());
+    drawDotShape(CoordinateType.Mouse.ordinal(), p.getX(), p.getY(), color.getValue());
   }
 
   public void drawDotScreen(int x, int y, Color color) {
-    drawDot_native(CoordinateType.Screen.ordinal(), x, y, color.getValue());
+    drawDotShape(CoordinateType.Screen.ordinal(), x, y, color.getValue());
   }
 
   public void drawDotScreen(Position p, Color color) {
-    drawDot_native(CoordinateType.Screen.ordinal(), p.getX(), p.getY(), color.getValue());
+    drawDotShape(CoordinateType.Screen.ordinal(), p.getX(), p.getY(), color.getValue());
   }
 
   public void drawLine(CoordinateType ctype, int x1, int y1, int x2, int y2, Color color) {
-    drawLine_native(ctype.ordinal(), x1, y1, x2, y2, color.getValue());
+    drawLineShape(ctype.ordinal(), x1, y1, x2, y2, color.getValue());
   }
 
   public void drawLineMap(int x1, int y1, int x2, int y2, Color color) {
-    drawLine_native(CoordinateType.Map.ordinal(), x1, y1, x2, y2, color.getValue());
+    drawLineShape(CoordinateType.Map.ordinal(), x1, y1, x2, y2, color.getValue());
   }
 
   public void drawLineMap(Position a, Position b, Color color) {
-    drawLine_native(
+    drawLineShape(
         CoordinateType.Map.ordinal(), a.getX(), a.getY(), b.getX(), b.getY(), color.getValue());
   }
 
   public void drawLineMouse(int x1, int y1, int x2, int y2, Color color) {
-    drawLine_native(CoordinateType.Mouse.ordinal(), x1, y1, x2, y2, color.getValue());
+    drawLineShape(CoordinateType.Mouse.ordinal(), x1, y1, x2, y2, color.getValue());
   }
 
   public void drawLineMouse(Position a, Position b, Color color) {
-    drawLine_native(
+    drawLineShape(
         CoordinateType.Mouse.ordinal(), a.getX(), a.getY(), b.getX(), b.getY(), color.getValue());
   }
 
   public void drawLineScreen(int x1, int y1, int x2, int y2, Color color) {
-    drawLine_native(CoordinateType.Screen.ordinal(), x1, y1, x2, y2, color.getValue());
+    drawLineShape(CoordinateType.Screen.ordinal(), x1, y1, x2, y2, color.getValue());
   }
 
   public void drawLineScreen(Position a, Position b, Color color) {
-    drawLine_native(
+    drawLineShape(
         CoordinateType.Screen.ordinal(), a.getX(), a.getY(), b.getX(), b.getY(), color.getValue());
   }
 }
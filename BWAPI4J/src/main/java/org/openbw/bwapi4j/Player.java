@@ -20,12 +20,10 @@
 
 package org.openbw.bwapi4j;
 
-import java.util.ArrayList;
+import java.nio.IntBuffer;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.EnumMap;
 import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
 import org.openbw.bwapi4j.ap.BridgeValue;
 import org.openbw.bwapi4j.ap.LookedUp;
 import org.openbw.bwapi4j.ap.Named;
@@ -146,8 +144,17 @@ public class Player {
   //  @BridgeValue
   //  boolean enemy;
 
-  Map<TechType, boolean[]> researchStatus;
-  Map<UpgradeType, int[]> upgradeStatus;
+  /* Upgrade and tech state indexed by UpgradeType and TechType ordinal. */
+  private final int[] upgradeLevels = new int[UpgradeType.values().length];
+  private final boolean[] upgrading = new boolean[UpgradeType.values().length];
+  private final boolean[] researched = new boolean[TechType.values().length];
+  private final boolean[] researching = new boolean[TechType.values().length];
+
+  /* Unit counts indexed by UnitType ordinal, maintained by BW while decoding the units. */
+  private final int[] completedUnitCounts = new int[UnitType.values().length];
+  private final int[] incompleteUnitCounts = new int[UnitType.values().length];
+  private final int[] visibleUnitCounts = new int[UnitType.values().length];
+  private final int[] deadUnitCounts = new int[UnitType.values().length];
 
   private final UnitStatCalculator unitStatCalculator;
   private boolean ally;
@@ -164,34 +171,55 @@ public class Player {
 
   /** Initializes a player with static information (constant through the course of a game). */
   public void initialize() {
-    researchStatus = new EnumMap<>(TechType.class);
-    for (TechType tech : TechType.values()) {
-      researchStatus.put(tech, new boolean[2]);
+    Arrays.fill(this.upgradeLevels, 0);
+    Arrays.fill(this.upgrading, false);
+    Arrays.fill(this.researched, false);
+    Arrays.fill(this.researching, false);
+  }
+
+  /**
+   * Updates dynamic player information. To be called once per frame. The bridge only sends the
+   * upgrades and techs that changed since the previous frame.
+   */
+  public void update(IntBuffer extra, int index) {
+    ally = extra.get(index++) == 1;
+    enemy = extra.get(index++) == 1;
+
+    final int changedUpgrades = extra.get(index++);
+    for (int i = 0; i < changedUpgrades; i++) {
+      final int upgrade = UpgradeType.withId(extra.get(index++)).ordinal();
+      this.upgradeLevels[upgrade] = extra.get(index++);
+      this.upgrading[upgrade] = extra.get(index++) == 1;
     }
-    upgradeStatus = new EnumMap<>(UpgradeType.class);
-    for (UpgradeType upgrade : UpgradeType.values()) {
-      upgradeStatus.put(upgrade, new int[2]);
+
+    final int changedTechs = extra.get(index++);
+    for (int i = 0; i < changedTechs; i++) {
+      final int tech = TechType.withId(extra.get(index++)).ordinal();
+      this.researched[tech] = extra.get(index++) == 1;
+      this.researching[tech] = extra.get(index++) == 1;
     }
   }
 
-  /** Updates dynamic player information. To be called once per frame. */
-  public void update(int[] extra) {
-    int index = 0;
-    int upgradeStatusAmount = extra[index++];
-    for (int i = 0; i < upgradeStatusAmount; i++) {
-      int[] status = this.upgradeStatus.get(UpgradeType.withId(extra[index++]));
-      status[0] = extra[index++];
-      status[1] = extra[index++];
+  /** Clears the counts of existing units before the units of a new frame are counted. */
+  void resetUnitCounts() {
+    Arrays.fill(this.completedUnitCounts, 0);
+    Arrays.fill(this.incompleteUnitCounts, 0);
+    Arrays.fill(this.visibleUnitCounts, 0);
+  }
+
+  void countUnit(UnitType type, boolean completed, boolean visible) {
+    if (completed) {
+      ++this.completedUnitCounts[type.ordinal()];
+    } else {
+      ++this.incompleteUnitCounts[type.ordinal()];
     }
-    int researchStatusAmount = extra[index++];
-    for (int i = 0; i < researchStatusAmount; i++) {
-      boolean[] status = this.researchStatus.get(TechType.withId(extra[index++]));
-      status[0] = extra[index++] == 1;
-      status[1] = extra[index++] == 1;
+    if (visible) {
+      ++this.visibleUnitCounts[type.ordinal()];
     }
+  }
 
-    ally = extra[index++] == 1;
-    enemy = extra[index] == 1;
+  void countDeadUnit(UnitType type) {
+    ++this.deadUnitCounts[type.ordinal()];
   }
 
   public boolean isAlly() {
@@ -467,9 +495,14 @@ public class Player {
     return this.allUnitCount;
   }
 
-  // public int allUnitCount(UnitType unit) {
-  // return allUnitCount_native(pointer, unit);
-  // }
+  /**
+   * Retrieves the number of units of the given type that the player has. Only the units contained
+   * in the current frame are counted, i.e. the visible ones if information about the player is
+   * limited.
+   */
+  public int allUnitCount(UnitType unit) {
+    return this.completedUnitCounts[unit.ordinal()] + this.incompleteUnitCounts[unit.ordinal()];
+  }
 
   /**
    * Retrieves the total number of strictly visible units that the player has, even if information
@@ -482,9 +515,10 @@ public class Player {
     return this.visibleUnitCount;
   }
 
-  // public int visibleUnitCount(UnitType unit) {
-  // return visibleUnitCount_native(pointer, unit);
-  // }
+  /** Retrieves the number of strictly visible units of the given type that the player has. */
+  public int visibleUnitCount(UnitType unit) {
+    return this.visibleUnitCounts[unit.ordinal()];
+  }
 
   /**
    * Retrieves the number of completed units that the player has. If the information about the
@@ -504,9 +538,13 @@ public class Player {
     return this.completedUnitCount;
   }
 
-  // public int completedUnitCount(UnitType unit) {
-  // return completedUnitCount_native(pointer, unit);
-  // }
+  /**
+   * Retrieves the number of completed units of the given type that the player has. Only the units
+   * contained in the current frame are counted.
+   */
+  public int completedUnitCount(UnitType unit) {
+    return this.completedUnitCounts[unit.ordinal()];
+  }
 
   /**
    * Retrieves the number of incomplete units that the player has. If the information about the
@@ -520,9 +558,13 @@ public class Player {
     return this.incompleteUnitCount;
   }
 
-  // public int incompleteUnitCount(UnitType unit) {
-  // return incompleteUnitCount_native(pointer, unit);
-  // }
+  /**
+   * Retrieves the number of incomplete units of the given type that the player has. Only the units
+   * contained in the current frame are counted.
+   */
+  public int incompleteUnitCount(UnitType unit) {
+    return this.incompleteUnitCounts[unit.ordinal()];
+  }
 
   /**
    * Retrieves the number units that have died for this player. Parameters unit (optional) The unit
@@ -534,9 +576,13 @@ public class Player {
     return this.deadUnitCount;
   }
 
-  // public int deadUnitCount(UnitType unit) {
-  // return deadUnitCount_native(pointer, unit);
-  // }
+  /**
+   * Retrieves the number of units of the given type that have died for this player, counting only
+   * units that were known when they were destroyed.
+   */
+  public int deadUnitCount(UnitType unit) {
+    return this.deadUnitCounts[unit.ordinal()];
+  }
 
   /**
    * Retrieves the number units that the player has killed. Parameters unit (optional) The unit type
@@ -565,7 +611,7 @@ public class Player {
    * getMaxUpgradeLevel
    */
   public int getUpgradeLevel(UpgradeType upgrade) {
-    return upgradeStatus.get(upgrade)[0];
+    return this.upgradeLevels[upgrade.ordinal()];
   }
 
   /**
@@ -577,7 +623,7 @@ public class Player {
     if (TechType.None.equals(tech)) {
       return true;
     }
-    return researchStatus.get(tech)[0];
+    return this.researched[tech.ordinal()];
   }
 
   /**
@@ -586,7 +632,7 @@ public class Player {
    * also UnitInterface::research, hasResearched
    */
   public boolean isResearching(TechType tech) {
-    return researchStatus.get(tech)[1];
+    return this.researching[tech.ordinal()];
   }
 
   /**
@@ -600,7 +646,7 @@ public class Player {
    * self->getUnits().upgrade(upgType); return false; } See also UnitInterface::upgrade
    */
   public boolean isUpgrading(UpgradeType upgrade) {
-    return upgradeStatus.get(upgrade)[1] == 1;
+    return this.upgrading[upgrade.ordinal()];
   }
 
   /**
@@ -682,7 +728,7 @@ public class Player {
         && gas >= type.gasPrice()
         && (type.supplyRequired() == 0 || supplyUsed + supplyRequired <= supplyTotal)
         && hasResearched(type.requiredTech())
-        && getMissingUnits(bw.getUnits(this), type.requiredUnits().keySet()).isEmpty();
+        && hasCompletedUnits(type.requiredUnits().keySet());
   }
 
   public boolean canMake(Unit builder, UnitType type) {
@@ -710,16 +756,10 @@ public class Player {
     if (hasResearched(type) || isResearching(type)) {
       return false;
     }
-    List<UnitType> requiredUnits = new ArrayList<>();
-    if (type.whatResearches() != UnitType.None) {
-      requiredUnits.add(type.whatResearches());
-    }
-    if (type.requiredUnit() != UnitType.None) {
-      requiredUnits.add(type.requiredUnit());
-    }
     return minerals >= type.mineralPrice()
         && gas >= type.gasPrice()
-        && getMissingUnits(bw.getUnits(this), requiredUnits).isEmpty();
+        && hasCompletedUnit(type.whatResearches())
+        && hasCompletedUnit(type.requiredUnit());
   }
 
   public boolean canUpgrade(UpgradeType type) {
@@ -727,15 +767,23 @@ public class Player {
     if (upgradeLevel >= type.maxRepeats() || isUpgrading(type)) {
       return false;
     }
-    List<UnitType> requiredUnits = new ArrayList<>();
-    UnitType whatsRequired = type.whatsRequired(upgradeLevel);
-    if (whatsRequired != UnitType.None) {
-      requiredUnits.add(whatsRequired);
-    }
-    requiredUnits.add(type.whatUpgrades());
     return minerals >= type.mineralPrice(upgradeLevel)
         && gas >= type.gasPrice(upgradeLevel)
-        && getMissingUnits(bw.getUnits(this), requiredUnits).isEmpty();
+        && hasCompletedUnit(type.whatsRequired(upgradeLevel))
+        && hasCompletedUnit(type.whatUpgrades());
+  }
+
+  private boolean hasCompletedUnit(UnitType type) {
+    return type == UnitType.None || completedUnitCount(type) > 0;
+  }
+
+  private boolean hasCompletedUnits(Collection<UnitType> types) {
+    for (final UnitType type : types) {
+      if (!hasCompletedUnit(type)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   public static Collection<UnitType> getMissingUnits(
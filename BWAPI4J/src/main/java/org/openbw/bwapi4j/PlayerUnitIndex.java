@@ -0,0 +1,150 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.openbw.bwapi4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.unit.PlayerUnit;
+import org.openbw.bwapi4j.unit.Unit;
+
+/**
+ * Keeps the units of each player, in total and per {@link UnitType}. The index is updated for every
+ * unit of every frame but only changes when a unit appears, disappears or changes its owner or
+ * type, e.g. on create, destroy, renegade or morph.
+ */
+final class PlayerUnitIndex {
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final int INITIAL_PLAYERS = 12;
+
+  private static final class PlayerUnits {
+    private final List<PlayerUnit> units = new ArrayList<>();
+    private final List<PlayerUnit> unitsView = Collections.unmodifiableList(this.units);
+    private final List<List<PlayerUnit>> unitsByType = new ArrayList<>();
+    private final List<List<PlayerUnit>> unitsByTypeView = new ArrayList<>();
+
+    private PlayerUnits() {
+      for (int i = 0; i < UnitType.values().length; ++i) {
+        final List<PlayerUnit> typeUnits = new ArrayList<>();
+        this.unitsByType.add(typeUnits);
+        this.unitsByTypeView.add(Collections.unmodifiableList(typeUnits));
+      }
+    }
+  }
+
+  private PlayerUnits[] playerUnits = new PlayerUnits[INITIAL_PLAYERS];
+
+  /* What each unit ID is currently indexed as. */
+  private PlayerUnit[] indexedUnits = new PlayerUnit[INITIAL_CAPACITY];
+  private int[] indexedPlayerIds = new int[INITIAL_CAPACITY];
+  private UnitType[] indexedTypes = new UnitType[INITIAL_CAPACITY];
+
+  /** Indexes the unit under its current owner and type. Cheap if neither changed. */
+  void update(final int unitId, final Unit unit) {
+    if (!(unit instanceof PlayerUnit)) {
+      remove(unitId);
+      return;
+    }
+
+    final PlayerUnit playerUnit = (PlayerUnit) unit;
+    final Player player = playerUnit.getPlayer();
+    if (player == null) {
+      remove(unitId);
+      return;
+    }
+
+    final UnitType type = playerUnit.getType();
+    if (unitId < this.indexedUnits.length
+        && this.indexedUnits[unitId] == playerUnit
+        && this.indexedPlayerIds[unitId] == player.getId()
+        && this.indexedTypes[unitId] == type) {
+      return;
+    }
+
+    remove(unitId);
+    ensureUnitCapacity(unitId);
+    final PlayerUnits units = playerUnitsOf(player.getId());
+    units.units.add(playerUnit);
+    units.unitsByType.get(type.ordinal()).add(playerUnit);
+    this.indexedUnits[unitId] = playerUnit;
+    this.indexedPlayerIds[unitId] = player.getId();
+    this.indexedTypes[unitId] = type;
+  }
+
+  void remove(final int unitId) {
+    if (unitId < 0 || unitId >= this.indexedUnits.length || this.indexedUnits[unitId] == null) {
+      return;
+    }
+
+    final PlayerUnit unit = this.indexedUnits[unitId];
+    final PlayerUnits units = this.playerUnits[this.indexedPlayerIds[unitId]];
+    units.units.remove(unit);
+    units.unitsByType.get(this.indexedTypes[unitId].ordinal()).remove(unit);
+    this.indexedUnits[unitId] = null;
+    this.indexedTypes[unitId] = null;
+  }
+
+  void clear() {
+    Arrays.fill(this.playerUnits, null);
+    Arrays.fill(this.indexedUnits, null);
+    Arrays.fill(this.indexedTypes, null);
+  }
+
+  /** Returns a read-only live view of the units of the given player. */
+  List<PlayerUnit> getUnits(final Player player) {
+    final PlayerUnits units = find(player);
+    return units == null ? Collections.emptyList() : units.unitsView;
+  }
+
+  /** Returns a read-only live view of the units of the given type of the given player. */
+  List<PlayerUnit> getUnits(final Player player, final UnitType type) {
+    final PlayerUnits units = find(player);
+    return units == null ? Collections.emptyList() : units.unitsByTypeView.get(type.ordinal());
+  }
+
+  private PlayerUnits find(final Player player) {
+    if (player == null || player.getId() < 0 || player.getId() >= this.playerUnits.length) {
+      return null;
+    }
+    return this.playerUnits[player.getId()];
+  }
+
+  private PlayerUnits playerUnitsOf(final int playerId) {
+    if (playerId >= this.playerUnits.length) {
+      this.playerUnits = Arrays.copyOf(this.playerUnits, playerId + 1);
+    }
+    if (this.playerUnits[playerId] == null) {
+      this.playerUnits[playerId] = new PlayerUnits();
+    }
+    return this.playerUnits[playerId];
+  }
+
+  private void ensureUnitCapacity(final int unitId) {
+    if (unitId >= this.indexedUnits.length) {
+      final int capacity = Math.max(unitId + 1, this.indexedUnits.length * 2);
+      this.indexedUnits = Arrays.copyOf(this.indexedUnits, capacity);
+      this.indexedPlayerIds = Arrays.copyOf(this.indexedPlayerIds, capacity);
+      this.indexedTypes = Arrays.copyOf(this.indexedTypes, capacity);
+    }
+  }
+}
@@ -0,0 +1,86 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.openbw.bwapi4j;
+
+/**
+ * Drops unit commands that repeat the command a unit was last sent, with the same target, position
+ * and extra value, within a window of frames. Repeating an order costs a native call and APM and
+ * restarts the unit's animation, but changes nothing.
+ *
+ * <p>The filter is disabled by default, i.e. the window is 0. A suppressed command is reported as
+ * successful.
+ */
+public final class RedundantCommandFilter {
+  private int frameWindow;
+  private long issuedCount;
+  private long suppressedCount;
+
+  RedundantCommandFilter(final int frameWindow) {
+    setFrameWindow(frameWindow);
+  }
+
+  public boolean isEnabled() {
+    return this.frameWindow > 0;
+  }
+
+  public int getFrameWindow() {
+    return this.frameWindow;
+  }
+
+  /**
+   * Sets for how many frames after a command an identical command for the same unit is dropped. 0
+   * disables the filter.
+   */
+  public void setFrameWindow(final int frameWindow) {
+    if (frameWindow < 0) {
+      throw new IllegalArgumentException("frameWindow must not be negative: " + frameWindow);
+    }
+    this.frameWindow = frameWindow;
+  }
+
+  /** Returns whether a command sent in {@code sentFrame} still suppresses a repetition. */
+  public boolean isWithinWindow(final int sentFrame, final int frame) {
+    return isEnabled() && frame - sentFrame < this.frameWindow;
+  }
+
+  public void countIssued() {
+    ++this.issuedCount;
+  }
+
+  public void countSuppressed() {
+    ++this.suppressedCount;
+  }
+
+  /** Returns the number of commands passed on to BW since the start of the game. */
+  public long getIssuedCount() {
+    return this.issuedCount;
+  }
+
+  /** Returns the number of commands dropped as redundant since the start of the game. */
+  public long getSuppressedCount() {
+    return this.suppressedCount;
+  }
+
+  void resetCounters() {
+    this.issuedCount = 0;
+    this.suppressedCount = 0;
+  }
+}
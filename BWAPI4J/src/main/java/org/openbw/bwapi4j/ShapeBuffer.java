@@ -0,0 +1,112 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.openbw.bwapi4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records drawing primitives as flat ints so they can be handed to the bridge in one call. Every
+ * shape takes {@link #STRIDE} ints: its {@link MapDrawer.Shape} ordinal, the coordinate type and
+ * eight shape-specific values, unused ones being 0:
+ *
+ * <ul>
+ *   <li>Text: x, y, string index, text size
+ *   <li>Box: left, top, right, bottom, color, solid
+ *   <li>Triangle: ax, ay, bx, by, cx, cy, color, solid
+ *   <li>Circle: x, y, radius, color, solid
+ *   <li>Ellipse: x, y, x radius, y radius, color, solid
+ *   <li>Dot: x, y, color
+ *   <li>Line: ax, ay, bx, by, color
+ * </ul>
+ *
+ * <p>Texts refer to an interned string by index, see {@link #getStrings()}.
+ */
+final class ShapeBuffer {
+  static final int STRIDE = 10;
+  private static final int INITIAL_CAPACITY = 256;
+
+  private int[] shapes = new int[INITIAL_CAPACITY * STRIDE];
+  private int size;
+  private final List<String> strings = new ArrayList<>();
+  private final Map<String, Integer> stringIndices = new HashMap<>();
+
+  void add(
+      final MapDrawer.Shape shape,
+      final int coordinateType,
+      final int a,
+      final int b,
+      final int c,
+      final int d,
+      final int e,
+      final int f,
+      final int g,
+      final int h) {
+    if ((this.size + 1) * STRIDE > this.shapes.length) {
+      this.shapes = Arrays.copyOf(this.shapes, 2 * this.shapes.length);
+    }
+    int index = this.size * STRIDE;
+    this.shapes[index++] = shape.ordinal();
+    this.shapes[index++] = coordinateType;
+    this.shapes[index++] = a;
+    this.shapes[index++] = b;
+    this.shapes[index++] = c;
+    this.shapes[index++] = d;
+    this.shapes[index++] = e;
+    this.shapes[index++] = f;
+    this.shapes[index++] = g;
+    this.shapes[index] = h;
+    ++this.size;
+  }
+
+  /** Returns the index of the given string in the string table, adding it if necessary. */
+  int intern(final String string) {
+    final Integer index = this.stringIndices.get(string);
+    if (index != null) {
+      return index;
+    }
+    this.strings.add(string);
+    this.stringIndices.put(string, this.strings.size() - 1);
+    return this.strings.size() - 1;
+  }
+
+  int[] getShapes() {
+    return this.shapes;
+  }
+
+  /** Returns the number of recorded shapes. */
+  int size() {
+    return this.size;
+  }
+
+  String[] getStrings() {
+    return this.strings.toArray(new String[0]);
+  }
+
+  void clear() {
+    this.size = 0;
+    this.strings.clear();
+    this.stringIndices.clear();
+  }
+}
@@ -0,0 +1,118 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.openbw.bwapi4j;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Restores full unit records from the unit section of a frame snapshot. The bridge sends each unit
+ * as an entry of unit ID, kind and payload:
+ *
+ * <ul>
+ *   <li>{@link #UNCHANGED}: no payload, the record equals the previous one.
+ *   <li>{@link #FULL}: record length followed by the complete record.
+ *   <li>{@link #PATCH}: one bitmask word per 32 record fields followed by the values of the set
+ *       bits, in ascending field order.
+ * </ul>
+ */
+final class UnitDeltaDecoder {
+  static final int UNCHANGED = 0;
+  static final int FULL = 1;
+  static final int PATCH = 2;
+
+  /** Records indexed by unit ID. */
+  private IntBuffer[] records = new IntBuffer[1024];
+
+  /**
+   * Decodes the entry starting at {@code index} into the stored record of its unit.
+   *
+   * @return the index of the next entry
+   */
+  int decode(final IntBuffer data, int index) {
+    final int unitId = data.get(index++);
+    final int kind = data.get(index++);
+
+    switch (kind) {
+      case UNCHANGED:
+        requireRecord(unitId);
+        return index;
+      case FULL:
+        return decodeFull(unitId, data, index);
+      case PATCH:
+        return decodePatch(requireRecord(unitId).array(), data, index);
+      default:
+        throw new IllegalStateException("unknown record kind " + kind + " for unit " + unitId);
+    }
+  }
+
+  private int decodeFull(final int unitId, final IntBuffer data, int index) {
+    final int length = data.get(index++);
+    IntBuffer record = get(unitId);
+    if (record == null || record.capacity() != length) {
+      record = IntBuffer.allocate(length);
+      if (unitId >= this.records.length) {
+        this.records = Arrays.copyOf(this.records, Math.max(unitId + 1, this.records.length * 2));
+      }
+      this.records[unitId] = record;
+    }
+    for (int i = 0; i < length; ++i) {
+      record.put(i, data.get(index++));
+    }
+    return index;
+  }
+
+  private int decodePatch(final int[] record, final IntBuffer data, final int index) {
+    final int maskWords = (record.length + 31) >>> 5;
+    int valueIndex = index + maskWords;
+    for (int word = 0; word < maskWords; ++word) {
+      int mask = data.get(index + word);
+      while (mask != 0) {
+        record[(word << 5) + Integer.numberOfTrailingZeros(mask)] = data.get(valueIndex++);
+        mask &= mask - 1;
+      }
+    }
+    return valueIndex;
+  }
+
+  /** Returns the current record of the given unit, or {@code null} if none was received yet. */
+  IntBuffer get(final int unitId) {
+    return unitId >= 0 && unitId < this.records.length ? this.records[unitId] : null;
+  }
+
+  void remove(final int unitId) {
+    if (unitId >= 0 && unitId < this.records.length) {
+      this.records[unitId] = null;
+    }
+  }
+
+  void clear() {
+    Arrays.fill(this.records, null);
+  }
+
+  private IntBuffer requireRecord(final int unitId) {
+    final IntBuffer record = get(unitId);
+    if (record == null) {
+      throw new IllegalStateException("received a delta for unit " + unitId + " without a record");
+    }
+    return record;
+  }
+}
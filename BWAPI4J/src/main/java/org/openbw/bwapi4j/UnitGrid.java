@@ -0,0 +1,261 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.openbw.bwapi4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import org.openbw.bwapi4j.unit.Unit;
+import org.openbw.bwapi4j.unit.UnitImpl;
+import org.openbw.bwapi4j.util.MathUtils;
+
+/**
+ * Uniform grid of the units of the current frame. Each bucket covers {@link #BUCKET_SIZE_IN_TILES}
+ * by {@link #BUCKET_SIZE_IN_TILES} tiles and holds the units whose center lies in it, as an
+ * intrusive linked list over unit IDs. Units are only relinked when they change their bucket.
+ *
+ * <p>Units that were not updated in the current frame are left in place and skipped by the
+ * queries, the same way {@link Unit#exists()} treats them.
+ */
+final class UnitGrid {
+  static final int BUCKET_SIZE_IN_TILES = 4;
+  private static final int BUCKET_SIZE = BUCKET_SIZE_IN_TILES * TilePosition.SIZE_IN_PIXELS;
+  private static final int BUCKET_SHIFT = Integer.numberOfTrailingZeros(BUCKET_SIZE);
+
+  /* Maps are at most 256 by 256 tiles. */
+  private static final int MAX_MAP_SIZE = 256 * TilePosition.SIZE_IN_PIXELS;
+  private static final int BUCKETS_PER_ROW = MAX_MAP_SIZE / BUCKET_SIZE;
+  private static final int NONE = -1;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final int[] heads = new int[BUCKETS_PER_ROW * BUCKETS_PER_ROW];
+  private UnitImpl[] units = new UnitImpl[INITIAL_CAPACITY];
+  private int[] buckets = new int[INITIAL_CAPACITY];
+  private int[] next = new int[INITIAL_CAPACITY];
+  private int[] previous = new int[INITIAL_CAPACITY];
+
+  /*
+   * Largest distance from a unit's center to its edge plus one, as BW measures edge distances from
+   * the pixel next to the edge, so queries know how far to look.
+   */
+  private int maxExtent;
+
+  UnitGrid() {
+    clear();
+  }
+
+  /** Links the unit into the bucket of its current position. Cheap if the bucket did not change. */
+  void update(final int unitId, final UnitImpl unit) {
+    ensureCapacity(unitId);
+    final int bucket = bucketOf(unit.getX(), unit.getY());
+    if (this.units[unitId] == unit && this.buckets[unitId] == bucket) {
+      return;
+    }
+
+    remove(unitId);
+    this.units[unitId] = unit;
+    this.buckets[unitId] = bucket;
+    this.previous[unitId] = NONE;
+    this.next[unitId] = this.heads[bucket];
+    if (this.heads[bucket] != NONE) {
+      this.previous[this.heads[bucket]] = unitId;
+    }
+    this.heads[bucket] = unitId;
+
+    final int x = unit.getX();
+    final int y = unit.getY();
+    this.maxExtent =
+        Math.max(
+            this.maxExtent,
+            Math.max(
+                Math.max(x - unit.getLeft(), unit.getRight() - x) + 1,
+                Math.max(y - unit.getTop(), unit.getBottom() - y) + 1));
+  }
+
+  void remove(final int unitId) {
+    if (unitId < 0 || unitId >= this.units.length || this.units[unitId] == null) {
+      return;
+    }
+
+    final int previousId = this.previous[unitId];
+    final int nextId = this.next[unitId];
+    if (previousId == NONE) {
+      this.heads[this.buckets[unitId]] = nextId;
+    } else {
+      this.next[previousId] = nextId;
+    }
+    if (nextId != NONE) {
+      this.previous[nextId] = previousId;
+    }
+    this.units[unitId] = null;
+  }
+
+  void clear() {
+    Arrays.fill(this.heads, NONE);
+    Arrays.fill(this.units, null);
+    this.maxExtent = 0;
+  }
+
+  /**
+   * Returns the units whose edge is within {@code radius} of {@code center} and which match {@code
+   * filter}. See {@link Unit#getDistance(Position)}.
+   */
+  List<Unit> getUnitsInRadius(
+      final Position center, final int radius, final Predicate<? super Unit> filter) {
+    final List<Unit> result = new ArrayList<>();
+    final int x = center.getX();
+    final int y = center.getY();
+    final long packedCenter = MathUtils.pack(x, y);
+    final long reach = (long) radius + this.maxExtent;
+
+    final int minColumn = column(x - reach);
+    final int maxColumn = column(x + reach);
+    final int maxRow = row(y + reach);
+    for (int row = row(y - reach); row <= maxRow; ++row) {
+      for (int column = minColumn; column <= maxColumn; ++column) {
+        for (int id = this.heads[row * BUCKETS_PER_ROW + column]; id != NONE; id = this.next[id]) {
+          final UnitImpl unit = this.units[id];
+          if (unit.exists()
+              && unit.getDistancePacked(packedCenter) <= radius
+              && (filter == null || filter.test(unit))) {
+            result.add(unit);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the units whose bounding box overlaps the rectangle from {@code topLeft} to {@code
+   * bottomRight}, both inclusive, and which match {@code filter}.
+   */
+  List<Unit> getUnitsInRectangle(
+      final Position topLeft, final Position bottomRight, final Predicate<? super Unit> filter) {
+    final List<Unit> result = new ArrayList<>();
+    final int left = topLeft.getX();
+    final int top = topLeft.getY();
+    final int right = bottomRight.getX();
+    final int bottom = bottomRight.getY();
+
+    final int minColumn = column((long) left - this.maxExtent);
+    final int maxColumn = column((long) right + this.maxExtent);
+    final int maxRow = row((long) bottom + this.maxExtent);
+    for (int row = row((long) top - this.maxExtent); row <= maxRow; ++row) {
+      for (int column = minColumn; column <= maxColumn; ++column) {
+        for (int id = this.heads[row * BUCKETS_PER_ROW + column]; id != NONE; id = this.next[id]) {
+          final UnitImpl unit = this.units[id];
+          if (unit.exists()
+              && unit.getLeft() <= right
+              && unit.getRight() >= left
+              && unit.getTop() <= bottom
+              && unit.getBottom() >= top
+              && (filter == null || filter.test(unit))) {
+            result.add(unit);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the unit closest to {@code center} within {@code maxRadius} which matches {@code
+   * filter}, or {@code null}. Buckets are searched in rings around the center until no closer unit
+   * can be found.
+   */
+  Unit getClosestUnit(
+      final Position center, final Predicate<? super Unit> filter, final int maxRadius) {
+    final int x = center.getX();
+    final int y = center.getY();
+    final long packedCenter = MathUtils.pack(x, y);
+    final int centerColumn = column(x);
+    final int centerRow = row(y);
+    final long reach = (long) maxRadius + this.maxExtent;
+    final int maxRing = (int) Math.min(BUCKETS_PER_ROW, reach / BUCKET_SIZE + 1);
+
+    Unit closest = null;
+    int closestDistance = maxRadius;
+    for (int ring = 0; ring <= maxRing; ++ring) {
+      /* Every unit in this ring is at least this far from the center, see MathUtils. */
+      final int ringDistance = (ring - 1) * BUCKET_SIZE - this.maxExtent;
+      if (closest != null && closestDistance <= ringDistance) {
+        break;
+      }
+
+      final int minRow = centerRow - ring;
+      final int maxRow = centerRow + ring;
+      for (int row = Math.max(0, minRow); row <= Math.min(BUCKETS_PER_ROW - 1, maxRow); ++row) {
+        /* Inner rows of the ring only contribute their first and last bucket. */
+        final int step = row == minRow || row == maxRow ? 1 : 2 * ring;
+        for (int column = centerColumn - ring; column <= centerColumn + ring; column += step) {
+          if (column < 0 || column >= BUCKETS_PER_ROW) {
+            continue;
+          }
+          for (int id = this.heads[row * BUCKETS_PER_ROW + column];
+              id != NONE;
+              id = this.next[id]) {
+            final UnitImpl unit = this.units[id];
+            if (!unit.exists()) {
+              continue;
+            }
+            final int distance = unit.getDistancePacked(packedCenter);
+            if (distance <= closestDistance
+                && (closest == null || distance < closestDistance)
+                && (filter == null || filter.test(unit))) {
+              closest = unit;
+              closestDistance = distance;
+            }
+          }
+        }
+      }
+    }
+    return closest;
+  }
+
+  private static int bucketOf(final int x, final int y) {
+    return row(y) * BUCKETS_PER_ROW + column(x);
+  }
+
+  /* Coordinates are longs so that query bounds beyond the int range are clamped, not wrapped. */
+  private static int column(final long x) {
+    return clamp(x >> BUCKET_SHIFT);
+  }
+
+  private static int row(final long y) {
+    return clamp(y >> BUCKET_SHIFT);
+  }
+
+  private static int clamp(final long bucketCoordinate) {
+    return (int) Math.max(0, Math.min(BUCKETS_PER_ROW - 1, bucketCoordinate));
+  }
+
+  private void ensureCapacity(final int unitId) {
+    if (unitId >= this.units.length) {
+      final int capacity = Math.max(unitId + 1, this.units.length * 2);
+      this.units = Arrays.copyOf(this.units, capacity);
+      this.buckets = Arrays.copyOf(this.buckets, capacity);
+      this.next = Arrays.copyOf(this.next, capacity);
+      this.previous = Arrays.copyOf(this.previous, capacity);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+package org.openbw.bwapi4j;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import org.openbw.bwapi4j.unit.UnitImpl;
+
+/**
+ * Stores units in an array indexed by their ID, which BWAPI hands out as small dense integers.
+ * Live units are additionally kept in a compact array so that the store itself can serve as an
+ * unmodifiable list view for iteration.
+ */
+final class UnitStore extends AbstractList<UnitImpl> implements RandomAccess {
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private UnitImpl[] unitsById = new UnitImpl[INITIAL_CAPACITY];
+  private int[] slotsById = newSlots(INITIAL_CAPACITY);
+  private UnitImpl[] liveUnits = new UnitImpl[INITIAL_CAPACITY];
+  private int[] liveIds = new int[INITIAL_CAPACITY];
+  private int size;
+
+  private static int[] newSlots(final int capacity) {
+    final int[] slots = new int[capacity];
+    Arrays.fill(slots, -1);
+    return slots;
+  }
+
+  /** Returns the unit with the given ID or {@code null} if there is none. */
+  UnitImpl getById(final int unitId) {
+    return unitId >= 0 && unitId < this.unitsById.length ? this.unitsById[unitId] : null;
+  }
+
+  /** Stores the unit under the given ID, replacing a unit previously stored under it. */
+  void put(final int unitId, final UnitImpl unit) {
+    if (unitId >= this.unitsById.length) {
+      final int capacity = Math.max(unitId + 1, this.unitsById.length * 2);
+      final int oldCapacity = this.slotsById.length;
+      this.unitsById = Arrays.copyOf(this.unitsById, capacity);
+      this.slotsById = Arrays.copyOf(this.slotsById, capacity);
+      Arrays.fill(this.slotsById, oldCapacity, capacity, -1);
+    }
+
+    final int slot = this.slotsById[unitId];
+    if (slot >= 0) {
+      this.liveUnits[slot] = unit;
+    } else {
+      if (this.size == this.liveUnits.length) {
+        this.liveUnits = Arrays.copyOf(this.liveUnits, this.size * 2);
+        this.liveIds = Arrays.copyOf(this.liveIds, this.size * 2);
+      }
+      this.slotsById[unitId] = this.size;
+      this.liveIds[this.size] = unitId;
+      this.liveUnits[this.size++] = unit;
+    }
+    this.unitsById[unitId] = unit;
+  }
+
+  /** Removes the unit with the given ID. The last live unit takes over its slot. */
+  void removeById(final int unitId) {
+    if (unitId < 0 || unitId >= this.slotsById.length || this.slotsById[unitId] < 0) {
+      return;
+    }
+
+    final int slot = this.slotsById[unitId];
+    final int lastId = this.liveIds[--this.size];
+    this.liveUnits[slot] = this.liveUnits[this.size];
+    this.liveIds[slot] = lastId;
+    this.slotsById[lastId] = slot;
+    this.liveUnits[this.size] = null;
+    this.slotsById[unitId] = -1;
+    this.unitsById[unitId] = null;
+  }
+
+  /** Removes all units. The inherited {@code clear()} stays unsupported for users of the view. */
+  void reset() {
+    Arrays.fill(this.unitsById, null);
+    Arrays.fill(this.slotsById, -1);
+    Arrays.fill(this.liveUnits, 0, this.size, null);
+    this.size = 0;
+  }
+
+  @Override
+  public UnitImpl get(final int index) {
+    if (index >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+    }
+    return this.liveUnits[index];
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+}
@@ -23,6 +23,7 @@ package org.openbw.bwapi4j.unit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openbw.bwapi4j.BW;
+import org.openbw.bwapi4j.type.UnitCommandType;
 import org.openbw.bwapi4j.type.UnitType;
 
 public class UnitFactory {
@@ -36,6 +37,22 @@ public class UnitFactory {
     this.bw = bw;
   }
 
+  /** Marks the unit as contained in the game state of the given frame. Called by BW. */
+  public final void setLastUpdatedFrame(final UnitImpl unit, final int frame) {
+    unit.setLastUpdatedFrame(frame);
+  }
+
+  /** Records a batched command that was accepted by BW in the given frame. Called by BW. */
+  public final void setLastCommand(
+      final UnitImpl unit, final UnitCommandType unitCommandType, final int frame) {
+    unit.setLastCommand(unitCommandType, frame);
+  }
+
+  /** Lets a rejected batched command be retried despite the RedundantCommandFilter. */
+  public final void clearSentCommand(final UnitImpl unit) {
+    unit.clearSentCommand();
+  }
+
   protected MineralPatch getMineralPatch(int unitId, int timeSpotted) {
     return new MineralPatch();
   }
@@ -35,21 +35,19 @@ import static org.openbw.bwapi4j.type.UnitCommandType.Upgrade;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 import org.openbw.bwapi4j.BW;
+import org.openbw.bwapi4j.CommandBuffer;
 import org.openbw.bwapi4j.DamageEvaluator;
 import org.openbw.bwapi4j.Player;
 import org.openbw.bwapi4j.Position;
+import org.openbw.bwapi4j.RedundantCommandFilter;
 import org.openbw.bwapi4j.TilePosition;
 import org.openbw.bwapi4j.ap.BridgeValue;
 import org.openbw.bwapi4j.ap.Named;
 import org.openbw.bwapi4j.ap.NativeClass;
-import org.openbw.bwapi4j.ap.Reset;
 import org.openbw.bwapi4j.type.Order;
 import org.openbw.bwapi4j.type.TechType;
 import org.openbw.bwapi4j.type.UnitCommandType;
@@ -57,12 +55,11 @@ import org.openbw.bwapi4j.type.UnitSizeType;
 import org.openbw.bwapi4j.type.UnitType;
 import org.openbw.bwapi4j.type.UpgradeType;
 import org.openbw.bwapi4j.type.WeaponType;
+import org.openbw.bwapi4j.util.MathUtils;
 
 @NativeClass(name = "BWAPI::Unit")
 public abstract class UnitImpl implements Unit {
 
-  private static final Logger logger = LogManager.getLogger();
-
   @BridgeValue(initializeOnly = true)
   @Named(name = "ID")
   int iD;
@@ -88,11 +85,9 @@ public abstract class UnitImpl implements Unit {
   int lastCommandFrame;
   @BridgeValue UnitCommandType lastCommand;
 
-  @Reset(value = "false")
-  @BridgeValue
-  boolean visible;
+  /* Only valid in the frame given by lastUpdatedFrame, see exists() and isVisible(). */
+  @BridgeValue boolean visible;
 
-  @Reset(value = "false")
   @BridgeValue(accessor = "exists()")
   boolean exists;
 
@@ -224,6 +219,15 @@ public abstract class UnitImpl implements Unit {
   // internal
   private BW bw;
   int lastSpotted;
+  private int lastUpdatedFrame = -1;
+
+  /* The command last passed on to BW, see RedundantCommandFilter. */
+  private UnitCommandType sentCommandType;
+  private int sentTargetUnitId;
+  private int sentX;
+  private int sentY;
+  private int sentExtra;
+  private int sentCommandFrame;
 
   protected UnitImpl() {}
 
@@ -231,6 +235,18 @@ public abstract class UnitImpl implements Unit {
     this.bw = bw;
   }
 
+  /**
+   * Marks this unit as contained in the game state of the given frame. Units that were not updated
+   * in the current frame neither exist nor are visible, so no per-frame reset is needed.
+   */
+  final void setLastUpdatedFrame(int frame) {
+    this.lastUpdatedFrame = frame;
+  }
+
+  private boolean isUpdatedThisFrame() {
+    return this.lastUpdatedFrame == getCurrentFrame();
+  }
+
   public int getKillCount() {
     return killCount;
   }
@@ -298,12 +314,29 @@ public abstract class UnitImpl implements Unit {
   }
 
   public <T extends Unit> T getClosest(Collection<T> group) {
-    Comparator<T> comp = Comparator.comparingDouble(this::getDistance);
-    return group.stream().min(comp).get();
+    T closest = null;
+    int closestDistance = Integer.MAX_VALUE;
+    for (final T unit : group) {
+      final int distance = getDistance(unit);
+      if (closest == null || distance < closestDistance) {
+        closest = unit;
+        closestDistance = distance;
+      }
+    }
+    if (closest == null) {
+      throw new NoSuchElementException("group is empty");
+    }
+    return closest;
   }
 
   public <T extends Unit> List<T> getUnitsInRadius(int radius, Collection<T> group) {
-    return group.stream().filter(t -> this.getDistance(t) <= radius).collect(Collectors.toList());
+    final List<T> unitsInRadius = new ArrayList<>();
+    for (final T unit : group) {
+      if (getDistance(unit) <= radius) {
+        unitsInRadius.add(unit);
+      }
+    }
+    return unitsInRadius;
   }
 
   public int getX() {
@@ -347,6 +380,19 @@ public abstract class UnitImpl implements Unit {
   }
 
   public double getDistance(int x, int y) {
+    return getDistancePacked(MathUtils.pack(x, y));
+  }
+
+  /**
+   * Returns the distance from the edge of this unit to the given point as BW would, without
+   * allocating.
+   *
+   * @param packedPosition pixel position packed with {@link MathUtils#pack(int, int)}
+   */
+  public int getDistancePacked(long packedPosition) {
+    final int x = MathUtils.packedX(packedPosition);
+    final int y = MathUtils.packedY(packedPosition);
+
     int xDist = getLeft() - (x + 1);
     if (xDist < 0) {
       xDist = x - (getRight() + 1);
@@ -361,8 +407,7 @@ public abstract class UnitImpl implements Unit {
         yDist = 0;
       }
     }
-
-    return new Position(0, 0).getDistance(new Position(xDist, yDist));
+    return MathUtils.estimateDistance(xDist, yDist);
   }
 
   public int getDistance(Unit target) {
@@ -384,9 +429,7 @@ public abstract class UnitImpl implements Unit {
         yDist = 0;
       }
     }
-    logger.trace("dx, dy: {}, {}.", xDist, yDist);
-
-    return new Position(0, 0).getDistance(new Position(xDist, yDist));
+    return MathUtils.estimateDistance(xDist, yDist);
   }
 
   boolean lift() {
@@ -402,7 +445,7 @@ public abstract class UnitImpl implements Unit {
   }
 
   public boolean exists() {
-    return this.exists;
+    return this.exists && isUpdatedThisFrame();
   }
 
   public UnitType getType() {
@@ -517,7 +560,7 @@ public abstract class UnitImpl implements Unit {
   }
 
   public boolean isVisible() {
-    return visible;
+    return visible && isUpdatedThisFrame();
   }
 
   public boolean isSelected() {
@@ -548,16 +591,72 @@ public abstract class UnitImpl implements Unit {
     return this.getId() - otherUnit.getId();
   }
 
+  /**
+   * Issues the command immediately or, if command batching is enabled, queues it and returns {@code
+   * true}. See {@link CommandBuffer}.
+   */
   protected boolean issueCommand(
       int unitId, UnitCommandType unitCommandType, int targetUnitId, int x, int y, int extra) {
+    if (bw == null) {
+      return issueCommandNow(unitId, unitCommandType, targetUnitId, x, y, extra);
+    }
+
+    final RedundantCommandFilter filter = bw.getRedundantCommandFilter();
+    if (filter.isEnabled()) {
+      final int frame = getCurrentFrame();
+      if (unitCommandType == sentCommandType
+          && targetUnitId == sentTargetUnitId
+          && x == sentX
+          && y == sentY
+          && extra == sentExtra
+          && filter.isWithinWindow(sentCommandFrame, frame)) {
+        filter.countSuppressed();
+        return true;
+      }
+      sentCommandType = unitCommandType;
+      sentTargetUnitId = targetUnitId;
+      sentX = x;
+      sentY = y;
+      sentExtra = extra;
+      sentCommandFrame = frame;
+    }
+    filter.countIssued();
+
+    final CommandBuffer commandBuffer = bw.getCommandBuffer();
+    if (commandBuffer.isEnabled()) {
+      commandBuffer.add(this, unitCommandType, targetUnitId, x, y, extra);
+      return true;
+    }
+    if (issueCommandNow(unitId, unitCommandType, targetUnitId, x, y, extra)) {
+      return true;
+    }
+    clearSentCommand();
+    return false;
+  }
+
+  private boolean issueCommandNow(
+      int unitId, UnitCommandType unitCommandType, int targetUnitId, int x, int y, int extra) {
     if (issueCommand(unitId, unitCommandType.ordinal(), targetUnitId, x, y, extra)) {
-      lastCommandFrame = getCurrentFrame();
-      lastCommand = unitCommandType;
+      setLastCommand(unitCommandType, getCurrentFrame());
       return true;
     }
     return false;
   }
 
+  /** Records a command that was accepted by BW in the given frame. */
+  final void setLastCommand(UnitCommandType unitCommandType, int frame) {
+    lastCommandFrame = frame;
+    lastCommand = unitCommandType;
+  }
+
+  /**
+   * Forgets the command last passed on to BW, see {@link RedundantCommandFilter}. A rejected
+   * command must not suppress its retry.
+   */
+  final void clearSentCommand() {
+    sentCommandType = null;
+  }
+
   private native boolean issueCommand(
       int unitId, int unitCommandTypeId, int targetUnitId, int x, int y, int extra);
 
@@ -23,10 +23,75 @@ package org.openbw.bwapi4j.util;
 import static java.lang.Math.abs;
 import static java.lang.Math.sqrt;
 
-/** Contains utility functions for basic calculations. */
+/**
+ * Contains utility functions for basic calculations.
+ *
+ * <p>The {@code packed*} functions work on coordinates packed into a single {@code long} (x in the
+ * upper, y in the lower 32 bits). They allow position arithmetic in hot paths without allocating
+ * {@code Position}, {@code TilePosition} or {@code WalkPosition} objects.
+ */
 public class MathUtils {
+  private static final int TILE_SIZE_IN_PIXELS = 32;
+  private static final int WALK_SIZE_IN_PIXELS = 8;
+
   private MathUtils() {}
 
+  /** Packs the given coordinates into a {@code long}. */
+  public static long pack(final int x, final int y) {
+    return ((long) x << 32) | (y & 0xFFFFFFFFL);
+  }
+
+  public static int packedX(final long packed) {
+    return (int) (packed >> 32);
+  }
+
+  public static int packedY(final long packed) {
+    return (int) packed;
+  }
+
+  public static long packedAdd(final long a, final long b) {
+    return pack(packedX(a) + packedX(b), packedY(a) + packedY(b));
+  }
+
+  public static long packedSubtract(final long a, final long b) {
+    return pack(packedX(a) - packedX(b), packedY(a) - packedY(b));
+  }
+
+  /** Converts packed pixel coordinates to packed tile coordinates like {@code toTilePosition()}. */
+  public static long packedPixelToTile(final long pixel) {
+    return pack(packedX(pixel) / TILE_SIZE_IN_PIXELS, packedY(pixel) / TILE_SIZE_IN_PIXELS);
+  }
+
+  /** Converts packed pixel coordinates to packed walk coordinates like {@code toWalkPosition()}. */
+  public static long packedPixelToWalk(final long pixel) {
+    return pack(packedX(pixel) / WALK_SIZE_IN_PIXELS, packedY(pixel) / WALK_SIZE_IN_PIXELS);
+  }
+
+  /** Converts packed tile coordinates to the packed pixel coordinates of the tile's top left. */
+  public static long packedTileToPixel(final long tile) {
+    return pack(packedX(tile) * TILE_SIZE_IN_PIXELS, packedY(tile) * TILE_SIZE_IN_PIXELS);
+  }
+
+  /** Returns the distance between two packed points as BW would, see {@link #estimateDistance}. */
+  public static int packedEstimateDistance(final long a, final long b) {
+    return estimateDistanceWithDelta(packedX(b) - packedX(a), packedY(b) - packedY(a));
+  }
+
+  /** Returns the squared euclidean distance between two packed points. */
+  public static int packedSquaredDistance(final long a, final long b) {
+    final int dx = packedX(b) - packedX(a);
+    final int dy = packedY(b) - packedY(a);
+    return dx * dx + dy * dy;
+  }
+
+  /**
+   * Returns the length of the vector (dx, dy) as BW would. This is ported from BWAPI's
+   * getApproxDistance method.
+   */
+  public static int estimateDistance(final int dx, final int dy) {
+    return estimateDistanceWithDelta(dx, dy);
+  }
+
   /**
    * Returns the distance between two boxes. The distance is calculated from the edge of the boxes.
    * If the boxes overlap in a dimension, the delta in that dimension is zero.
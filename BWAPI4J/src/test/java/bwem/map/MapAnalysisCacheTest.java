@@ -0,0 +1,160 @@
+package bwem.map;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MapAnalysisCacheTest {
+  private static final String MAP_HASH = "abc";
+  /* Magic, version, hash length, hash, width, height and highest altitude precede the count. */
+  private static final int FRONTIER_COUNT_OFFSET = 4 * 3 + MAP_HASH.length() + 4 * 3;
+
+  @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+  private MapAnalysisCache cache;
+
+  @Before
+  public void setup() {
+    this.cache = new MapAnalysisCache(this.folder.getRoot().toPath(), false);
+  }
+
+  private static MapAnalysisCache.Entry entry(
+      final int walkWidth,
+      final int walkHeight,
+      final int highestAltitude,
+      final int[] rawFrontier,
+      final int[] tempAreas,
+      final int altitude,
+      final int areaId) {
+    final int miniTileCount = walkWidth * walkHeight;
+    final ByteBuffer miniTiles = ByteBuffer.allocate(4 * miniTileCount);
+    for (int i = 0; i < miniTileCount; ++i) {
+      miniTiles.putShort((short) (altitude + i));
+    }
+    for (int i = 0; i < miniTileCount; ++i) {
+      miniTiles.putShort((short) areaId);
+    }
+    miniTiles.flip();
+    return new MapAnalysisCache.Entry(
+        walkWidth, walkHeight, highestAltitude, rawFrontier, tempAreas, miniTiles);
+  }
+
+  private static MapAnalysisCache.Entry entry() {
+    return entry(2, 3, 7, new int[] {1, 2, 0, 1}, new int[] {1, 0, 0, 7, 3, 2, 1, 2, 5, 3}, 5, 1);
+  }
+
+  private Path write(final byte[] bytes) throws IOException {
+    return Files.write(this.cache.getFile(MAP_HASH), bytes);
+  }
+
+  @Test
+  public void storedEntryIsLoadedUnchanged() {
+    final MapAnalysisCache.Entry entry = entry();
+    this.cache.store(MAP_HASH, entry);
+
+    final MapAnalysisCache.Entry loaded = this.cache.load(MAP_HASH, 2, 3);
+
+    Assert.assertNotNull(loaded);
+    Assert.assertEquals(Collections.emptyList(), entry.diff(loaded));
+    Assert.assertArrayEquals(entry.toBytes(MAP_HASH), loaded.toBytes(MAP_HASH));
+  }
+
+  @Test
+  public void missingEntryIsNotLoaded() {
+    Assert.assertNull(this.cache.load(MAP_HASH, 2, 3));
+  }
+
+  @Test
+  public void entryOfAnotherVersionIsNotLoaded() throws IOException {
+    final byte[] bytes = entry().toBytes(MAP_HASH);
+    ByteBuffer.wrap(bytes).putInt(4, ByteBuffer.wrap(bytes).getInt(4) + 1);
+    write(bytes);
+
+    Assert.assertNull(this.cache.load(MAP_HASH, 2, 3));
+  }
+
+  @Test
+  public void entryOfAnotherMapIsNotLoaded() throws IOException {
+    write(entry().toBytes("abd"));
+
+    Assert.assertNull(this.cache.load(MAP_HASH, 2, 3));
+  }
+
+  @Test
+  public void entryOfAnotherMapSizeIsNotLoaded() {
+    this.cache.store(MAP_HASH, entry());
+
+    Assert.assertNull(this.cache.load(MAP_HASH, 3, 2));
+  }
+
+  @Test
+  public void truncatedEntryIsNotLoaded() throws IOException {
+    final byte[] bytes = entry().toBytes(MAP_HASH);
+    for (int length = 0; length < bytes.length; ++length) {
+      write(Arrays.copyOf(bytes, length));
+
+      Assert.assertNull("length " + length, this.cache.load(MAP_HASH, 2, 3));
+    }
+  }
+
+  @Test
+  public void corruptEntryIsNotLoaded() throws IOException {
+    final byte[] bytes = entry().toBytes(MAP_HASH);
+    final int[][] corruptions = {
+      {0, 0},
+      {8, -1},
+      {8, Integer.MAX_VALUE},
+      {FRONTIER_COUNT_OFFSET, -1},
+      {FRONTIER_COUNT_OFFSET, Integer.MAX_VALUE},
+      {FRONTIER_COUNT_OFFSET, 100_000_000},
+      {FRONTIER_COUNT_OFFSET, Integer.MAX_VALUE / 4 + 1},
+      {FRONTIER_COUNT_OFFSET + 4, Integer.MAX_VALUE / 5 + 1},
+      {FRONTIER_COUNT_OFFSET - 12, -2},
+    };
+    for (final int[] corruption : corruptions) {
+      final byte[] corrupt = bytes.clone();
+      ByteBuffer.wrap(corrupt).putInt(corruption[0], corruption[1]);
+      write(corrupt);
+
+      Assert.assertNull(
+          "int " + corruption[1] + " at " + corruption[0], this.cache.load(MAP_HASH, 2, 3));
+    }
+  }
+
+  @Test
+  public void diffNamesEachDifferingPart() {
+    final MapAnalysisCache.Entry entry = entry();
+    final int[] rawFrontier = {1, 2, 0, 1};
+    final int[] tempAreas = {1, 0, 0, 7, 3, 2, 1, 2, 5, 3};
+
+    Assert.assertEquals(
+        Collections.singletonList("map size"),
+        entry.diff(entry(3, 2, 7, rawFrontier, tempAreas, 5, 1)));
+    Assert.assertEquals(
+        Collections.singletonList("highest altitude"),
+        entry.diff(entry(2, 3, 8, rawFrontier, tempAreas, 5, 1)));
+    Assert.assertEquals(
+        Collections.singletonList("raw frontier"),
+        entry.diff(entry(2, 3, 7, new int[] {2, 1, 0, 1}, tempAreas, 5, 1)));
+    Assert.assertEquals(
+        Collections.singletonList("temporary areas"),
+        entry.diff(entry(2, 3, 7, rawFrontier, new int[] {1, 0, 0, 7, 3}, 5, 1)));
+    Assert.assertEquals(
+        Collections.singletonList("miniTile altitudes"),
+        entry.diff(entry(2, 3, 7, rawFrontier, tempAreas, 6, 1)));
+    Assert.assertEquals(
+        Collections.singletonList("miniTile AreaIds"),
+        entry.diff(entry(2, 3, 7, rawFrontier, tempAreas, 5, 2)));
+    Assert.assertEquals(
+        Arrays.asList("highest altitude", "miniTile AreaIds"),
+        entry.diff(entry(2, 3, 8, rawFrontier, tempAreas, 5, 2)));
+  }
+}
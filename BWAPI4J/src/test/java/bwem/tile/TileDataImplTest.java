@@ -0,0 +1,51 @@
+package bwem.tile;
+
+import bwem.area.typedef.AreaId;
+import bwem.typedef.Altitude;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TileDataImplTest {
+  @Test
+  public void viewsShareTheUnderlyingStorage() {
+    final TileDataImpl tileData = new TileDataImpl(4, 16);
+
+    final MiniTileImpl miniTile = (MiniTileImpl) tileData.getMiniTiles().get(5);
+    miniTile.setAltitude(new Altitude(42));
+    miniTile.setAreaId(new AreaId(3));
+
+    final MiniTile sameMiniTile = tileData.getMiniTiles().get(5);
+    Assert.assertEquals(new Altitude(42), sameMiniTile.getAltitude());
+    Assert.assertEquals(new AreaId(3), sameMiniTile.getAreaId());
+    Assert.assertEquals(miniTile, sameMiniTile);
+    Assert.assertEquals(Altitude.UNINITIALIZED, tileData.getMiniTiles().get(4).getAltitude());
+  }
+
+  @Test
+  public void tileFlagsArePackedIndependently() {
+    final TileDataImpl tileData = new TileDataImpl(4, 16);
+    final TileImpl tile = (TileImpl) tileData.getTiles().get(2);
+
+    tile.setGroundHeight(2);
+    tile.setDoodad();
+    Assert.assertEquals(Tile.GroundHeight.VERY_HIGH_GROUND, tile.getGroundHeight());
+    Assert.assertTrue(tile.isDoodad());
+    Assert.assertFalse(tile.isBuildable());
+
+    tile.setBuildable();
+    tile.setGroundHeight(1);
+    Assert.assertEquals(Tile.GroundHeight.HIGH_GROUND, tile.getGroundHeight());
+    Assert.assertTrue(tile.isDoodad());
+    Assert.assertTrue(tile.isBuildable());
+    Assert.assertFalse(tileData.getTiles().get(1).isBuildable());
+  }
+
+  @Test
+  public void blockedMiniTilesKeepTheirAreaId() {
+    final MiniTileImpl miniTile = new MiniTileImpl();
+    miniTile.setBlocked();
+
+    Assert.assertTrue(miniTile.isBlocked());
+    Assert.assertEquals(new AreaId(Integer.MIN_VALUE), miniTile.getAreaId());
+  }
+}
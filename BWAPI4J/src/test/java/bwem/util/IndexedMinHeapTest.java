@@ -0,0 +1,55 @@
+package bwem.util;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IndexedMinHeapTest {
+  @Test
+  public void pollsKeysInAscendingOrderAfterDecreases() {
+    final SplittableRandom random = new SplittableRandom(7);
+    final int nodeCount = 500;
+    final IndexedMinHeap heap = new IndexedMinHeap(nodeCount);
+    final int[] keys = new int[nodeCount];
+    for (int node = 0; node < nodeCount; ++node) {
+      keys[node] = random.nextInt(100_000);
+      heap.add(node, keys[node]);
+    }
+    for (int i = 0; i < 1000; ++i) {
+      final int node = random.nextInt(nodeCount);
+      keys[node] -= random.nextInt(1000);
+      heap.decreaseKey(node, keys[node]);
+    }
+
+    final PriorityQueue<Integer> expected = new PriorityQueue<>();
+    for (final int key : keys) {
+      expected.add(key);
+    }
+    while (!heap.isEmpty()) {
+      final int key = heap.peekKey();
+      final int node = heap.poll();
+      Assert.assertFalse(heap.contains(node));
+      Assert.assertEquals(keys[node], key);
+      Assert.assertEquals(expected.poll().intValue(), key);
+    }
+  }
+
+  @Test
+  public void clearRemovesQueuedNodesOnly() {
+    final IndexedMinHeap heap = new IndexedMinHeap(10);
+    heap.add(3, 30);
+    heap.add(5, 10);
+    heap.add(7, 20);
+
+    Assert.assertEquals(5, heap.poll());
+    Assert.assertEquals(20, heap.getKey(7));
+    heap.clear();
+
+    Assert.assertTrue(heap.isEmpty());
+    Assert.assertFalse(heap.contains(3));
+    Assert.assertFalse(heap.contains(7));
+    heap.add(7, 1);
+    Assert.assertEquals(1, heap.size());
+  }
+}
@@ -0,0 +1,205 @@
+package org.openbw.bwapi4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.unit.Unit;
+
+public class BWEventsTest {
+  private final List<String> calls = new ArrayList<>();
+  private final List<Unit> destroyedUnits = new ArrayList<>();
+  private final BWMock bw = new BWMock(new RecordingListener());
+
+  @Before
+  public void setup() {
+    bw.addPlayer(0);
+    bw.addPlayer(1);
+    bw.setUnit(1, UnitType.Terran_Marine);
+    bw.setUnit(2, UnitType.Zerg_Drone);
+  }
+
+  private static int[] event(final EventType type, final int id, final int text) {
+    return event(type, id, 0, 0, text);
+  }
+
+  private static int[] event(
+      final EventType type, final int id, final int x, final int y, final int text) {
+    final int[] event = new int[EventType.STRIDE];
+    event[0] = type.ordinal();
+    event[EventType.ID] = id;
+    event[EventType.X] = x;
+    event[EventType.Y] = y;
+    event[EventType.TEXT] = text;
+    return event;
+  }
+
+  private static int[] events(final int[]... events) {
+    return Arrays.stream(events).flatMapToInt(IntStream::of).toArray();
+  }
+
+  /* MatchStart is left out, onStart needs the type data of the bridge. */
+  @Test
+  public void shouldDispatchEachEventInOrder() {
+    bw.onEvents(
+        events(
+            event(EventType.UnitCreate, 1, -1),
+            event(EventType.UnitDiscover, 2, -1),
+            event(EventType.SendText, 0, 1),
+            event(EventType.ReceiveText, 1, 0),
+            event(EventType.NukeDetect, 0, 100, 200, -1),
+            event(EventType.UnitShow, 2, -1),
+            event(EventType.UnitMorph, 2, -1),
+            event(EventType.UnitComplete, 1, -1),
+            event(EventType.MatchFrame, 0, -1),
+            event(EventType.UnitRenegade, 2, -1),
+            event(EventType.UnitHide, 2, -1),
+            event(EventType.UnitEvade, 2, -1),
+            event(EventType.PlayerLeft, 1, -1),
+            event(EventType.SaveGame, 0, 2),
+            event(EventType.MatchEnd, 1, -1)),
+        new String[] {"gl hf", "gg", "last save"});
+
+    assertEquals(
+        Arrays.asList(
+            "onUnitCreate 1",
+            "onUnitDiscover 2",
+            "onSendText gg",
+            "onReceiveText Player 1: gl hf",
+            "onNukeDetect 100 200",
+            "onUnitShow 2",
+            "onUnitMorph 2",
+            "onUnitComplete 1",
+            "onFrame",
+            "onUnitRenegade 2",
+            "onUnitHide 2",
+            "onUnitEvade 2",
+            "onPlayerLeft Player 1",
+            "onSaveGame last save",
+            "onEnd true"),
+        calls);
+  }
+
+  @Test
+  public void shouldPassTheLostMatchToOnEnd() {
+    bw.onEvents(event(EventType.MatchEnd, 0, -1), null);
+
+    assertEquals(Arrays.asList("onEnd false"), calls);
+  }
+
+  @Test
+  public void shouldRemoveTheDestroyedUnitAfterTheCallback() {
+    bw.onEvents(event(EventType.UnitCreate, 1, -1), null);
+    assertNotNull(bw.getUnit(1));
+
+    bw.removeUnit(1);
+    bw.onEvents(
+        events(event(EventType.UnitDestroy, 1, -1), event(EventType.MatchFrame, 0, -1)), null);
+
+    assertEquals(Arrays.asList("onUnitCreate 1", "onUnitDestroy 1", "onFrame"), calls);
+    assertEquals(UnitType.Terran_Marine, destroyedUnits.get(0).getType());
+    assertNull(bw.getUnit(1));
+    assertFalse(bw.getAllUnits().contains(destroyedUnits.get(0)));
+    assertNotNull(bw.getUnit(2));
+  }
+
+  private class RecordingListener implements BWEventListener {
+    private void unitCall(final String callback, final Unit unit) {
+      calls.add(callback + " " + (unit == null ? null : unit.getId()));
+    }
+
+    @Override
+    public void onStart() {
+      calls.add("onStart");
+    }
+
+    @Override
+    public void onEnd(final boolean isWinner) {
+      calls.add("onEnd " + isWinner);
+    }
+
+    @Override
+    public void onFrame() {
+      calls.add("onFrame");
+    }
+
+    @Override
+    public void onSendText(final String text) {
+      calls.add("onSendText " + text);
+    }
+
+    @Override
+    public void onReceiveText(final Player player, final String text) {
+      calls.add("onReceiveText " + player.getName() + ": " + text);
+    }
+
+    @Override
+    public void onPlayerLeft(final Player player) {
+      calls.add("onPlayerLeft " + player.getName());
+    }
+
+    @Override
+    public void onNukeDetect(final Position target) {
+      calls.add("onNukeDetect " + target.getX() + " " + target.getY());
+    }
+
+    @Override
+    public void onUnitDiscover(final Unit unit) {
+      unitCall("onUnitDiscover", unit);
+    }
+
+    @Override
+    public void onUnitEvade(final Unit unit) {
+      unitCall("onUnitEvade", unit);
+    }
+
+    @Override
+    public void onUnitShow(final Unit unit) {
+      unitCall("onUnitShow", unit);
+    }
+
+    @Override
+    public void onUnitHide(final Unit unit) {
+      unitCall("onUnitHide", unit);
+    }
+
+    @Override
+    public void onUnitCreate(final Unit unit) {
+      unitCall("onUnitCreate", unit);
+    }
+
+    @Override
+    public void onUnitDestroy(final Unit unit) {
+      unitCall("onUnitDestroy", unit);
+      destroyedUnits.add(unit);
+    }
+
+    @Override
+    public void onUnitMorph(final Unit unit) {
+      unitCall("onUnitMorph", unit);
+    }
+
+    @Override
+    public void onUnitRenegade(final Unit unit) {
+      unitCall("onUnitRenegade", unit);
+    }
+
+    @Override
+    public void onSaveGame(final String gameName) {
+      calls.add("onSaveGame " + gameName);
+    }
+
+    @Override
+    public void onUnitComplete(final Unit unit) {
+      unitCall("onUnitComplete", unit);
+    }
+  }
+}
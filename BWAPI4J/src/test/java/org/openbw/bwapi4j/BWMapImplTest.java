@@ -1,18 +1,60 @@
 package org.openbw.bwapi4j;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
 import org.junit.experimental.theories.DataPoints;
 import org.junit.experimental.theories.FromDataPoints;
 import org.junit.experimental.theories.Theories;
 import org.junit.experimental.theories.Theory;
 import org.junit.runner.RunWith;
+import org.openbw.bwapi4j.type.TypeDataRule;
+import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.unit.UnitMock;
 
 @RunWith(Theories.class)
 public class BWMapImplTest {
-  private final BWMapImpl sut = new BWMapImpl(null);
+  private final StubbedBWMap sut = new StubbedBWMap();
+
+  /* UnitType sizes and flags are only filled in by the bridge. */
+  @Rule public final TypeDataRule typeData = new TypeDataRule();
+
+  /**
+   * Has buildable terrain everywhere but at (5, 5), records the arguments of the batched native
+   * check and answers with a given bitset.
+   */
+  private static class StubbedBWMap extends BWMapImpl {
+    private int[] positions;
+    private int typeId;
+    private int builderId;
+    private long[] buildable = {0};
+
+    StubbedBWMap() {
+      super(null);
+    }
+
+    @Override
+    public boolean isBuildable(final int tileX, final int tileY) {
+      return isValidPosition(new TilePosition(tileX, tileY)) && (tileX != 5 || tileY != 5);
+    }
+
+    @Override
+    long[] canBuildHereAll(final int[] positions, final int typeId, final int builderId) {
+      this.positions = positions;
+      this.typeId = typeId;
+      this.builderId = builderId;
+      return this.buildable;
+    }
+  }
 
   public BWMapImplTest() throws Exception {}
 
@@ -93,4 +135,53 @@ public class BWMapImplTest {
   public void shouldDenyInvalidPositions(@FromDataPoints("invalidPositions") Position position) {
     assertFalse(sut.isValidPosition(position));
   }
+
+  @Theory
+  public void shouldReportNoCreepOrPowerOutsideTheMap(
+      @FromDataPoints("invalidTilePositions") TilePosition tilePosition) {
+    assertFalse(sut.hasCreep(tilePosition));
+    assertFalse(sut.hasPower(tilePosition));
+  }
+
+  @Test
+  public void shouldMapCheckedCandidatesBackToTheirIndices() throws Exception {
+    typeData.set(UnitType.Terran_Supply_Depot, "tileWidth", 3);
+    typeData.set(UnitType.Terran_Supply_Depot, "tileHeight", 2);
+    final List<TilePosition> candidates =
+        Arrays.asList(
+            new TilePosition(0, 0),
+            new TilePosition(4, 4),
+            new TilePosition(8, 0),
+            new TilePosition(2, 10));
+    sut.buildable = new long[] {0b10};
+
+    final BitSet result = sut.canBuildHere(candidates, UnitType.Terran_Supply_Depot, null);
+
+    assertArrayEquals(new int[] {0, 0, 2, 10}, sut.positions);
+    assertEquals(UnitType.Terran_Supply_Depot.getId(), sut.typeId);
+    assertEquals(-1, sut.builderId);
+    assertEquals(BitSet.valueOf(new long[] {0b1000}), result);
+  }
+
+  @Test
+  public void shouldLeaveAddonsWithABuilderToTheNativeCheck() throws Exception {
+    typeData.set(UnitType.Terran_Comsat_Station, "tileWidth", 2);
+    typeData.set(UnitType.Terran_Comsat_Station, "tileHeight", 2);
+    typeData.set(UnitType.Terran_Comsat_Station, "addon", true);
+    final List<TilePosition> candidates = Arrays.asList(new TilePosition(4, 4));
+
+    assertTrue(sut.canBuildHere(candidates, UnitType.Terran_Comsat_Station, null).isEmpty());
+    assertNull(sut.positions);
+
+    sut.buildable = new long[] {0b1};
+    final BitSet result =
+        sut.canBuildHere(
+            candidates,
+            UnitType.Terran_Comsat_Station,
+            new UnitMock(7, UnitType.Terran_Command_Center));
+
+    assertArrayEquals(new int[] {4, 4}, sut.positions);
+    assertEquals(7, sut.builderId);
+    assertEquals(BitSet.valueOf(new long[] {0b1}), result);
+  }
 }
@@ -1,9 +1,11 @@
 package org.openbw.bwapi4j;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import mockdata.BWAPI_DummyData;
 import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.unit.Unit;
 
 public class BWMapMock implements BWMap {
   private final BWAPI_DummyData data;
@@ -139,6 +141,12 @@ public class BWMapMock implements BWMap {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public BitSet canBuildHere(
+      final List<TilePosition> candidates, final UnitType type, final Unit builder) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public boolean hasCreep(TilePosition tilePosition) {
     throw new UnsupportedOperationException();
@@ -148,4 +156,14 @@ public class BWMapMock implements BWMap {
   public boolean hasPower(TilePosition tilePosition) {
     throw new UnsupportedOperationException();
   }
+
+  @Override
+  public List<TilePosition> getCreepChanges() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public List<TilePosition> getPowerChanges() {
+    throw new UnsupportedOperationException();
+  }
 }
@@ -0,0 +1,131 @@
+package org.openbw.bwapi4j;
+
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.unit.UnitImplBridge;
+import org.openbw.bwapi4j.unit.WeaponBridge;
+import org.openbw.bwapi4j.util.DependencyManager;
+
+/**
+ * A BW instance without the bridge that accepts or rejects all batched commands. Its frame
+ * snapshots contain the players and units added to it, with all other values zero.
+ */
+public class BWMock extends BW {
+  /* Values of the game section, see InteractionHandler. */
+  private static final int GAME_DATA_SIZE = 20;
+
+  private boolean acceptingCommands = true;
+  private final List<int[]> issuedCommands = new ArrayList<>();
+  private final List<Integer> playerIds = new ArrayList<>();
+  private final Map<Integer, UnitType> unitTypes = new LinkedHashMap<>();
+
+  /** Creates an instance whose listener ignores all events. */
+  public BWMock() {
+    this(
+        (BWEventListener)
+            Proxy.newProxyInstance(
+                BWEventListener.class.getClassLoader(),
+                new Class<?>[] {BWEventListener.class},
+                (proxy, method, arguments) -> null));
+  }
+
+  public BWMock(final BWEventListener listener) {
+    super(
+        listener,
+        new DependencyManager() {
+          @Override
+          public void loadSharedLibraries(
+              final BWAPI4J.BridgeType bridgeType, final boolean extractBridgeDependencies) {}
+        },
+        BWAPI4J.BridgeType.OPENBW,
+        false);
+  }
+
+  public void setAcceptingCommands(final boolean acceptingCommands) {
+    this.acceptingCommands = acceptingCommands;
+  }
+
+  /** Returns the number of commands passed to the bridge so far. */
+  public int getIssuedCommandCount() {
+    return this.issuedCommands.stream().mapToInt(commands -> commands.length / 6).sum();
+  }
+
+  /** Returns the commands of each call to the bridge, six ints per command. */
+  public List<int[]> getIssuedCommands() {
+    return this.issuedCommands;
+  }
+
+  /** Adds a player to the following frame snapshots. */
+  public void addPlayer(final int playerId) {
+    this.playerIds.add(playerId);
+  }
+
+  /** Adds a unit to the following frame snapshots or changes its type, owned by player 0. */
+  public void setUnit(final int unitId, final UnitType type) {
+    this.unitTypes.put(unitId, type);
+  }
+
+  /** Removes a unit from the following frame snapshots. */
+  public void removeUnit(final int unitId) {
+    this.unitTypes.remove(unitId);
+  }
+
+  @Override
+  IntBuffer frameSnapshot() {
+    final int playerRecordSize = new PlayerBridge(this).skip(IntBuffer.allocate(64), 0);
+    final int unitRecordSize =
+        new UnitImplBridge(this, new WeaponBridge(this)).skip(IntBuffer.allocate(256), 0);
+
+    final IntBuffer snapshot =
+        IntBuffer.allocate(
+            5
+                + GAME_DATA_SIZE
+                + this.playerIds.size() * playerRecordSize
+                + this.unitTypes.size() * (3 + unitRecordSize));
+    snapshot.put(GAME_DATA_SIZE).position(snapshot.position() + GAME_DATA_SIZE);
+
+    snapshot.put(this.playerIds.size() * playerRecordSize);
+    for (final int playerId : this.playerIds) {
+      final int[] record = new int[playerRecordSize];
+      record[PlayerBridge.ID] = playerId;
+      snapshot.put(record);
+    }
+
+    snapshot.put(0);
+
+    /* Units are always sent in full, with the player and all other references zero. */
+    snapshot.put(this.unitTypes.size() * (3 + unitRecordSize));
+    for (final Map.Entry<Integer, UnitType> unit : this.unitTypes.entrySet()) {
+      final int[] record = new int[unitRecordSize];
+      record[UnitImplBridge.ID] = unit.getKey();
+      record[UnitImplBridge.TYPE] = unit.getValue().getId();
+      snapshot.put(unit.getKey()).put(UnitDeltaDecoder.FULL).put(unitRecordSize).put(record);
+    }
+
+    snapshot.put(0);
+    snapshot.flip();
+    return snapshot;
+  }
+
+  @Override
+  String getPlayerName(final int playerId) {
+    return "Player " + playerId;
+  }
+
+  @Override
+  int issueCommands(final int[] commands, final int count, final long[] successes) {
+    this.issuedCommands.add(Arrays.copyOf(commands, 6 * count));
+    if (this.acceptingCommands) {
+      for (int i = 0; i < count; ++i) {
+        successes[i >>> 6] |= 1L << i;
+      }
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,79 @@
+package org.openbw.bwapi4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbw.bwapi4j.type.UnitCommandType;
+import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.unit.PlayerUnitMock;
+
+public class CommandBufferTest {
+  private static final int COMMAND_COUNT = 1500;
+
+  private final BWMock bw = new BWMock();
+  private final CommandBuffer sut = bw.getCommandBuffer();
+  private final List<PlayerUnitMock> units = new ArrayList<>();
+
+  @Before
+  public void setup() {
+    sut.setEnabled(true);
+    for (int id = 0; id < COMMAND_COUNT; ++id) {
+      units.add(new PlayerUnitMock(id, UnitType.Terran_Marine, null));
+    }
+  }
+
+  @Test
+  public void shouldFlushWhenFullAndKeepTheOrder() {
+    for (int i = 0; i < COMMAND_COUNT; ++i) {
+      sut.add(units.get(i), UnitCommandType.Move, -1, i, 2 * i, -1);
+    }
+
+    assertEquals(1, bw.getIssuedCommands().size());
+    final int capacity = bw.getIssuedCommands().get(0).length / 6;
+    assertEquals(COMMAND_COUNT - capacity, sut.size());
+    assertNull(units.get(COMMAND_COUNT - 1).getLastCommand());
+
+    assertEquals(COMMAND_COUNT - capacity, sut.flush());
+
+    assertEquals(0, sut.size());
+    assertEquals(2, bw.getIssuedCommands().size());
+    int i = 0;
+    for (final int[] commands : bw.getIssuedCommands()) {
+      for (int index = 0; index < commands.length; index += 6, ++i) {
+        assertEquals(i, commands[index]);
+        assertEquals(UnitCommandType.Move.ordinal(), commands[index + 1]);
+        assertEquals(-1, commands[index + 2]);
+        assertEquals(i, commands[index + 3]);
+        assertEquals(2 * i, commands[index + 4]);
+        assertEquals(-1, commands[index + 5]);
+      }
+    }
+    assertEquals(COMMAND_COUNT, i);
+    for (final PlayerUnitMock unit : units) {
+      assertEquals(UnitCommandType.Move, unit.getLastCommand());
+      assertEquals(0, unit.getLastCommandFrame());
+    }
+    assertEquals(COMMAND_COUNT - capacity, sut.getLastCount());
+  }
+
+  @Test
+  public void shouldNotRecordRejectedCommands() {
+    bw.setAcceptingCommands(false);
+    sut.add(units.get(0), UnitCommandType.Stop, -1, -1, -1, -1);
+
+    assertEquals(1, sut.flush());
+
+    assertNull(units.get(0).getLastCommand());
+    assertEquals(0, sut.getLastSuccesses().cardinality());
+  }
+
+  @Test
+  public void shouldNotCallTheBridgeWhenEmpty() {
+    assertEquals(0, sut.flush());
+    assertEquals(0, bw.getIssuedCommands().size());
+  }
+}
@@ -0,0 +1,119 @@
+package org.openbw.bwapi4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.unit.Unit;
+import org.openbw.bwapi4j.unit.UnitMock;
+
+public class EventBusTest {
+  @Test
+  public void unitHandlersAreFilteredByType() {
+    final EventBus bus = new EventBus();
+    final List<Unit> marines = new ArrayList<>();
+    final List<Unit> all = new ArrayList<>();
+    bus.subscribe(EventType.UnitCreate, null, UnitType.Terran_Marine, marines::add);
+    bus.subscribe(EventType.UnitCreate, all::add);
+
+    final Unit marine = new UnitMock(1, UnitType.Terran_Marine);
+    final Unit scv = new UnitMock(2, UnitType.Terran_SCV);
+    bus.onUnitCreate(marine);
+    bus.onUnitCreate(scv);
+    bus.onUnitShow(marine);
+
+    Assert.assertEquals(1, marines.size());
+    Assert.assertSame(marine, marines.get(0));
+    Assert.assertEquals(2, all.size());
+  }
+
+  @Test
+  public void failingHandlerDoesNotStopDispatch() {
+    final EventBus bus = new EventBus();
+    final int[] frames = new int[1];
+    bus.subscribe(
+        EventType.MatchFrame,
+        () -> {
+          throw new IllegalStateException();
+        });
+    bus.subscribe(EventType.MatchFrame, () -> ++frames[0]);
+
+    bus.onFrame();
+
+    Assert.assertEquals(1, frames[0]);
+  }
+
+  @Test
+  public void eventMaskContainsSubscribedAndRequiredEvents() {
+    final EventBus bus = new EventBus();
+    final Consumer<Unit> handler = unit -> {};
+
+    Assert.assertEquals(EventBus.REQUIRED_EVENTS, bus.pollEventMask());
+    bus.subscribe(EventType.UnitMorph, handler);
+    Assert.assertEquals(
+        EventBus.REQUIRED_EVENTS | 1 << EventType.UnitMorph.ordinal(), bus.pollEventMask());
+    Assert.assertEquals(-1, bus.pollEventMask());
+
+    Assert.assertTrue(bus.unsubscribe(handler));
+    Assert.assertFalse(bus.hasSubscribers(EventType.UnitMorph));
+    Assert.assertEquals(EventBus.REQUIRED_EVENTS, bus.pollEventMask());
+  }
+
+  @Test
+  public void closingAHandleRemovesOnlyItsSubscription() {
+    final EventBus bus = new EventBus();
+    final List<String> calls = new ArrayList<>();
+    final Runnable handler = () -> calls.add("frame");
+    final EventBus.Handle first = bus.subscribe(EventType.MatchFrame, handler);
+    bus.subscribe(EventType.MatchFrame, handler);
+    bus.subscribe(EventType.UnitMorph, unit -> calls.add("morph"));
+    bus.pollEventMask();
+
+    first.close();
+    bus.onFrame();
+
+    Assert.assertEquals(1, calls.size());
+    Assert.assertNotEquals(0, bus.pollEventMask() & 1 << EventType.MatchFrame.ordinal());
+
+    first.close();
+    bus.onFrame();
+
+    Assert.assertEquals(2, calls.size());
+    Assert.assertEquals(-1, bus.pollEventMask());
+  }
+
+  @Test
+  public void closingTheLastHandleOfAnEventUpdatesTheEventMask() {
+    final EventBus bus = new EventBus();
+    try (EventBus.Handle handle = bus.subscribe(EventType.UnitMorph, unit -> {})) {
+      Assert.assertTrue(bus.hasSubscribers(EventType.UnitMorph));
+      bus.pollEventMask();
+    }
+
+    Assert.assertFalse(bus.hasSubscribers(EventType.UnitMorph));
+    Assert.assertEquals(EventBus.REQUIRED_EVENTS, bus.pollEventMask());
+  }
+
+  private void onUnitMorph(final Unit unit) {}
+
+  @Test
+  public void methodReferencesAreRemovedThroughTheirHandle() {
+    final EventBus bus = new EventBus();
+    final EventBus.Handle handle = bus.subscribe(EventType.UnitMorph, this::onUnitMorph);
+
+    /* Each evaluation of the method reference is a new object. */
+    Assert.assertFalse(bus.unsubscribe((Consumer<Unit>) this::onUnitMorph));
+    Assert.assertTrue(bus.hasSubscribers(EventType.UnitMorph));
+
+    handle.close();
+
+    Assert.assertFalse(bus.hasSubscribers(EventType.UnitMorph));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unitSubscriptionRequiresUnitEvent() {
+    new EventBus().subscribe(EventType.SaveGame, unit -> {});
+  }
+}
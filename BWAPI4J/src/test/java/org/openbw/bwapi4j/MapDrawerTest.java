@@ -0,0 +1,258 @@
+package org.openbw.bwapi4j;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.openbw.bwapi4j.type.Color;
+
+public class MapDrawerTest {
+  private final InteractionHandler interactionHandler = new InteractionHandler(null);
+  private final RecordingMapDrawer sut = new RecordingMapDrawer(interactionHandler);
+
+  /** Records the shapes and layers passed to the bridge instead of drawing them. */
+  private static class RecordingMapDrawer extends MapDrawer {
+    private final List<int[]> drawnShapes = new ArrayList<>();
+    private final List<String[]> drawnStrings = new ArrayList<>();
+    private final List<Integer> uploadedLayerIds = new ArrayList<>();
+    private final List<int[]> uploadedShapes = new ArrayList<>();
+    private int clearedLayers;
+
+    RecordingMapDrawer(final InteractionHandler interactionHandler) {
+      super(interactionHandler);
+    }
+
+    @Override
+    void drawShapes(final int[] shapes, final int count, final String[] strings) {
+      this.drawnShapes.add(Arrays.copyOf(shapes, count * ShapeBuffer.STRIDE));
+      this.drawnStrings.add(strings);
+    }
+
+    @Override
+    void uploadLayer(
+        final int layerId, final int[] shapes, final int count, final String[] strings) {
+      this.uploadedLayerIds.add(layerId);
+      this.uploadedShapes.add(Arrays.copyOf(shapes, count * ShapeBuffer.STRIDE));
+    }
+
+    @Override
+    void clearLayers() {
+      ++this.clearedLayers;
+    }
+  }
+
+  @Before
+  public void setup() {
+    sut.setBuffered(true);
+  }
+
+  /* The screen position and size are the first values of the game data, see InteractionHandler. */
+  private void setScreen(final int x, final int y, final int width, final int height) {
+    final int[] gameData = new int[20];
+    gameData[0] = x;
+    gameData[1] = y;
+    gameData[2] = width;
+    gameData[3] = height;
+    interactionHandler.update(IntBuffer.wrap(gameData), 0);
+  }
+
+  /* Returns the first value after the coordinate type of each shape, the x or left edge. */
+  private static int[] xs(final int[] shapes) {
+    final int[] xs = new int[shapes.length / ShapeBuffer.STRIDE];
+    for (int i = 0; i < xs.length; ++i) {
+      xs[i] = shapes[i * ShapeBuffer.STRIDE + 2];
+    }
+    return xs;
+  }
+
+  @Test
+  public void shouldDropTheShapesBeyondTheBudgetOfAFrame() {
+    sut.setShapeBudget(3);
+    for (int x = 0; x < 5; ++x) {
+      sut.drawBoxMap(x, 0, x + 1, 1, Color.RED);
+    }
+    sut.flush();
+
+    assertEquals(1, sut.drawnShapes.size());
+    assertArrayEquals(new int[] {0, 1, 2}, xs(sut.drawnShapes.get(0)));
+    assertEquals(3, sut.getDrawnShapeCount());
+    assertEquals(2, sut.getDroppedShapeCount());
+
+    sut.drawBoxMap(10, 0, 11, 1, Color.RED);
+    sut.drawTextMap(20, 0, "next frame");
+    sut.flush();
+
+    assertArrayEquals(new int[] {10, 20}, xs(sut.drawnShapes.get(1)));
+    assertEquals(2, sut.getDrawnShapeCount());
+    assertEquals(0, sut.getDroppedShapeCount());
+  }
+
+  @Test
+  public void shouldDrawNothingWithAZeroBudget() {
+    sut.setShapeBudget(0);
+    sut.drawCircleMap(10, 10, 5, Color.GREEN);
+    sut.flush();
+
+    assertEquals(0, sut.drawnShapes.size());
+    assertEquals(1, sut.getDroppedShapeCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectANegativeBudget() {
+    sut.setShapeBudget(-1);
+  }
+
+  @Test
+  public void shouldClearTheBufferOnFlush() {
+    sut.drawTextMap(1, 0, "first");
+    sut.drawBoxMap(2, 0, 3, 1, Color.RED);
+    sut.flush();
+    sut.flush();
+
+    assertEquals(1, sut.drawnShapes.size());
+    assertArrayEquals(new int[] {1, 2}, xs(sut.drawnShapes.get(0)));
+    assertArrayEquals(new String[] {"first"}, sut.drawnStrings.get(0));
+
+    sut.drawTextMap(3, 0, "second");
+    sut.flush();
+
+    assertEquals(2, sut.drawnShapes.size());
+    assertArrayEquals(new int[] {3}, xs(sut.drawnShapes.get(1)));
+    assertArrayEquals(new String[] {"second"}, sut.drawnStrings.get(1));
+    /* The string table starts over, so the text refers to the first string again. */
+    assertEquals(0, sut.drawnShapes.get(1)[4]);
+  }
+
+  @Test
+  public void shouldFlushWhenBufferingIsDisabled() {
+    sut.drawBoxMap(5, 0, 6, 1, Color.RED);
+    sut.setBuffered(false);
+
+    assertEquals(1, sut.drawnShapes.size());
+    assertArrayEquals(new int[] {5}, xs(sut.drawnShapes.get(0)));
+  }
+
+  @Test
+  public void shouldCullOnlyTheShapesOutsideTheViewport() {
+    sut.setCulling(true);
+    sut.setCullingMargin(0);
+    setScreen(100, 100, 640, 480);
+
+    sut.drawBoxMap(200, 200, 210, 210, Color.RED);
+    sut.drawBoxMap(0, 0, 50, 50, Color.RED);
+    sut.drawBoxMap(90, 90, 110, 110, Color.RED);
+    sut.drawCircleMap(800, 300, 10, Color.GREEN);
+    sut.drawCircleMap(745, 300, 10, Color.GREEN);
+    sut.drawTextMap(20, 300, "left");
+    sut.drawLineMap(40, 590, 60, 600, Color.GREEN);
+    sut.drawBoxScreen(1, 1, 5, 5, Color.RED);
+    sut.flush();
+
+    assertArrayEquals(new int[] {200, 90, 745, 1}, xs(sut.drawnShapes.get(0)));
+    assertEquals(4, sut.getDrawnShapeCount());
+    assertEquals(4, sut.getCulledShapeCount());
+  }
+
+  @Test
+  public void shouldExtendTheViewportByTheMargin() {
+    sut.setCulling(true);
+    setScreen(100, 100, 640, 480);
+
+    sut.drawBoxMap(50, 200, 60, 210, Color.RED);
+    sut.drawBoxMap(60, 200, 70, 210, Color.RED);
+    sut.flush();
+
+    assertArrayEquals(new int[] {60}, xs(sut.drawnShapes.get(0)));
+    assertEquals(1, sut.getCulledShapeCount());
+  }
+
+  @Test
+  public void shouldReadTheViewportAgainAfterFlush() {
+    sut.setCulling(true);
+    sut.setCullingMargin(0);
+    setScreen(0, 0, 100, 100);
+
+    sut.drawBoxMap(50, 50, 60, 60, Color.RED);
+    setScreen(1000, 1000, 100, 100);
+    sut.drawBoxMap(1050, 1050, 1060, 1060, Color.RED);
+    sut.flush();
+
+    assertArrayEquals(new int[] {50}, xs(sut.drawnShapes.get(0)));
+    assertEquals(1, sut.getCulledShapeCount());
+
+    sut.drawBoxMap(50, 50, 60, 60, Color.RED);
+    sut.drawBoxMap(1050, 1050, 1060, 1060, Color.RED);
+    sut.flush();
+
+    assertArrayEquals(new int[] {1050}, xs(sut.drawnShapes.get(1)));
+    assertEquals(1, sut.getCulledShapeCount());
+  }
+
+  @Test
+  public void shouldKeepTheLayerIdsInTheOrderTheLayersWereFirstBuilt() {
+    sut.buildLayer("areas", drawer -> drawer.drawBoxMap(1, 0, 2, 1, Color.RED));
+    sut.buildLayer("bases", drawer -> drawer.drawBoxMap(2, 0, 3, 1, Color.RED));
+    sut.buildLayer(
+        "areas",
+        drawer -> {
+          drawer.drawBoxMap(3, 0, 4, 1, Color.RED);
+          drawer.drawTextMap(4, 0, "rebuilt");
+        });
+
+    /* The bridge draws the layers in the order of their ids. */
+    assertEquals(Arrays.asList(0, 1, 0), sut.uploadedLayerIds);
+    assertArrayEquals(new int[] {1}, xs(sut.uploadedShapes.get(0)));
+    assertArrayEquals(new int[] {2}, xs(sut.uploadedShapes.get(1)));
+    assertArrayEquals(new int[] {3, 4}, xs(sut.uploadedShapes.get(2)));
+    assertTrue(sut.isLayerVisible("areas"));
+    assertTrue(sut.isLayerVisible("bases"));
+  }
+
+  @Test
+  public void shouldRecordLayerShapesWithoutBudgetOrCulling() {
+    sut.setShapeBudget(0);
+    sut.setCulling(true);
+    sut.setCullingMargin(0);
+    setScreen(0, 0, 100, 100);
+
+    sut.buildLayer("far away", drawer -> drawer.drawBoxMap(1000, 1000, 1010, 1010, Color.RED));
+    sut.flush();
+
+    assertArrayEquals(new int[] {1000}, xs(sut.uploadedShapes.get(0)));
+    assertEquals(0, sut.drawnShapes.size());
+    assertEquals(0, sut.getDroppedShapeCount());
+    assertEquals(0, sut.getCulledShapeCount());
+  }
+
+  @Test
+  public void shouldDropTheLayersAndBufferedShapesOnReset() {
+    sut.buildLayer("areas", drawer -> drawer.drawBoxMap(1, 0, 2, 1, Color.RED));
+    sut.buildLayer("bases", drawer -> drawer.drawBoxMap(2, 0, 3, 1, Color.RED));
+    sut.drawBoxMap(5, 0, 6, 1, Color.RED);
+
+    sut.reset();
+    sut.flush();
+
+    assertEquals(1, sut.clearedLayers);
+    assertEquals(0, sut.drawnShapes.size());
+    assertFalse(sut.isLayerVisible("areas"));
+    assertFalse(sut.isLayerVisible("bases"));
+
+    sut.buildLayer("bases", drawer -> drawer.drawBoxMap(7, 0, 8, 1, Color.RED));
+
+    assertEquals(Arrays.asList(0, 1, 0), sut.uploadedLayerIds);
+    assertArrayEquals(new int[] {7}, xs(sut.uploadedShapes.get(2)));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void shouldRejectBuildingALayerWhileBuildingOne() {
+    sut.buildLayer("outer", drawer -> drawer.buildLayer("inner", inner -> {}));
+  }
+}
@@ -0,0 +1,271 @@
+package org.openbw.bwapi4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.IntBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.openbw.bwapi4j.type.TechType;
+import org.openbw.bwapi4j.type.TypeDataRule;
+import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.type.UpgradeType;
+import org.openbw.bwapi4j.unit.PlayerUnitMock;
+import org.openbw.bwapi4j.unit.UnitFactory;
+import org.openbw.bwapi4j.unit.UnitImpl;
+
+public class PlayerUnitCountTest {
+  /* Prices and requirements are only filled in by the bridge. */
+  @Rule public final TypeDataRule typeData = new TypeDataRule();
+
+  private final BWMock bw = new BWMock();
+  private final Map<Integer, Integer> owners = new HashMap<>();
+  private final Set<Integer> completedUnits = new HashSet<>();
+  private final Set<Integer> hiddenUnits = new HashSet<>();
+  private Player self;
+  private Player enemy;
+
+  /** A unit whose owner and state are given by the test instead of the bridge. */
+  private class ScriptedUnit extends PlayerUnitMock {
+    ScriptedUnit(final int id, final UnitType type) {
+      super(id, type, null);
+    }
+
+    @Override
+    public Player getPlayer() {
+      return bw.getPlayer(owners.getOrDefault(getId(), 0));
+    }
+
+    @Override
+    public boolean isCompleted() {
+      return completedUnits.contains(getId());
+    }
+
+    @Override
+    public boolean isVisible() {
+      return !hiddenUnits.contains(getId());
+    }
+  }
+
+  @Before
+  public void setup() throws ReflectiveOperationException {
+    bw.setUnitFactory(
+        new UnitFactory() {
+          @Override
+          public UnitImpl createUnit(final int unitId, final UnitType type, final int frame) {
+            return new ScriptedUnit(unitId, type);
+          }
+        });
+    bw.addPlayer(0);
+    bw.addPlayer(1);
+    nextFrame();
+    self = bw.getPlayer(0);
+    enemy = bw.getPlayer(1);
+
+    typeData.set(UnitType.Terran_Marine, "mineralPrice", 50);
+    typeData.set(UnitType.Terran_Marine, "supplyRequired", 2);
+    typeData.set(UnitType.Terran_Marine, "requiredTech", TechType.None);
+    typeData.set(
+        UnitType.Terran_Marine,
+        "requiredUnits",
+        Collections.singletonMap(UnitType.Terran_Barracks, 1));
+
+    typeData.set(TechType.Stim_Packs, "mineralPrice", 100);
+    typeData.set(TechType.Stim_Packs, "gasPrice", 100);
+    typeData.set(TechType.Stim_Packs, "whatResearches", UnitType.Terran_Academy);
+    typeData.set(TechType.Stim_Packs, "requiredUnit", UnitType.None);
+
+    final UpgradeType weapons = UpgradeType.Terran_Infantry_Weapons;
+    typeData.set(weapons, "maxRepeats", 3);
+    typeData.set(weapons, "mineralPrices", new int[] {100, 175, 250});
+    typeData.set(weapons, "gasPrices", new int[] {100, 175, 250});
+    typeData.set(weapons, "whatUpgrades", UnitType.Terran_Engineering_Bay);
+    typeData.set(
+        weapons,
+        "whatsRequired",
+        new UnitType[] {UnitType.None, UnitType.Terran_Armory, UnitType.Terran_Armory});
+  }
+
+  /** Lets BW decode a frame and gives the first player plenty of resources and supply. */
+  private void nextFrame() {
+    bw.onEvents(new int[0], null);
+    if (self != null) {
+      self.minerals = 1000;
+      self.gas = 1000;
+      self.supplyUsed = 0;
+      self.supplyTotal = 20;
+    }
+  }
+
+  /** Adds a unit to the next frames, or changes the type and state of an added one. */
+  private void addUnit(final int unitId, final UnitType type, final boolean completed) {
+    bw.setUnit(unitId, type);
+    if (completed) {
+      completedUnits.add(unitId);
+    } else {
+      completedUnits.remove(unitId);
+    }
+  }
+
+  private void destroyUnit(final int unitId) {
+    bw.removeUnit(unitId);
+    bw.onEvents(new int[] {EventType.UnitDestroy.ordinal(), unitId, 0, 0, -1}, null);
+  }
+
+  /* See Player#update(IntBuffer, int) for the layout of the player extras. */
+  private void sendUpgrade(final UpgradeType type, final int level, final boolean upgrading) {
+    self.update(IntBuffer.wrap(new int[] {0, 0, 1, type.getId(), level, upgrading ? 1 : 0, 0}), 0);
+  }
+
+  private void sendTech(final TechType type, final boolean researched, final boolean researching) {
+    self.update(
+        IntBuffer.wrap(
+            new int[] {0, 0, 0, 1, type.getId(), researched ? 1 : 0, researching ? 1 : 0}),
+        0);
+  }
+
+  @Test
+  public void shouldCountUnitsPerPlayerTypeAndState() {
+    addUnit(1, UnitType.Terran_Barracks, false);
+    addUnit(2, UnitType.Terran_Marine, true);
+    addUnit(3, UnitType.Terran_Marine, true);
+    addUnit(4, UnitType.Terran_SCV, true);
+    hiddenUnits.add(4);
+    addUnit(5, UnitType.Protoss_Zealot, true);
+    owners.put(5, 1);
+
+    nextFrame();
+
+    assertEquals(1, self.incompleteUnitCount(UnitType.Terran_Barracks));
+    assertEquals(0, self.completedUnitCount(UnitType.Terran_Barracks));
+    assertEquals(1, self.allUnitCount(UnitType.Terran_Barracks));
+    assertEquals(2, self.completedUnitCount(UnitType.Terran_Marine));
+    assertEquals(2, self.visibleUnitCount(UnitType.Terran_Marine));
+    assertEquals(1, self.completedUnitCount(UnitType.Terran_SCV));
+    assertEquals(0, self.visibleUnitCount(UnitType.Terran_SCV));
+    assertEquals(0, self.allUnitCount(UnitType.Protoss_Zealot));
+    assertEquals(1, enemy.completedUnitCount(UnitType.Protoss_Zealot));
+    assertEquals(0, enemy.allUnitCount(UnitType.Terran_Marine));
+
+    completedUnits.add(1);
+    nextFrame();
+
+    assertEquals(0, self.incompleteUnitCount(UnitType.Terran_Barracks));
+    assertEquals(1, self.completedUnitCount(UnitType.Terran_Barracks));
+    assertEquals(2, self.allUnitCount(UnitType.Terran_Marine));
+  }
+
+  @Test
+  public void shouldCountMorphedUnitsAsTheirNewType() {
+    addUnit(1, UnitType.Zerg_Larva, true);
+    nextFrame();
+    assertEquals(1, self.completedUnitCount(UnitType.Zerg_Larva));
+
+    addUnit(1, UnitType.Zerg_Egg, false);
+    nextFrame();
+    assertEquals(0, self.allUnitCount(UnitType.Zerg_Larva));
+    assertEquals(1, self.incompleteUnitCount(UnitType.Zerg_Egg));
+    assertEquals(UnitType.Zerg_Egg, bw.getUnit(1).getType());
+
+    addUnit(1, UnitType.Zerg_Drone, true);
+    nextFrame();
+    assertEquals(0, self.allUnitCount(UnitType.Zerg_Egg));
+    assertEquals(1, self.completedUnitCount(UnitType.Zerg_Drone));
+
+    owners.put(1, 1);
+    nextFrame();
+    assertEquals(0, self.allUnitCount(UnitType.Zerg_Drone));
+    assertEquals(1, enemy.completedUnitCount(UnitType.Zerg_Drone));
+  }
+
+  @Test
+  public void shouldCountDestroyedUnitsAsDeadForTheirOwner() {
+    addUnit(1, UnitType.Terran_Marine, true);
+    addUnit(2, UnitType.Terran_Marine, true);
+    addUnit(3, UnitType.Protoss_Zealot, true);
+    owners.put(3, 1);
+    nextFrame();
+
+    destroyUnit(1);
+    destroyUnit(3);
+
+    assertEquals(1, self.deadUnitCount(UnitType.Terran_Marine));
+    assertEquals(1, self.allUnitCount(UnitType.Terran_Marine));
+    assertEquals(0, self.deadUnitCount(UnitType.Protoss_Zealot));
+    assertEquals(1, enemy.deadUnitCount(UnitType.Protoss_Zealot));
+    assertEquals(0, enemy.allUnitCount(UnitType.Protoss_Zealot));
+  }
+
+  @Test
+  public void canMakeRequiresACompletedRequiredUnit() {
+    assertFalse(self.canMake(UnitType.Terran_Marine));
+
+    addUnit(1, UnitType.Terran_Barracks, false);
+    nextFrame();
+    assertFalse(self.canMake(UnitType.Terran_Marine));
+
+    completedUnits.add(1);
+    nextFrame();
+    assertTrue(self.canMake(UnitType.Terran_Marine));
+
+    self.minerals = 49;
+    assertFalse(self.canMake(UnitType.Terran_Marine));
+
+    nextFrame();
+    self.supplyUsed = 19;
+    assertFalse(self.canMake(UnitType.Terran_Marine));
+
+    destroyUnit(1);
+    self.supplyUsed = 0;
+    assertFalse(self.canMake(UnitType.Terran_Marine));
+  }
+
+  @Test
+  public void canResearchRequiresACompletedResearcher() {
+    assertFalse(self.canResearch(TechType.Stim_Packs));
+
+    addUnit(1, UnitType.Terran_Academy, true);
+    nextFrame();
+    assertTrue(self.canResearch(TechType.Stim_Packs));
+
+    self.gas = 99;
+    assertFalse(self.canResearch(TechType.Stim_Packs));
+
+    nextFrame();
+    sendTech(TechType.Stim_Packs, false, true);
+    assertFalse(self.canResearch(TechType.Stim_Packs));
+
+    sendTech(TechType.Stim_Packs, true, false);
+    assertFalse(self.canResearch(TechType.Stim_Packs));
+  }
+
+  @Test
+  public void canUpgradeRequiresTheUpgraderAndTheUnitRequiredForTheLevel() {
+    final UpgradeType weapons = UpgradeType.Terran_Infantry_Weapons;
+    assertFalse(self.canUpgrade(weapons));
+
+    addUnit(1, UnitType.Terran_Engineering_Bay, true);
+    nextFrame();
+    assertTrue(self.canUpgrade(weapons));
+
+    sendUpgrade(weapons, 0, true);
+    assertFalse(self.canUpgrade(weapons));
+
+    sendUpgrade(weapons, 1, false);
+    assertFalse(self.canUpgrade(weapons));
+
+    addUnit(2, UnitType.Terran_Armory, true);
+    nextFrame();
+    assertTrue(self.canUpgrade(weapons));
+
+    sendUpgrade(weapons, 3, false);
+    assertFalse(self.canUpgrade(weapons));
+  }
+}
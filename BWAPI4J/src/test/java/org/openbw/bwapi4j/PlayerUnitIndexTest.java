@@ -0,0 +1,106 @@
+package org.openbw.bwapi4j;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.unit.PlayerUnit;
+import org.openbw.bwapi4j.unit.PlayerUnitMock;
+import org.openbw.bwapi4j.unit.UnitMock;
+
+public class PlayerUnitIndexTest {
+  private final Player self = new Player(0, "self", null);
+  private final Player enemy = new Player(1, "enemy", null);
+
+  @Test
+  public void createIndexesUnitUnderOwnerAndType() {
+    final PlayerUnitIndex index = new PlayerUnitIndex();
+    final PlayerUnitMock marine = new PlayerUnitMock(3, UnitType.Terran_Marine, this.self);
+    final PlayerUnitMock scv = new PlayerUnitMock(4, UnitType.Terran_SCV, this.self);
+
+    index.update(3, marine);
+    index.update(4, scv);
+    index.update(3, marine);
+
+    Assert.assertEquals(Arrays.asList(marine, scv), index.getUnits(this.self));
+    Assert.assertEquals(
+        Collections.singletonList(marine), index.getUnits(this.self, UnitType.Terran_Marine));
+    Assert.assertTrue(index.getUnits(this.enemy).isEmpty());
+  }
+
+  @Test
+  public void destroyRemovesUnitFromAllLists() {
+    final PlayerUnitIndex index = new PlayerUnitIndex();
+    final PlayerUnitMock marine = new PlayerUnitMock(3, UnitType.Terran_Marine, this.self);
+    index.update(3, marine);
+
+    index.remove(3);
+    index.remove(3);
+
+    Assert.assertTrue(index.getUnits(this.self).isEmpty());
+    Assert.assertTrue(index.getUnits(this.self, UnitType.Terran_Marine).isEmpty());
+  }
+
+  @Test
+  public void morphMovesUnitToNewTypeBucket() {
+    final PlayerUnitIndex index = new PlayerUnitIndex();
+    final PlayerUnitMock larva = new PlayerUnitMock(7, UnitType.Zerg_Larva, this.self);
+    index.update(7, larva);
+
+    larva.setType(UnitType.Zerg_Egg);
+    index.update(7, larva);
+
+    Assert.assertTrue(index.getUnits(this.self, UnitType.Zerg_Larva).isEmpty());
+    Assert.assertEquals(
+        Collections.singletonList(larva), index.getUnits(this.self, UnitType.Zerg_Egg));
+    Assert.assertEquals(Collections.singletonList(larva), index.getUnits(this.self));
+  }
+
+  @Test
+  public void renegadeMovesUnitToNewOwner() {
+    final PlayerUnitIndex index = new PlayerUnitIndex();
+    final PlayerUnitMock marine = new PlayerUnitMock(3, UnitType.Terran_Marine, this.self);
+    index.update(3, marine);
+
+    marine.setPlayer(this.enemy);
+    index.update(3, marine);
+
+    Assert.assertTrue(index.getUnits(this.self).isEmpty());
+    Assert.assertTrue(index.getUnits(this.self, UnitType.Terran_Marine).isEmpty());
+    Assert.assertEquals(Collections.singletonList(marine), index.getUnits(this.enemy));
+    Assert.assertEquals(
+        Collections.singletonList(marine), index.getUnits(this.enemy, UnitType.Terran_Marine));
+  }
+
+  @Test
+  public void unitsWithoutOwnerAreNotIndexed() {
+    final PlayerUnitIndex index = new PlayerUnitIndex();
+    final PlayerUnitMock marine = new PlayerUnitMock(3, UnitType.Terran_Marine, this.self);
+    index.update(3, marine);
+
+    index.update(3, new UnitMock(3, UnitType.Resource_Mineral_Field));
+
+    Assert.assertTrue(index.getUnits(this.self).isEmpty());
+  }
+
+  @Test
+  public void unitIdsBeyondInitialCapacityAreIndexed() {
+    final PlayerUnitIndex index = new PlayerUnitIndex();
+    final PlayerUnitMock marine = new PlayerUnitMock(5000, UnitType.Terran_Marine, this.self);
+
+    index.update(5000, marine);
+
+    Assert.assertEquals(Collections.singletonList(marine), index.getUnits(this.self));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void listsAreReadOnlyViews() {
+    final PlayerUnitIndex index = new PlayerUnitIndex();
+    index.update(3, new PlayerUnitMock(3, UnitType.Terran_Marine, this.self));
+
+    final List<PlayerUnit> units = index.getUnits(this.self);
+    units.sort(null);
+  }
+}
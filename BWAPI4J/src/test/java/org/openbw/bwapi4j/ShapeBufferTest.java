@@ -0,0 +1,28 @@
+package org.openbw.bwapi4j;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ShapeBufferTest {
+  @Test
+  public void internsStringsAndGrows() {
+    final ShapeBuffer buffer = new ShapeBuffer();
+    for (int i = 0; i < 1000; ++i) {
+      final int text = buffer.intern(i % 2 == 0 ? "even" : "odd");
+      buffer.add(MapDrawer.Shape.Text, 2, i, i, text, 1, 0, 0, 0, 0);
+    }
+
+    Assert.assertEquals(1000, buffer.size());
+    Assert.assertArrayEquals(new String[] {"even", "odd"}, buffer.getStrings());
+
+    final int[] shapes = buffer.getShapes();
+    final int last = 999 * ShapeBuffer.STRIDE;
+    Assert.assertEquals(MapDrawer.Shape.Text.ordinal(), shapes[last]);
+    Assert.assertEquals(999, shapes[last + 2]);
+    Assert.assertEquals(1, shapes[last + 4]);
+
+    buffer.clear();
+    Assert.assertEquals(0, buffer.size());
+    Assert.assertEquals(0, buffer.intern("odd"));
+  }
+}
@@ -0,0 +1,53 @@
+package org.openbw.bwapi4j;
+
+import java.nio.IntBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UnitDeltaDecoderTest {
+  private static final int UNIT_ID = 7;
+
+  private static int[] recordOf(final UnitDeltaDecoder decoder, final int unitId) {
+    final IntBuffer record = decoder.get(unitId);
+    final int[] values = new int[record.capacity()];
+    for (int i = 0; i < values.length; ++i) {
+      values[i] = record.get(i);
+    }
+    return values;
+  }
+
+  @Test
+  public void decodesFullPatchAndUnchangedEntries() {
+    final int[] full = new int[40];
+    for (int i = 0; i < full.length; ++i) {
+      full[i] = i;
+    }
+    final IntBuffer data = IntBuffer.allocate(100);
+    data.put(UNIT_ID).put(UnitDeltaDecoder.FULL).put(full.length).put(full);
+    /* Fields 3 and 35 changed: one bit in each of the two mask words. */
+    data.put(UNIT_ID).put(UnitDeltaDecoder.PATCH).put(1 << 3).put(1 << 3).put(-3).put(-35);
+    data.put(UNIT_ID).put(UnitDeltaDecoder.UNCHANGED);
+    final int end = data.position();
+
+    final UnitDeltaDecoder decoder = new UnitDeltaDecoder();
+
+    int index = decoder.decode(data, 0);
+    Assert.assertEquals(3 + full.length, index);
+    Assert.assertArrayEquals(full, recordOf(decoder, UNIT_ID));
+
+    index = decoder.decode(data, index);
+    full[3] = -3;
+    full[35] = -35;
+    Assert.assertArrayEquals(full, recordOf(decoder, UNIT_ID));
+
+    index = decoder.decode(data, index);
+    Assert.assertEquals(end, index);
+    Assert.assertArrayEquals(full, recordOf(decoder, UNIT_ID));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void rejectsPatchWithoutRecord() {
+    final IntBuffer data = IntBuffer.wrap(new int[] {UNIT_ID, UnitDeltaDecoder.PATCH, 1, 5});
+    new UnitDeltaDecoder().decode(data, 0);
+  }
+}
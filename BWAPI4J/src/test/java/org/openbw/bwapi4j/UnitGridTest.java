@@ -0,0 +1,176 @@
+package org.openbw.bwapi4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.unit.Unit;
+import org.openbw.bwapi4j.unit.UnitImpl;
+import org.openbw.bwapi4j.unit.UnitMock;
+
+public class UnitGridTest {
+  private static final int MAP_SIZE = 128 * TilePosition.SIZE_IN_PIXELS;
+
+  /* Left, up, right and down dimensions of a Marine, a Zealot and a Command Center. */
+  private static final int[][] DIMENSIONS = {{8, 9, 8, 10}, {11, 5, 11, 13}, {58, 41, 58, 41}};
+
+  private final SplittableRandom random = new SplittableRandom(42);
+
+  private List<UnitImpl> randomUnits(final UnitGrid grid, final int amount) {
+    final List<UnitImpl> units = new ArrayList<>();
+    for (int id = 0; id < amount; ++id) {
+      final UnitImpl unit = randomUnit(id);
+      grid.update(id, unit);
+      units.add(unit);
+    }
+    return units;
+  }
+
+  private UnitImpl randomUnit(final int id) {
+    final int[] dimensions = DIMENSIONS[this.random.nextInt(DIMENSIONS.length)];
+    return new UnitMock(
+        id,
+        UnitType.Terran_Marine,
+        randomPosition(),
+        dimensions[0],
+        dimensions[1],
+        dimensions[2],
+        dimensions[3]);
+  }
+
+  private Position randomPosition() {
+    return new Position(this.random.nextInt(MAP_SIZE), this.random.nextInt(MAP_SIZE));
+  }
+
+  @Test
+  public void radiusQueryMatchesBruteForce() {
+    final UnitGrid grid = new UnitGrid();
+    final List<UnitImpl> units = randomUnits(grid, 2000);
+
+    for (int i = 0; i < 50; ++i) {
+      final Position center = randomPosition();
+      final int radius = this.random.nextInt(600);
+
+      final List<Unit> expected = new ArrayList<>();
+      for (final UnitImpl unit : units) {
+        if (unit.getDistance(center) <= radius) {
+          expected.add(unit);
+        }
+      }
+
+      Assert.assertEquals(
+          new HashSet<>(expected), new HashSet<>(grid.getUnitsInRadius(center, radius, null)));
+    }
+  }
+
+  @Test
+  public void rectangleQueryRespectsBoundsAndFilter() {
+    final UnitGrid grid = new UnitGrid();
+    final List<UnitImpl> units = randomUnits(grid, 2000);
+    final Position topLeft = new Position(500, 700);
+    final Position bottomRight = new Position(1300, 900);
+
+    final List<Unit> expected = new ArrayList<>();
+    for (final UnitImpl unit : units) {
+      if (unit.getLeft() <= 1300
+          && unit.getRight() >= 500
+          && unit.getTop() <= 900
+          && unit.getBottom() >= 700
+          && unit.getId() % 2 == 0) {
+        expected.add(unit);
+      }
+    }
+
+    Assert.assertEquals(
+        new HashSet<>(expected),
+        new HashSet<>(grid.getUnitsInRectangle(topLeft, bottomRight, u -> u.getId() % 2 == 0)));
+  }
+
+  @Test
+  public void queriesUseUnitEdgesInNeighbouringBuckets() {
+    final UnitGrid grid = new UnitGrid();
+    /* A Command Center centered in the bucket right of x = 1024, its left edge at x = 966. */
+    final UnitImpl commandCenter =
+        new UnitMock(1, UnitType.Terran_Command_Center, new Position(1024, 500), 58, 41, 58, 41);
+    grid.update(1, commandCenter);
+
+    Assert.assertEquals(5, commandCenter.getDistance(new Position(960, 500)), 0);
+    Assert.assertEquals(
+        Collections.singletonList(commandCenter),
+        grid.getUnitsInRadius(new Position(960, 500), 5, null));
+    Assert.assertTrue(grid.getUnitsInRadius(new Position(960, 500), 4, null).isEmpty());
+
+    Assert.assertEquals(
+        Collections.singletonList(commandCenter),
+        grid.getUnitsInRectangle(new Position(900, 540), new Position(966, 600), null));
+    Assert.assertTrue(
+        grid.getUnitsInRectangle(new Position(900, 542), new Position(966, 600), null).isEmpty());
+
+    Assert.assertSame(commandCenter, grid.getClosestUnit(new Position(960, 500), null, 5));
+    Assert.assertNull(grid.getClosestUnit(new Position(960, 500), null, 4));
+  }
+
+  @Test
+  public void queriesWithBoundsBeyondTheIntRangeSpanTheWholeMap() {
+    final UnitGrid grid = new UnitGrid();
+    final UnitImpl topLeft =
+        new UnitMock(1, UnitType.Terran_Marine, new Position(8, 9), 8, 9, 8, 10);
+    final UnitImpl bottomRight =
+        new UnitMock(
+            2, UnitType.Terran_Marine, new Position(MAP_SIZE - 9, MAP_SIZE - 11), 8, 9, 8, 10);
+    grid.update(1, topLeft);
+    grid.update(2, bottomRight);
+    final Position center = new Position(MAP_SIZE / 2, MAP_SIZE / 2);
+
+    Assert.assertEquals(
+        new HashSet<>(Arrays.asList(topLeft, bottomRight)),
+        new HashSet<>(grid.getUnitsInRadius(center, Integer.MAX_VALUE, null)));
+    Assert.assertTrue(grid.getUnitsInRadius(center, Integer.MIN_VALUE, null).isEmpty());
+    Assert.assertEquals(
+        new HashSet<>(Arrays.asList(topLeft, bottomRight)),
+        new HashSet<>(
+            grid.getUnitsInRectangle(
+                new Position(Integer.MIN_VALUE, Integer.MIN_VALUE),
+                new Position(Integer.MAX_VALUE, Integer.MAX_VALUE),
+                null)));
+    Assert.assertNotNull(grid.getClosestUnit(center, null, Integer.MAX_VALUE));
+  }
+
+  @Test
+  public void closestUnitMatchesBruteForceAfterMovesAndRemovals() {
+    final UnitGrid grid = new UnitGrid();
+    final List<UnitImpl> units = randomUnits(grid, 500);
+
+    /* Move some units to other buckets and remove some. */
+    for (int id = 0; id < 100; ++id) {
+      final UnitImpl moved = randomUnit(id);
+      grid.update(id, moved);
+      units.set(id, moved);
+    }
+    for (int id = 100; id < 150; ++id) {
+      grid.remove(id);
+    }
+    final List<UnitImpl> remaining = new ArrayList<>(units.subList(0, 100));
+    remaining.addAll(units.subList(150, units.size()));
+
+    for (int i = 0; i < 50; ++i) {
+      final Position center = randomPosition();
+
+      int expectedDistance = Integer.MAX_VALUE;
+      for (final UnitImpl unit : remaining) {
+        expectedDistance = Math.min(expectedDistance, (int) unit.getDistance(center));
+      }
+
+      final Unit closest = grid.getClosestUnit(center, null, Integer.MAX_VALUE);
+      Assert.assertNotNull(closest);
+      Assert.assertEquals(expectedDistance, (int) closest.getDistance(center));
+    }
+
+    Assert.assertNull(grid.getClosestUnit(new Position(0, 0), u -> false, Integer.MAX_VALUE));
+  }
+}
@@ -0,0 +1,54 @@
+package org.openbw.bwapi4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import org.openbw.bwapi4j.type.UnitType;
+import org.openbw.bwapi4j.unit.UnitImpl;
+import org.openbw.bwapi4j.unit.UnitMock;
+
+public class UnitStoreTest {
+  @Test
+  public void keepsLiveUnitsCompactAfterRemoval() {
+    final UnitStore store = new UnitStore();
+    final UnitImpl first = new UnitMock(1, UnitType.Terran_Marine);
+    final UnitImpl second = new UnitMock(2, UnitType.Terran_Marine);
+    final UnitImpl third = new UnitMock(3, UnitType.Terran_Marine);
+    store.put(1, first);
+    store.put(2, second);
+    store.put(3, third);
+
+    store.removeById(1);
+
+    Assert.assertNull(store.getById(1));
+    Assert.assertSame(third, store.getById(3));
+    Assert.assertEquals(2, store.size());
+    Assert.assertTrue(store.containsAll(Arrays.asList(second, third)));
+
+    /* The moved unit must still be removable through its ID. */
+    store.removeById(3);
+    Assert.assertEquals(new ArrayList<>(Arrays.asList(second)), new ArrayList<>(store));
+  }
+
+  @Test
+  public void replacesUnitAndGrowsBeyondInitialCapacity() {
+    final UnitStore store = new UnitStore();
+    final UnitImpl tank = new UnitMock(5000, UnitType.Terran_Siege_Tank_Tank_Mode);
+    final UnitImpl lurker = new UnitMock(5000, UnitType.Zerg_Lurker);
+    store.put(5000, tank);
+    store.put(5000, lurker);
+
+    Assert.assertSame(lurker, store.getById(5000));
+    Assert.assertEquals(1, store.size());
+    Assert.assertNull(store.getById(-1));
+    Assert.assertNull(store.getById(100000));
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void isReadOnlyForUsers() {
+    final UnitStore store = new UnitStore();
+    store.put(1, new UnitMock(1, UnitType.Terran_Marine));
+    store.clear();
+  }
+}
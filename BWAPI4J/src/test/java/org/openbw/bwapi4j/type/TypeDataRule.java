@@ -0,0 +1,47 @@
+package org.openbw.bwapi4j.type;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.rules.ExternalResource;
+
+/**
+ * Sets type data that is only filled in by the bridge and restores the previous values after each
+ * test, so that other tests see the enum constants unchanged.
+ */
+public class TypeDataRule extends ExternalResource {
+  private final List<Change> changes = new ArrayList<>();
+
+  private static class Change {
+    private final Enum<?> type;
+    private final Field field;
+    private final Object previousValue;
+
+    Change(final Enum<?> type, final Field field, final Object previousValue) {
+      this.type = type;
+      this.field = field;
+      this.previousValue = previousValue;
+    }
+  }
+
+  public void set(final Enum<?> type, final String name, final Object value)
+      throws ReflectiveOperationException {
+    final Field field = type.getDeclaringClass().getDeclaredField(name);
+    field.setAccessible(true);
+    this.changes.add(new Change(type, field, field.get(type)));
+    field.set(type, value);
+  }
+
+  @Override
+  protected void after() {
+    for (int i = this.changes.size() - 1; i >= 0; --i) {
+      final Change change = this.changes.get(i);
+      try {
+        change.field.set(change.type, change.previousValue);
+      } catch (IllegalAccessException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+    this.changes.clear();
+  }
+}
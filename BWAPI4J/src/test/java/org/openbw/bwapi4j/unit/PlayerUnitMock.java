@@ -0,0 +1,22 @@
+package org.openbw.bwapi4j.unit;
+
+import org.openbw.bwapi4j.Player;
+import org.openbw.bwapi4j.type.UnitType;
+
+public class PlayerUnitMock extends PlayerUnitImpl {
+  public PlayerUnitMock(int id, UnitType unitType, Player player) {
+    this.iD = id;
+    this.type = unitType;
+    this.player = player;
+  }
+
+  /** Simulates a morph. */
+  public void setType(UnitType unitType) {
+    this.type = unitType;
+  }
+
+  /** Simulates a renegade. */
+  public void setPlayer(Player player) {
+    this.player = player;
+  }
+}
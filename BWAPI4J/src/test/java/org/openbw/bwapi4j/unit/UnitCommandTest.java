@@ -0,0 +1,57 @@
+package org.openbw.bwapi4j.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openbw.bwapi4j.BWMock;
+import org.openbw.bwapi4j.CommandBuffer;
+import org.openbw.bwapi4j.Position;
+import org.openbw.bwapi4j.RedundantCommandFilter;
+import org.openbw.bwapi4j.type.UnitCommandType;
+import org.openbw.bwapi4j.type.UnitType;
+
+public class UnitCommandTest {
+  private final BWMock bw = new BWMock();
+  private final CommandBuffer commandBuffer = bw.getCommandBuffer();
+  private final RedundantCommandFilter filter = bw.getRedundantCommandFilter();
+  private final UnitMock unit = new UnitMock(1, UnitType.Terran_Marine);
+  private final Position target = new Position(100, 200);
+
+  @Before
+  public void setup() {
+    unit.setBW(bw);
+    filter.setFrameWindow(10);
+    commandBuffer.setEnabled(true);
+  }
+
+  @Test
+  public void shouldSuppressRepeatedCommandAfterBatchedCommandWasAccepted() {
+    assertTrue(unit.move(target));
+    assertEquals(1, commandBuffer.flush());
+    assertEquals(UnitCommandType.Move, unit.lastCommand);
+
+    assertTrue(unit.move(target));
+
+    assertEquals(0, commandBuffer.size());
+    assertEquals(1, filter.getSuppressedCount());
+  }
+
+  @Test
+  public void shouldRetryBatchedCommandThatWasRejected() {
+    bw.setAcceptingCommands(false);
+    assertTrue(unit.move(target));
+    assertEquals(1, commandBuffer.flush());
+    assertNull(unit.lastCommand);
+
+    bw.setAcceptingCommands(true);
+    assertTrue(unit.move(target));
+    assertEquals(1, commandBuffer.flush());
+
+    assertEquals(2, bw.getIssuedCommandCount());
+    assertEquals(0, filter.getSuppressedCount());
+    assertEquals(UnitCommandType.Move, unit.lastCommand);
+  }
+}
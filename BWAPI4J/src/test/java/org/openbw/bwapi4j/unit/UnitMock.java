@@ -1,10 +1,66 @@
 package org.openbw.bwapi4j.unit;
 
+import org.openbw.bwapi4j.Position;
 import org.openbw.bwapi4j.type.UnitType;
 
 public class UnitMock extends UnitImpl {
+  /* UnitType dimensions are only filled in by the bridge, so they can be given explicitly. */
+  private int dimensionLeft = -1;
+  private int dimensionUp = -1;
+  private int dimensionRight = -1;
+  private int dimensionDown = -1;
+
   public UnitMock(int id, UnitType unitType) {
     this.iD = id;
     this.type = unitType;
   }
+
+  /** Creates a unit that exists at the given position in frame 0. */
+  public UnitMock(int id, UnitType unitType, Position position) {
+    this(id, unitType);
+    this.position = position;
+    this.exists = true;
+    setLastUpdatedFrame(0);
+  }
+
+  /** Creates a unit with the given dimensions that exists at the given position in frame 0. */
+  public UnitMock(
+      int id,
+      UnitType unitType,
+      Position position,
+      int dimensionLeft,
+      int dimensionUp,
+      int dimensionRight,
+      int dimensionDown) {
+    this(id, unitType, position);
+    this.dimensionLeft = dimensionLeft;
+    this.dimensionUp = dimensionUp;
+    this.dimensionRight = dimensionRight;
+    this.dimensionDown = dimensionDown;
+  }
+
+  @Override
+  public int getLeft() {
+    return this.dimensionLeft < 0 ? super.getLeft() : getX() - this.dimensionLeft;
+  }
+
+  @Override
+  public int getTop() {
+    return this.dimensionUp < 0 ? super.getTop() : getY() - this.dimensionUp;
+  }
+
+  @Override
+  public int getRight() {
+    return this.dimensionRight < 0 ? super.getRight() : getX() + this.dimensionRight;
+  }
+
+  @Override
+  public int getBottom() {
+    return this.dimensionDown < 0 ? super.getBottom() : getY() + this.dimensionDown;
+  }
+
+  @Override
+  protected int getCurrentFrame() {
+    return 0;
+  }
 }
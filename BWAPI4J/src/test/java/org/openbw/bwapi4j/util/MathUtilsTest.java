@@ -0,0 +1,47 @@
+package org.openbw.bwapi4j.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.openbw.bwapi4j.Position;
+
+public class MathUtilsTest {
+  @Test
+  public void packRoundTripsNegativeCoordinates() {
+    final long packed = MathUtils.pack(-5, -7);
+
+    Assert.assertEquals(-5, MathUtils.packedX(packed));
+    Assert.assertEquals(-7, MathUtils.packedY(packed));
+  }
+
+  @Test
+  public void packedArithmeticMatchesPosition() {
+    final Position a = new Position(100, 37);
+    final Position b = new Position(-3, 250);
+    final long packedA = MathUtils.pack(a.getX(), a.getY());
+    final long packedB = MathUtils.pack(b.getX(), b.getY());
+
+    final long sum = MathUtils.packedAdd(packedA, packedB);
+    final long difference = MathUtils.packedSubtract(packedA, packedB);
+
+    Assert.assertEquals(a.add(b), new Position(MathUtils.packedX(sum), MathUtils.packedY(sum)));
+    Assert.assertEquals(
+        a.subtract(b),
+        new Position(MathUtils.packedX(difference), MathUtils.packedY(difference)));
+    Assert.assertEquals(a.getDistance(b), MathUtils.packedEstimateDistance(packedA, packedB));
+  }
+
+  @Test
+  public void packedConversionsMatchPosition() {
+    final Position position = new Position(100, 37);
+    final long packed = MathUtils.pack(position.getX(), position.getY());
+
+    final long tile = MathUtils.packedPixelToTile(packed);
+    final long walk = MathUtils.packedPixelToWalk(packed);
+
+    Assert.assertEquals(position.toTilePosition().getX(), MathUtils.packedX(tile));
+    Assert.assertEquals(position.toTilePosition().getY(), MathUtils.packedY(tile));
+    Assert.assertEquals(position.toWalkPosition().getX(), MathUtils.packedX(walk));
+    Assert.assertEquals(position.toWalkPosition().getY(), MathUtils.packedY(walk));
+    Assert.assertEquals(MathUtils.pack(96, 32), MathUtils.packedTileToPixel(tile));
+  }
+}
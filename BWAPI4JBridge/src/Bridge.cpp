@@ -19,7 +19,9 @@
 ////////////////////////////////////////////////////////////////////////////////
 
 #include <chrono>
+#include <cstdint>
 #include <thread>
+#include <vector>
 
 #include <stdio.h>
 
@@ -123,101 +125,73 @@ JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_BW_startGame(JNIEnv *env, jobject
 #endif
 }
 
-JNIEXPORT jintArray JNICALL Java_org_openbw_bwapi4j_BW_getAllBulletsData(JNIEnv *env, jobject) {
+namespace {
+// Fills the shared data buffer and copies the result into a newly allocated Java array.
+template <typename Fill>
+jintArray toIntArray(JNIEnv *env, Fill fill) {
   Bridge::Globals::dataBuffer.reset();
-
-  for (BWAPI::Bullet bullet : BWAPI::Broodwar->getBullets()) {
-    Bridge::Globals::dataBuffer.addFields(bullet);
-  }
+  fill();
 
   jintArray result = env->NewIntArray(Bridge::Globals::dataBuffer.getIndex());
   env->SetIntArrayRegion(result, 0, Bridge::Globals::dataBuffer.getIndex(), Bridge::Globals::dataBuffer.intBuf);
   return result;
 }
 
-JNIEXPORT jintArray JNICALL Java_org_openbw_bwapi4j_BW_getAllUnitsData(JNIEnv *env, jobject) {
-  Bridge::Globals::dataBuffer.reset();
-
-  for (const auto &unit : BWAPI::Broodwar->getAllUnits()) {
-    Bridge::Globals::dataBuffer.addFields(unit);
+// Writes straight into the direct buffer registered by Java. Returns the number of ints written or -1 if they did not fit.
+template <typename Fill>
+jint toFrameBuffer(Fill fill) {
+  if (Bridge::Globals::frameBuffer == nullptr) {
+    LOGGER("error: no frame buffer registered.");
+    return -1;
   }
 
-  jintArray result = env->NewIntArray(Bridge::Globals::dataBuffer.getIndex());
-  env->SetIntArrayRegion(result, 0, Bridge::Globals::dataBuffer.getIndex(), Bridge::Globals::dataBuffer.intBuf);
-  return result;
+  Bridge::Globals::dataBuffer.attach(Bridge::Globals::frameBuffer, Bridge::Globals::frameBufferCapacity);
+  fill();
+  const jint size = Bridge::Globals::dataBuffer.overflowed() ? -1 : Bridge::Globals::dataBuffer.getIndex();
+  Bridge::Globals::dataBuffer.detach();
+
+  return size;
 }
 
-JNIEXPORT jintArray JNICALL Java_org_openbw_bwapi4j_BW_getAllPlayersData(JNIEnv *env, jobject) {
-  Bridge::Globals::dataBuffer.reset();
+// Adds a length-prefixed section so the Java side can find the start of the next one without decoding this one.
+template <typename Fill>
+void addSection(Fill fill) {
+  const int lengthIndex = Bridge::Globals::dataBuffer.getIndex();
+  Bridge::Globals::dataBuffer.add(0);
+  fill();
+  Bridge::Globals::dataBuffer.set(lengthIndex, Bridge::Globals::dataBuffer.getIndex() - lengthIndex - 1);
+}
 
-  for (const auto &player : BWAPI::Broodwar->getPlayers()) {
+bool isReportedPlayer(const BWAPI::Player &player) {
 #ifdef OPENBW
-    // TODO: Determine if this test has any significance or if it can be removed.
-    if (player->getID() != -1) {
-      Bridge::Globals::dataBuffer.addFields(player);
-    }
+  // TODO: Determine if this test has any significance or if it can be removed.
+  return player->getID() != -1;
 #else
-    Bridge::Globals::dataBuffer.addFields(player);
+  return true;
 #endif
-  }
-
-  jintArray result = env->NewIntArray(Bridge::Globals::dataBuffer.getIndex());
-  env->SetIntArrayRegion(result, 0, Bridge::Globals::dataBuffer.getIndex(), Bridge::Globals::dataBuffer.intBuf);
-  return result;
 }
 
-JNIEXPORT jint JNICALL Java_org_openbw_bwapi4j_BW_getClientVersion(JNIEnv *, jobject) { return (jint)BWAPI::Broodwar->getClientVersion(); }
-
-JNIEXPORT jstring JNICALL Java_org_openbw_bwapi4j_BW_getPlayerName(JNIEnv *env, jobject, jint playerID) {
-  // NewStringUTF can cause issues with unusual characters like Korean symbols
-  return env->NewStringUTF(BWAPI::Broodwar->getPlayer(playerID)->getName().c_str());
-  /* alternatively, use byte array:
-  std::string str = BWAPI::Broodwar->getPlayer(playerID)->getName();
-  jbyteArray jbArray = env->NewByteArray(str.length());
-  env->SetByteArrayRegion(jbArray, 0, str.length(), (jbyte*)str.c_str());
-
-  return jbArray;
-  */
-}
-
-// TODO: Refactor to be one call for all players.
-JNIEXPORT jintArray JNICALL Java_org_openbw_bwapi4j_BW_getPlayerExtra(JNIEnv *env, jobject, jint playerID) {
-  Bridge::Globals::dataBuffer.reset();
-
-  const auto &player = BWAPI::Broodwar->getPlayer(playerID);
-
-  const auto &upgradeTypes = BWAPI::UpgradeTypes::allUpgradeTypes();
-  Bridge::Globals::dataBuffer.add(upgradeTypes.size());
-  for (const auto &upgradeType : upgradeTypes) {
-    Bridge::Globals::dataBuffer.addId(upgradeType);
-    Bridge::Globals::dataBuffer.add(player->getUpgradeLevel(upgradeType));
-    Bridge::Globals::dataBuffer.add(player->isUpgrading(upgradeType));
+void addAllBulletsData() {
+  for (BWAPI::Bullet bullet : BWAPI::Broodwar->getBullets()) {
+    Bridge::Globals::dataBuffer.addFields(bullet);
   }
+}
 
-  const auto &techTypes = BWAPI::TechTypes::allTechTypes();
-  Bridge::Globals::dataBuffer.add(techTypes.size());
-  for (const auto &techType : techTypes) {
-    Bridge::Globals::dataBuffer.addId(techType);
-    Bridge::Globals::dataBuffer.add(player->hasResearched(techType));
-    Bridge::Globals::dataBuffer.add(player->isResearching(techType));
+void addAllUnitsData() {
+  for (const auto &unit : BWAPI::Broodwar->getAllUnits()) {
+    Bridge::Globals::unitDeltaEncoder.addUnit(Bridge::Globals::dataBuffer, unit);
   }
+}
 
-  if (BWAPI::Broodwar->isReplay()) {
-    Bridge::Globals::dataBuffer.add(DataBuffer::NO_VALUE);
-    Bridge::Globals::dataBuffer.add(DataBuffer::NO_VALUE);
-  } else {
-    Bridge::Globals::dataBuffer.add(player->getID() == BWAPI::Broodwar->self()->getID() || player->isAlly(BWAPI::Broodwar->self()));
-    Bridge::Globals::dataBuffer.add(player->getID() != BWAPI::Broodwar->self()->getID() && player->isEnemy(BWAPI::Broodwar->self()));
+void addAllPlayersData() {
+  for (const auto &player : BWAPI::Broodwar->getPlayers()) {
+    if (isReportedPlayer(player)) {
+      Bridge::Globals::dataBuffer.addFields(player);
+    }
   }
-
-  jintArray result = env->NewIntArray(Bridge::Globals::dataBuffer.getIndex());
-  env->SetIntArrayRegion(result, 0, Bridge::Globals::dataBuffer.getIndex(), Bridge::Globals::dataBuffer.intBuf);
-  return result;
 }
 
-JNIEXPORT jintArray JNICALL Java_org_openbw_bwapi4j_BW_getGameData(JNIEnv *env, jobject) {
-  Bridge::Globals::dataBuffer.reset();
-
+void addGameData() {
   Bridge::Globals::dataBuffer.addFields(BWAPI::Broodwar->getScreenPosition());
 
 #ifdef OPENBW
@@ -242,10 +216,99 @@ JNIEXPORT jintArray JNICALL Java_org_openbw_bwapi4j_BW_getGameData(JNIEnv *env,
   Bridge::Globals::dataBuffer.add(BWAPI::Broodwar->getAPM(true));
   Bridge::Globals::dataBuffer.addId(BWAPI::Broodwar->self());
   Bridge::Globals::dataBuffer.addId(BWAPI::Broodwar->enemy());
+}
 
-  jintArray result = env->NewIntArray(Bridge::Globals::dataBuffer.getIndex());
-  env->SetIntArrayRegion(result, 0, Bridge::Globals::dataBuffer.getIndex(), Bridge::Globals::dataBuffer.intBuf);
-  return result;
+void addAllPlayerExtras() {
+  for (const auto &player : BWAPI::Broodwar->getPlayers()) {
+    if (isReportedPlayer(player)) {
+      Bridge::Globals::dataBuffer.addId(player);
+      addSection([&] { Bridge::Globals::playerExtraEncoder.addPlayer(Bridge::Globals::dataBuffer, player); });
+    }
+  }
+}
+
+// Sections in order: game, players, player extras, units, bullets.
+void addFrameSnapshot() {
+  addSection(addGameData);
+  addSection(addAllPlayersData);
+  addSection(addAllPlayerExtras);
+  addSection(addAllUnitsData);
+  addSection(addAllBulletsData);
+
+  if (Bridge::Globals::dataBuffer.overflowed()) {
+    // Java drops this snapshot, so what the encoders remember as sent is no longer in sync.
+    Bridge::Globals::unitDeltaEncoder.clear();
+    Bridge::Globals::playerExtraEncoder.reset();
+  }
+}
+}  // namespace
+
+JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_BW_registerFrameBuffer(JNIEnv *env, jobject, jobject buffer) {
+  Bridge::Globals::frameBuffer = static_cast<jint *>(env->GetDirectBufferAddress(buffer));
+  Bridge::Globals::frameBufferCapacity = static_cast<size_t>(env->GetDirectBufferCapacity(buffer));
+}
+
+JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_BW_resetDeltaRecords(JNIEnv *, jobject, jboolean unitDeltaEncoding) {
+  Bridge::Globals::unitDeltaEncoder.reset(unitDeltaEncoding == JNI_TRUE);
+  Bridge::Globals::playerExtraEncoder.reset();
+}
+
+JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_BW_setEventBatching(JNIEnv *, jobject, jboolean eventBatching) {
+  Bridge::Globals::callbacks.eventBatching = eventBatching == JNI_TRUE;
+}
+
+JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_BW_setEventMask(JNIEnv *, jobject, jint eventMask) { Bridge::Globals::callbacks.eventMask = eventMask; }
+
+JNIEXPORT jintArray JNICALL Java_org_openbw_bwapi4j_BW_getFrameSnapshot(JNIEnv *env, jobject) { return toIntArray(env, addFrameSnapshot); }
+
+JNIEXPORT jint JNICALL Java_org_openbw_bwapi4j_BW_getFrameSnapshotDirect(JNIEnv *, jobject) { return toFrameBuffer(addFrameSnapshot); }
+
+JNIEXPORT jint JNICALL Java_org_openbw_bwapi4j_BW_issueCommands(JNIEnv *env, jobject, jintArray commands, jint count, jlongArray successes) {
+  // Each command is unitId, commandTypeId, targetUnitId, x, y, extra.
+  const int FIELDS = 6;
+
+  std::vector<jlong> words((count + 63) / 64, 0);
+  auto lastError = BWAPI::Errors::None;
+  jint *data = env->GetIntArrayElements(commands, nullptr);
+  for (int i = 0; i < count; ++i) {
+    const jint *command = data + i * FIELDS;
+    BWAPI::Unit unit = BWAPI::Broodwar->getUnit(command[0]);
+    if (!unit) {
+      lastError = BWAPI::Errors::Unit_Does_Not_Exist;
+      continue;
+    }
+
+    BWAPI::UnitCommand c = BWAPI::UnitCommand();
+    c.unit = unit;
+    c.type = command[1];
+    c.target = BWAPI::Broodwar->getUnit(command[2]);
+    c.x = command[3];
+    c.y = command[4];
+    c.extra = command[5];
+    if (unit->issueCommand(c)) {
+      words[i >> 6] |= static_cast<jlong>(static_cast<uint64_t>(1) << (i & 63));
+    } else {
+      lastError = BWAPI::Broodwar->getLastError();
+    }
+  }
+  env->ReleaseIntArrayElements(commands, data, JNI_ABORT);
+
+  env->SetLongArrayRegion(successes, 0, static_cast<jsize>(words.size()), words.data());
+  return (jint)lastError.getID();
+}
+
+JNIEXPORT jint JNICALL Java_org_openbw_bwapi4j_BW_getClientVersion(JNIEnv *, jobject) { return (jint)BWAPI::Broodwar->getClientVersion(); }
+
+JNIEXPORT jstring JNICALL Java_org_openbw_bwapi4j_BW_getPlayerName(JNIEnv *env, jobject, jint playerID) {
+  // NewStringUTF can cause issues with unusual characters like Korean symbols
+  return env->NewStringUTF(BWAPI::Broodwar->getPlayer(playerID)->getName().c_str());
+  /* alternatively, use byte array:
+  std::string str = BWAPI::Broodwar->getPlayer(playerID)->getName();
+  jbyteArray jbArray = env->NewByteArray(str.length());
+  env->SetByteArrayRegion(jbArray, 0, str.length(), (jbyte*)str.c_str());
+
+  return jbArray;
+  */
 }
 
 JNIEXPORT jintArray JNICALL Java_org_openbw_bwapi4j_BW_getUpgradeTypesData(JNIEnv *env, jobject) {
@@ -20,12 +20,24 @@
 
 #include "BridgeMap.h"
 
+#include <cstdint>
+#include <vector>
+
 #include <BWAPI.h>
 
 #include "Globals.h"
 #include "Logger.h"
 #include "org_openbw_bwapi4j_BWMapImpl.h"
 
+namespace {
+const uint8_t CREEP = 1;
+const uint8_t POWER = 2;
+const int CHANGED_SHIFT = 2;
+
+// Creep and power flags per tile as last sent to Java by getCreepAndPowerChanges_native.
+std::vector<uint8_t> sentCreepAndPower;
+}  // namespace
+
 template <typename F>
 void setJava2DIntArray(JNIEnv *env, jclass javaRef, jobject targetObject, const std::string &targetVariableName, const int maxX, const int maxY, F func) {
   auto data = env->NewObjectArray(maxX, env->GetObjectClass(env->NewIntArray(maxY)), 0);
@@ -90,18 +102,6 @@ void BridgeMap::initialize(JNIEnv *env, jobject bw, const JavaRefs &javaRefs) {
   LOGGER("Reading map information... done");
 }
 
-JNIEXPORT jint JNICALL Java_org_openbw_bwapi4j_BWMapImpl__1isBuildable(JNIEnv *, jobject, jint tileX, jint tileY, jboolean considerBuildings) {
-  return BWAPI::Broodwar->isBuildable(tileX, tileY, considerBuildings) ? 1 : 0;
-}
-
-JNIEXPORT jint JNICALL Java_org_openbw_bwapi4j_BWMapImpl__1isExplored(JNIEnv *, jobject, jint tileX, jint tileY) {
-  return BWAPI::Broodwar->isExplored(tileX, tileY) ? 1 : 0;
-}
-
-JNIEXPORT jint JNICALL Java_org_openbw_bwapi4j_BWMapImpl__1isVisible(JNIEnv *, jobject, jint tileX, jint tileY) {
-  return BWAPI::Broodwar->isVisible(tileX, tileY) ? 1 : 0;
-}
-
 JNIEXPORT jint JNICALL Java_org_openbw_bwapi4j_BWMapImpl__1hasPath(JNIEnv *, jobject, jint x1, jint y1, jint x2, jint y2) {
   return BWAPI::Broodwar->hasPath(BWAPI::Position(x1, y1), BWAPI::Position(x2, y2)) ? 1 : 0;
 }
@@ -114,28 +114,49 @@ JNIEXPORT jint JNICALL Java_org_openbw_bwapi4j_BWMapImpl__1canBuildHere__IIII(JN
   return BWAPI::Broodwar->canBuildHere(BWAPI::TilePosition(x, y), (BWAPI::UnitType)typeId, BWAPI::Broodwar->getUnit(builderId)) ? 1 : 0;
 }
 
-JNIEXPORT jintArray JNICALL Java_org_openbw_bwapi4j_BWMapImpl_getCreepData_1native(JNIEnv *env, jobject) {
-  Bridge::Globals::dataBuffer.reset();
+JNIEXPORT jlongArray JNICALL Java_org_openbw_bwapi4j_BWMapImpl__1canBuildHereAll(JNIEnv *env, jobject, jintArray positions, jint typeId, jint builderId) {
+  const jsize candidateCount = env->GetArrayLength(positions) / 2;
+  const auto type = static_cast<BWAPI::UnitType>(typeId);
+  const auto builder = builderId < 0 ? nullptr : BWAPI::Broodwar->getUnit(builderId);
 
-  for (int tileX = 0; tileX < BWAPI::Broodwar->mapWidth(); ++tileX) {
-    for (int tileY = 0; tileY < BWAPI::Broodwar->mapHeight(); ++tileY) {
-      const auto currentTilePosition = BWAPI::TilePosition(tileX, tileY);
-      Bridge::Globals::dataBuffer.add(BWAPI::Broodwar->hasCreep(currentTilePosition));
+  std::vector<jlong> words((candidateCount + 63) / 64, 0);
+  jint *xy = env->GetIntArrayElements(positions, nullptr);
+  for (jsize i = 0; i < candidateCount; ++i) {
+    if (BWAPI::Broodwar->canBuildHere(BWAPI::TilePosition(xy[2 * i], xy[2 * i + 1]), type, builder)) {
+      words[i >> 6] |= static_cast<jlong>(static_cast<uint64_t>(1) << (i & 63));
     }
   }
+  env->ReleaseIntArrayElements(positions, xy, JNI_ABORT);
 
-  jintArray result = env->NewIntArray(Bridge::Globals::dataBuffer.getIndex());
-  env->SetIntArrayRegion(result, 0, Bridge::Globals::dataBuffer.getIndex(), Bridge::Globals::dataBuffer.intBuf);
+  jlongArray result = env->NewLongArray(static_cast<jsize>(words.size()));
+  env->SetLongArrayRegion(result, 0, static_cast<jsize>(words.size()), words.data());
   return result;
 }
 
-JNIEXPORT jintArray JNICALL Java_org_openbw_bwapi4j_BWMapImpl_getPylonPowerData_1native(JNIEnv *env, jobject) {
+JNIEXPORT jintArray JNICALL Java_org_openbw_bwapi4j_BWMapImpl_getCreepAndPowerChanges_1native(JNIEnv *env, jobject, jboolean reset) {
+  const int mapTileWidth = BWAPI::Broodwar->mapWidth();
+  const int mapTileHeight = BWAPI::Broodwar->mapHeight();
+  const auto tileCount = static_cast<size_t>(mapTileWidth * mapTileHeight);
+
+  // Without a remembered state every tile with creep or power is sent, which yields the full grid.
+  if (reset || sentCreepAndPower.size() != tileCount) {
+    sentCreepAndPower.assign(tileCount, 0);
+  }
+
   Bridge::Globals::dataBuffer.reset();
 
-  for (int tileX = 0; tileX < BWAPI::Broodwar->mapWidth(); ++tileX) {
-    for (int tileY = 0; tileY < BWAPI::Broodwar->mapHeight(); ++tileY) {
+  int tile = 0;
+  for (int tileX = 0; tileX < mapTileWidth; ++tileX) {
+    for (int tileY = 0; tileY < mapTileHeight; ++tileY) {
       const auto currentTilePosition = BWAPI::TilePosition(tileX, tileY);
-      Bridge::Globals::dataBuffer.add(BWAPI::Broodwar->hasPower(currentTilePosition));
+      const uint8_t state = (BWAPI::Broodwar->hasCreep(currentTilePosition) ? CREEP : 0) | (BWAPI::Broodwar->hasPower(currentTilePosition) ? POWER : 0);
+      if (state != sentCreepAndPower[tile]) {
+        // The new state and, shifted by CHANGED_SHIFT, which of its flags changed.
+        Bridge::Globals::dataBuffer.add(tile);
+        Bridge::Globals::dataBuffer.add(state | ((state ^ sentCreepAndPower[tile]) << CHANGED_SHIFT));
+        sentCreepAndPower[tile] = state;
+      }
+      ++tile;
     }
   }
 
@@ -143,3 +164,27 @@ JNIEXPORT jintArray JNICALL Java_org_openbw_bwapi4j_BWMapImpl_getPylonPowerData_
   env->SetIntArrayRegion(result, 0, Bridge::Globals::dataBuffer.getIndex(), Bridge::Globals::dataBuffer.intBuf);
   return result;
 }
+
+JNIEXPORT jlongArray JNICALL Java_org_openbw_bwapi4j_BWMapImpl_getTileStateData_1native(JNIEnv *env, jobject) {
+  const int mapTileWidth = BWAPI::Broodwar->mapWidth();
+  const int mapTileHeight = BWAPI::Broodwar->mapHeight();
+  const int wordCount = (mapTileWidth * mapTileHeight + 63) / 64;
+
+  // Three bitsets of wordCount words each: visible, explored, buildable considering buildings.
+  std::vector<jlong> words(3 * wordCount, 0);
+  int bit = 0;
+  for (int tileX = 0; tileX < mapTileWidth; ++tileX) {
+    for (int tileY = 0; tileY < mapTileHeight; ++tileY) {
+      const auto mask = static_cast<jlong>(static_cast<uint64_t>(1) << (bit & 63));
+      const int word = bit >> 6;
+      if (BWAPI::Broodwar->isVisible(tileX, tileY)) words[word] |= mask;
+      if (BWAPI::Broodwar->isExplored(tileX, tileY)) words[wordCount + word] |= mask;
+      if (BWAPI::Broodwar->isBuildable(tileX, tileY, true)) words[2 * wordCount + word] |= mask;
+      ++bit;
+    }
+  }
+
+  jlongArray result = env->NewLongArray(static_cast<jsize>(words.size()));
+  env->SetLongArrayRegion(result, 0, static_cast<jsize>(words.size()), words.data());
+  return result;
+}
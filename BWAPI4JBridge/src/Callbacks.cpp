@@ -19,8 +19,39 @@
 ////////////////////////////////////////////////////////////////////////////////
 
 #include "Callbacks.h"
+#include "Globals.h"
 #include "Logger.h"
 
+namespace {
+// Codes of the events delivered in one batch, matching the ordinals of org.openbw.bwapi4j.EventType.
+namespace EventCode {
+enum Enum {
+  MatchStart,
+  MatchEnd,
+  MatchFrame,
+  SendText,
+  ReceiveText,
+  PlayerLeft,
+  NukeDetect,
+  UnitDiscover,
+  UnitEvade,
+  UnitShow,
+  UnitHide,
+  UnitCreate,
+  UnitDestroy,
+  UnitMorph,
+  UnitRenegade,
+  SaveGame,
+  UnitComplete
+};
+}
+
+int addText(std::vector<std::string> &texts, const std::string &text) {
+  texts.push_back(text);
+  return static_cast<int>(texts.size()) - 1;
+}
+}  // namespace
+
 void Callbacks::initialize(JNIEnv *env, jclass bwClass) {
   LOGGER("Initializing callbacks...");
 
@@ -42,11 +73,27 @@ void Callbacks::initialize(JNIEnv *env, jclass bwClass) {
   onUnitRenegadeCallback = env->GetMethodID(bwClass, "onUnitRenegade", "(I)V");
   onUnitCompleteCallback = env->GetMethodID(bwClass, "onUnitComplete", "(I)V");
   onSaveGameCallback = env->GetMethodID(bwClass, "onSaveGame", "(Ljava/lang/String;)V");
+  onEventsCallback = env->GetMethodID(bwClass, "onEvents", "([I[Ljava/lang/String;)V");
+
+  jclass localStringClass = env->FindClass("java/lang/String");
+  stringClass = static_cast<jclass>(env->NewGlobalRef(localStringClass));
+  env->DeleteLocalRef(localStringClass);
 
   LOGGER("Initializing callbacks... done");
 }
 
 void Callbacks::processEvents(JNIEnv *env, jobject bw, const std::list<BWAPI::Event> &events) {
+  if (eventBatching) {
+    processEventsBatched(env, bw, events);
+  } else {
+    processEventsSeparately(env, bw, events);
+  }
+
+  // Retained overlay layers are drawn every frame without any call into Java.
+  Bridge::Globals::overlayLayers.draw();
+}
+
+void Callbacks::processEventsSeparately(JNIEnv *env, jobject bw, const std::list<BWAPI::Event> &events) {
   env->CallObjectMethod(bw, preFrameCallback);
 
   for (const auto &event : events) {
@@ -96,6 +143,7 @@ void Callbacks::processEvents(JNIEnv *env, jobject bw, const std::list<BWAPI::Ev
         env->CallObjectMethod(bw, onUnitCreateCallback, event.getUnit()->getID());
       } break;
       case BWAPI::EventType::UnitDestroy: {
+        Bridge::Globals::unitDeltaEncoder.remove(event.getUnit()->getID());
         env->CallObjectMethod(bw, onUnitDestroyCallback, event.getUnit()->getID());
       } break;
       case BWAPI::EventType::UnitMorph: {
@@ -115,3 +163,117 @@ void Callbacks::processEvents(JNIEnv *env, jobject bw, const std::list<BWAPI::Ev
     }
   }
 }
+
+void Callbacks::processEventsBatched(JNIEnv *env, jobject bw, const std::list<BWAPI::Event> &events) {
+  eventData.clear();
+  eventTexts.clear();
+
+  for (const auto &event : events) {
+    int code;
+    int id = 0;
+    int text = -1;
+    switch (event.getType()) {
+#ifdef OPENBW
+      case BWAPI::EventType::MatchStart:
+        code = EventCode::MatchStart;
+        break;
+#endif
+      case BWAPI::EventType::MatchEnd:
+        code = EventCode::MatchEnd;
+        id = event.isWinner() ? 1 : 0;
+        break;
+#ifndef OPENBW
+      case BWAPI::EventType::MatchFrame:
+        code = EventCode::MatchFrame;
+        break;
+#endif
+      case BWAPI::EventType::SendText:
+        code = EventCode::SendText;
+        text = addText(eventTexts, event.getText());
+        break;
+      case BWAPI::EventType::ReceiveText:
+        code = EventCode::ReceiveText;
+        id = event.getPlayer()->getID();
+        text = addText(eventTexts, event.getText());
+        break;
+      case BWAPI::EventType::PlayerLeft:
+        code = EventCode::PlayerLeft;
+        id = event.getPlayer()->getID();
+        break;
+      case BWAPI::EventType::NukeDetect:
+        code = EventCode::NukeDetect;
+        break;
+      case BWAPI::EventType::UnitDiscover:
+        code = EventCode::UnitDiscover;
+        id = event.getUnit()->getID();
+        break;
+      case BWAPI::EventType::UnitEvade:
+        code = EventCode::UnitEvade;
+        id = event.getUnit()->getID();
+        break;
+      case BWAPI::EventType::UnitShow:
+        code = EventCode::UnitShow;
+        id = event.getUnit()->getID();
+        break;
+      case BWAPI::EventType::UnitHide:
+        code = EventCode::UnitHide;
+        id = event.getUnit()->getID();
+        break;
+      case BWAPI::EventType::UnitCreate:
+        code = EventCode::UnitCreate;
+        id = event.getUnit()->getID();
+        break;
+      case BWAPI::EventType::UnitDestroy:
+        code = EventCode::UnitDestroy;
+        id = event.getUnit()->getID();
+        Bridge::Globals::unitDeltaEncoder.remove(id);
+        break;
+      case BWAPI::EventType::UnitMorph:
+        code = EventCode::UnitMorph;
+        id = event.getUnit()->getID();
+        break;
+      case BWAPI::EventType::UnitRenegade:
+        code = EventCode::UnitRenegade;
+        id = event.getUnit()->getID();
+        break;
+      case BWAPI::EventType::SaveGame:
+        code = EventCode::SaveGame;
+        text = addText(eventTexts, event.getText());
+        break;
+      case BWAPI::EventType::UnitComplete:
+        code = EventCode::UnitComplete;
+        id = event.getUnit()->getID();
+        break;
+      default:
+        continue;
+    }
+    if ((eventMask & (1 << code)) == 0) {
+      continue;
+    }
+    eventData.push_back(code);
+    eventData.push_back(id);
+    eventData.push_back(event.getPosition().x);
+    eventData.push_back(event.getPosition().y);
+    eventData.push_back(text);
+  }
+
+  jintArray eventArray = env->NewIntArray(static_cast<jsize>(eventData.size()));
+  env->SetIntArrayRegion(eventArray, 0, static_cast<jsize>(eventData.size()), eventData.data());
+
+  jobjectArray textArray = nullptr;
+  if (!eventTexts.empty()) {
+    textArray = env->NewObjectArray(static_cast<jsize>(eventTexts.size()), stringClass, nullptr);
+    for (size_t i = 0; i < eventTexts.size(); ++i) {
+      jstring string = env->NewStringUTF(eventTexts[i].c_str());
+      env->SetObjectArrayElement(textArray, static_cast<jsize>(i), string);
+      env->DeleteLocalRef(string);
+    }
+  }
+
+  env->CallObjectMethod(bw, onEventsCallback, eventArray, textArray);
+
+  env->DeleteLocalRef(eventArray);
+  if (textArray != nullptr) {
+    env->DeleteLocalRef(textArray);
+  }
+}
@@ -21,6 +21,8 @@
 #pragma once
 
 #include <list>
+#include <string>
+#include <vector>
 
 #include <BWAPI.h>
 #include <jni.h>
@@ -44,8 +46,22 @@ struct Callbacks {
   jmethodID onUnitRenegadeCallback;
   jmethodID onUnitCompleteCallback;
   jmethodID onSaveGameCallback;
+  jmethodID onEventsCallback;
+  jclass stringClass;
+
+  bool eventBatching = false;
+  // Events sent while batching, as a bit mask over the event codes.
+  int eventMask = ~0;
 
   void initialize(JNIEnv *, jclass);
 
   void processEvents(JNIEnv *, jobject, const std::list<BWAPI::Event> &);
+
+ private:
+  std::vector<jint> eventData;
+  std::vector<std::string> eventTexts;
+
+  void processEventsSeparately(JNIEnv *, jobject, const std::list<BWAPI::Event> &);
+
+  void processEventsBatched(JNIEnv *, jobject, const std::list<BWAPI::Event> &);
 };
@@ -40,7 +40,7 @@ const double DataBuffer::RADIANS_TO_DEGREES = 180.0 / M_PI;
 const double DataBuffer::DECIMAL_PRESERVATION_SCALE = 100.0;
 const int DataBuffer::NO_VALUE = -1;
 
-DataBuffer::DataBuffer() : _index(0) {
+DataBuffer::DataBuffer() : _index(0), _target(intBuf), _capacity(INT_BUF_SIZE) {
   for (size_t i = 0; i < INT_BUF_SIZE; ++i) {
     intBuf[i] = 0;
   }
@@ -48,7 +48,31 @@ DataBuffer::DataBuffer() : _index(0) {
 
 void DataBuffer::reset() { _index = 0; }
 
-void DataBuffer::add(const int val) { intBuf[_index++] = val; }
+void DataBuffer::attach(jint *target, size_t capacity) {
+  _target = target;
+  _capacity = capacity;
+  _index = 0;
+}
+
+void DataBuffer::detach() {
+  _target = intBuf;
+  _capacity = INT_BUF_SIZE;
+}
+
+bool DataBuffer::overflowed() const { return size_t(_index) > _capacity; }
+
+void DataBuffer::set(const int index, const int val) {
+  if (size_t(index) < _capacity) {
+    _target[index] = val;
+  }
+}
+
+void DataBuffer::add(const int val) {
+  if (size_t(_index) < _capacity) {
+    _target[_index] = val;
+  }
+  ++_index;
+}
 
 void DataBuffer::add(const double val) {
   const int preservedDouble = toPreservedDouble(val);
@@ -63,6 +87,10 @@ void DataBuffer::add(const char ch) { add(int(ch)); }
 
 int DataBuffer::getIndex() const { return _index; }
 
+void DataBuffer::rewind(const int index) { _index = index; }
+
+jint DataBuffer::get(const int index) const { return _target[index]; }
+
 void DataBuffer::addFields(const BWAPI::TilePosition &tilePosition) {
   add(tilePosition.x);
   add(tilePosition.y);
@@ -37,7 +37,21 @@ class DataBuffer {
 
   void reset();
 
+  // Redirects all following writes into an externally owned buffer, e.g. a direct Java buffer.
+  void attach(jint *target, size_t capacity);
+  // Restores writing into intBuf.
+  void detach();
+  // Whether more values were added since the last reset than fit into the current target.
+  bool overflowed() const;
+
   int getIndex() const;
+  // Moves the write position back, discarding everything added after index.
+  void rewind(const int index);
+  // Reads back a value that was added earlier.
+  jint get(const int index) const;
+
+  // Overwrites a value that was added earlier, e.g. a length placeholder.
+  void set(const int index, const int val);
 
   void add(const int val);
   void add(const double val);
@@ -81,6 +95,8 @@ class DataBuffer {
 
  private:
   int _index;
+  jint *_target;
+  size_t _capacity;
 
   static double toDegrees(const double radians);
   static double toPreservedBwapiAngle(const double angle);
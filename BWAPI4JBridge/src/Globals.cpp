@@ -27,10 +27,15 @@ namespace Bridge {
 namespace Globals {
 bool finished = false;
 DataBuffer dataBuffer;
+UnitDeltaEncoder unitDeltaEncoder;
+PlayerExtraEncoder playerExtraEncoder;
+OverlayLayers overlayLayers;
 JavaRefs javaRefs;
 Callbacks callbacks;
 JNIEnv *env;
 jobject bw;
+jint *frameBuffer = nullptr;
+size_t frameBufferCapacity = 0;
 
 void initialize(JNIEnv *newEnv, jobject newBW) {
   env = newEnv;
@@ -25,15 +25,23 @@
 #include "Callbacks.h"
 #include "DataBuffer.h"
 #include "JavaRefs.h"
+#include "OverlayLayers.h"
+#include "PlayerExtraEncoder.h"
+#include "UnitDeltaEncoder.h"
 
 namespace Bridge {
 namespace Globals {
 extern bool finished;
 extern DataBuffer dataBuffer;
+extern UnitDeltaEncoder unitDeltaEncoder;
+extern PlayerExtraEncoder playerExtraEncoder;
+extern OverlayLayers overlayLayers;
 extern JavaRefs javaRefs;
 extern Callbacks callbacks;
 extern JNIEnv *env;
 extern jobject bw;
+extern jint *frameBuffer;
+extern size_t frameBufferCapacity;
 
 void initialize(JNIEnv *env, jobject bw);
 
@@ -20,30 +20,19 @@
 
 #include <BWAPI.h>
 
+#include "Globals.h"
+#include "Shapes.h"
 #include "org_openbw_bwapi4j_MapDrawer.h"
 
 JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_MapDrawer_setTextSize_1native(JNIEnv *env, jobject jObj, jint bwapi4jTextSize) {
-  BWAPI::Text::Size::Enum textSize = BWAPI::Text::Size::Default;
-
-  switch (bwapi4jTextSize) {
-    case 0:
-      textSize = BWAPI::Text::Size::Small;
-      break;
-    case 1:
-      textSize = BWAPI::Text::Size::Default;
-      break;
-    case 2:
-      textSize = BWAPI::Text::Size::Large;
-      break;
-    case 3:
-      textSize = BWAPI::Text::Size::Huge;
-      break;
-    default:
-      textSize = BWAPI::Text::Size::Default;
-      break;
-  }
+  Shapes::setTextSize(bwapi4jTextSize);
+}
 
-  BWAPI::Broodwar->setTextSize(textSize);
+JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_MapDrawer_drawShapes_1native(JNIEnv *env, jobject, jintArray shapes, jint count, jobjectArray strings) {
+  const auto stringTable = Shapes::toStrings(env, strings);
+  jint *data = env->GetIntArrayElements(shapes, nullptr);
+  Shapes::draw(data, count, stringTable);
+  env->ReleaseIntArrayElements(shapes, data, JNI_ABORT);
 }
 
 JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_MapDrawer_drawText_1native(JNIEnv *env, jobject, jint coordinateType, jint x, jint y, jstring text) {
@@ -80,3 +69,17 @@ JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_MapDrawer_drawLine_1native(JNIEnv
                                                                           jint color) {
   BWAPI::Broodwar->drawLine(BWAPI::CoordinateType::Enum(coordinateType), ax, ay, bx, by, BWAPI::Color(color));
 }
+
+JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_MapDrawer_uploadLayer_1native(JNIEnv *env, jobject, jint layerId, jintArray shapes, jint count, jobjectArray strings) {
+  jint *data = env->GetIntArrayElements(shapes, nullptr);
+  Bridge::Globals::overlayLayers.set(layerId, data, count, Shapes::toStrings(env, strings));
+  env->ReleaseIntArrayElements(shapes, data, JNI_ABORT);
+}
+
+JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_MapDrawer_setLayerVisible_1native(JNIEnv *, jobject, jint layerId, jboolean visible) {
+  Bridge::Globals::overlayLayers.setVisible(layerId, visible != JNI_FALSE);
+}
+
+JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_MapDrawer_removeLayer_1native(JNIEnv *, jobject, jint layerId) { Bridge::Globals::overlayLayers.remove(layerId); }
+
+JNIEXPORT void JNICALL Java_org_openbw_bwapi4j_MapDrawer_clearLayers_1native(JNIEnv *, jobject) { Bridge::Globals::overlayLayers.clear(); }
@@ -0,0 +1,50 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+#include "OverlayLayers.h"
+
+#include <utility>
+
+#include "Shapes.h"
+
+void OverlayLayers::set(const int layerId, const jint *shapes, const int count, std::vector<std::string> strings) {
+  auto &layer = _layers[layerId];
+  layer.shapes.assign(shapes, shapes + count * Shapes::STRIDE);
+  layer.strings = std::move(strings);
+}
+
+void OverlayLayers::setVisible(const int layerId, const bool visible) {
+  auto layer = _layers.find(layerId);
+  if (layer != _layers.end()) {
+    layer->second.visible = visible;
+  }
+}
+
+void OverlayLayers::remove(const int layerId) { _layers.erase(layerId); }
+
+void OverlayLayers::clear() { _layers.clear(); }
+
+void OverlayLayers::draw() const {
+  for (const auto &entry : _layers) {
+    const auto &layer = entry.second;
+    if (layer.visible) {
+      Shapes::draw(layer.shapes.data(), static_cast<int>(layer.shapes.size()) / Shapes::STRIDE, layer.strings);
+    }
+  }
+}
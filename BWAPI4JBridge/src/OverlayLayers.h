@@ -0,0 +1,52 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+#pragma once
+
+#include <string>
+#include <map>
+#include <vector>
+
+#include <jni.h>
+
+// Shapes uploaded once by MapDrawer.buildLayer and drawn every frame without calling into Java.
+// Shapes use the format of ShapeBuffer.java.
+class OverlayLayers {
+ public:
+  // Replaces the shapes of the given layer, creating it as visible if necessary.
+  void set(int layerId, const jint *shapes, int count, std::vector<std::string> strings);
+
+  void setVisible(int layerId, bool visible);
+
+  void remove(int layerId);
+
+  void clear();
+
+  // Draws all visible layers in the order of their ids. Called once per frame.
+  void draw() const;
+
+ private:
+  struct Layer {
+    std::vector<jint> shapes;
+    std::vector<std::string> strings;
+    bool visible = true;
+  };
+
+  std::map<int, Layer> _layers;
+};
@@ -0,0 +1,72 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+#include "PlayerExtraEncoder.h"
+
+void PlayerExtraEncoder::reset() { _sent.clear(); }
+
+void PlayerExtraEncoder::addPlayer(DataBuffer &dataBuffer, const BWAPI::Player &player) {
+  if (BWAPI::Broodwar->isReplay()) {
+    dataBuffer.add(DataBuffer::NO_VALUE);
+    dataBuffer.add(DataBuffer::NO_VALUE);
+  } else {
+    dataBuffer.add(player->getID() == BWAPI::Broodwar->self()->getID() || player->isAlly(BWAPI::Broodwar->self()));
+    dataBuffer.add(player->getID() != BWAPI::Broodwar->self()->getID() && player->isEnemy(BWAPI::Broodwar->self()));
+  }
+
+  const bool complete = _sent.find(player->getID()) == _sent.end();
+  auto &sent = _sent[player->getID()];
+
+  const int upgradeCountIndex = dataBuffer.getIndex();
+  dataBuffer.add(0);
+  int upgradeCount = 0;
+  for (const auto &upgradeType : BWAPI::UpgradeTypes::allUpgradeTypes()) {
+    const int id = upgradeType.getID();
+    const int level = player->getUpgradeLevel(upgradeType);
+    const bool upgrading = player->isUpgrading(upgradeType);
+    if (complete || level != sent.upgradeLevels[id] || upgrading != sent.upgrading[id]) {
+      dataBuffer.addId(upgradeType);
+      dataBuffer.add(level);
+      dataBuffer.add(upgrading);
+      sent.upgradeLevels[id] = level;
+      sent.upgrading[id] = upgrading;
+      ++upgradeCount;
+    }
+  }
+  dataBuffer.set(upgradeCountIndex, upgradeCount);
+
+  const int techCountIndex = dataBuffer.getIndex();
+  dataBuffer.add(0);
+  int techCount = 0;
+  for (const auto &techType : BWAPI::TechTypes::allTechTypes()) {
+    const int id = techType.getID();
+    const bool researched = player->hasResearched(techType);
+    const bool researching = player->isResearching(techType);
+    if (complete || researched != sent.researched[id] || researching != sent.researching[id]) {
+      dataBuffer.addId(techType);
+      dataBuffer.add(researched);
+      dataBuffer.add(researching);
+      sent.researched[id] = researched;
+      sent.researching[id] = researching;
+      ++techCount;
+    }
+  }
+  dataBuffer.set(techCountIndex, techCount);
+}
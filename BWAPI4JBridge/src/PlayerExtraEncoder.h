@@ -0,0 +1,52 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+#pragma once
+
+#include <unordered_map>
+#include <vector>
+
+#include <BWAPI.h>
+#include <jni.h>
+
+#include "DataBuffer.h"
+
+// Writes the player extras of the frame snapshot. Upgrades and techs change only a few times per
+// game, so only the entries that differ from what was sent for the same player before are written:
+//   ally, enemy,
+//   number of changed upgrades, (upgrade ID, level, is upgrading) per changed upgrade,
+//   number of changed techs, (tech ID, has researched, is researching) per changed tech.
+class PlayerExtraEncoder {
+ public:
+  // Forgets what was sent, so the next entry of each player contains all upgrades and techs.
+  void reset();
+
+  void addPlayer(DataBuffer &dataBuffer, const BWAPI::Player &player);
+
+ private:
+  struct SentState {
+    std::vector<jint> upgradeLevels = std::vector<jint>(BWAPI::UpgradeTypes::Enum::MAX, 0);
+    std::vector<bool> upgrading = std::vector<bool>(BWAPI::UpgradeTypes::Enum::MAX, false);
+    std::vector<bool> researched = std::vector<bool>(BWAPI::TechTypes::Enum::MAX, false);
+    std::vector<bool> researching = std::vector<bool>(BWAPI::TechTypes::Enum::MAX, false);
+  };
+
+  std::unordered_map<int, SentState> _sent;
+};
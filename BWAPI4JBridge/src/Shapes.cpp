@@ -0,0 +1,105 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+#include "Shapes.h"
+
+namespace Shapes {
+BWAPI::Text::Size::Enum toTextSize(const jint bwapi4jTextSize) {
+  switch (bwapi4jTextSize) {
+    case 0:
+      return BWAPI::Text::Size::Small;
+    case 1:
+      return BWAPI::Text::Size::Default;
+    case 2:
+      return BWAPI::Text::Size::Large;
+    case 3:
+      return BWAPI::Text::Size::Huge;
+    default:
+      return BWAPI::Text::Size::Default;
+  }
+}
+
+namespace {
+// Ordinals of MapDrawer.Shape.
+namespace Shape {
+enum Enum { Text = 1, Box, Triangle, Circle, Ellipse, Dot, Line };
+}
+
+// BWAPI has no getter for the text size.
+BWAPI::Text::Size::Enum textSize = BWAPI::Text::Size::Default;
+}  // namespace
+
+void setTextSize(const jint bwapi4jTextSize) {
+  textSize = toTextSize(bwapi4jTextSize);
+  BWAPI::Broodwar->setTextSize(textSize);
+}
+
+void draw(const jint *shapes, const int count, const std::vector<std::string> &strings) {
+  bool textSizeChanged = false;
+  for (int i = 0; i < count; ++i) {
+    const jint *shape = shapes + i * STRIDE;
+    const auto coordinateType = BWAPI::CoordinateType::Enum(shape[1]);
+    const jint *v = shape + 2;
+    switch (shape[0]) {
+      case Shape::Text:
+        BWAPI::Broodwar->setTextSize(toTextSize(v[3]));
+        textSizeChanged = true;
+        BWAPI::Broodwar->drawText(coordinateType, v[0], v[1], "%s", strings[v[2]].c_str());
+        break;
+      case Shape::Box:
+        BWAPI::Broodwar->drawBox(coordinateType, v[0], v[1], v[2], v[3], BWAPI::Color(v[4]), v[5] != 0);
+        break;
+      case Shape::Triangle:
+        BWAPI::Broodwar->drawTriangle(coordinateType, v[0], v[1], v[2], v[3], v[4], v[5], BWAPI::Color(v[6]), v[7] != 0);
+        break;
+      case Shape::Circle:
+        BWAPI::Broodwar->drawCircle(coordinateType, v[0], v[1], v[2], BWAPI::Color(v[3]), v[4] != 0);
+        break;
+      case Shape::Ellipse:
+        BWAPI::Broodwar->drawEllipse(coordinateType, v[0], v[1], v[2], v[3], BWAPI::Color(v[4]), v[5] != 0);
+        break;
+      case Shape::Dot:
+        BWAPI::Broodwar->drawDot(coordinateType, v[0], v[1], BWAPI::Color(v[2]));
+        break;
+      case Shape::Line:
+        BWAPI::Broodwar->drawLine(coordinateType, v[0], v[1], v[2], v[3], BWAPI::Color(v[4]));
+        break;
+      default:
+        break;
+    }
+  }
+  if (textSizeChanged) {
+    BWAPI::Broodwar->setTextSize(textSize);
+  }
+}
+
+std::vector<std::string> toStrings(JNIEnv *env, jobjectArray strings) {
+  std::vector<std::string> result;
+  const jsize length = env->GetArrayLength(strings);
+  result.reserve(length);
+  for (jsize i = 0; i < length; ++i) {
+    auto string = static_cast<jstring>(env->GetObjectArrayElement(strings, i));
+    const char *chars = env->GetStringUTFChars(string, 0);
+    result.emplace_back(chars);
+    env->ReleaseStringUTFChars(string, chars);
+    env->DeleteLocalRef(string);
+  }
+  return result;
+}
+}  // namespace Shapes
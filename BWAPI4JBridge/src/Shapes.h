@@ -0,0 +1,42 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+#pragma once
+
+#include <string>
+#include <vector>
+
+#include <BWAPI.h>
+#include <jni.h>
+
+// Replays shapes recorded by ShapeBuffer.java into Broodwar->draw*.
+namespace Shapes {
+// Number of ints per shape.
+const int STRIDE = 10;
+
+BWAPI::Text::Size::Enum toTextSize(jint bwapi4jTextSize);
+
+// Sets the text size of text drawn directly. draw() restores it after drawing text of other sizes.
+void setTextSize(jint bwapi4jTextSize);
+
+// Draws count shapes in the format of ShapeBuffer.java.
+void draw(const jint *shapes, int count, const std::vector<std::string> &strings);
+
+std::vector<std::string> toStrings(JNIEnv *env, jobjectArray strings);
+}  // namespace Shapes
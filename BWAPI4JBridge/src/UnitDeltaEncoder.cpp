@@ -0,0 +1,79 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+#include "UnitDeltaEncoder.h"
+
+UnitDeltaEncoder::UnitDeltaEncoder() : _enabled(true) {}
+
+void UnitDeltaEncoder::reset(const bool enabled) {
+  _enabled = enabled;
+  clear();
+}
+
+void UnitDeltaEncoder::clear() { _records.clear(); }
+
+void UnitDeltaEncoder::remove(const int unitId) { _records.erase(unitId); }
+
+void UnitDeltaEncoder::addUnit(DataBuffer &dataBuffer, const BWAPI::Unit &unit) {
+  dataBuffer.add(unit->getID());
+  const int kindIndex = dataBuffer.getIndex();
+  dataBuffer.add(FULL);
+  const int lengthIndex = dataBuffer.getIndex();
+  dataBuffer.add(0);
+  const int recordIndex = dataBuffer.getIndex();
+  dataBuffer.addFields(unit);
+  const int length = dataBuffer.getIndex() - recordIndex;
+  dataBuffer.set(lengthIndex, length);
+
+  if (!_enabled || dataBuffer.overflowed()) {
+    return;
+  }
+
+  auto &previous = _records[unit->getID()];
+  if (previous.size() != size_t(length)) {
+    previous.assign(length, 0);
+    for (int i = 0; i < length; ++i) {
+      previous[i] = dataBuffer.get(recordIndex + i);
+    }
+    return;
+  }
+
+  const int maskWords = (length + 31) / 32;
+  _patch.assign(maskWords, 0);
+  for (int i = 0; i < length; ++i) {
+    const jint value = dataBuffer.get(recordIndex + i);
+    if (value != previous[i]) {
+      _patch[i / 32] = jint(uint32_t(_patch[i / 32]) | (1U << (i % 32)));
+      _patch.push_back(value);
+      previous[i] = value;
+    }
+  }
+
+  if (_patch.size() == size_t(maskWords)) {
+    dataBuffer.set(kindIndex, UNCHANGED);
+    dataBuffer.rewind(lengthIndex);
+  } else if (_patch.size() < size_t(length)) {
+    dataBuffer.set(kindIndex, PATCH);
+    dataBuffer.rewind(lengthIndex);
+    for (const auto value : _patch) {
+      dataBuffer.add(int(value));
+    }
+  }
+}
@@ -0,0 +1,56 @@
+////////////////////////////////////////////////////////////////////////////////
+//
+//    Copyright (C) 2017-2018 OpenBW Team
+//
+//    This file is part of BWAPI4J.
+//
+//    BWAPI4J is free software: you can redistribute it and/or modify
+//    it under the terms of the Lesser GNU General Public License as published
+//    by the Free Software Foundation, version 3 only.
+//
+//    BWAPI4J is distributed in the hope that it will be useful,
+//    but WITHOUT ANY WARRANTY; without even the implied warranty of
+//    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+//    GNU General Public License for more details.
+//
+//    You should have received a copy of the GNU General Public License
+//    along with BWAPI4J.  If not, see <http://www.gnu.org/licenses/>.
+//
+////////////////////////////////////////////////////////////////////////////////
+
+#pragma once
+
+#include <unordered_map>
+#include <vector>
+
+#include <BWAPI.h>
+#include <jni.h>
+
+#include "DataBuffer.h"
+
+// Writes unit entries of the frame snapshot. Each entry starts with the unit ID and a kind:
+//   UNCHANGED: nothing follows, the record is identical to the one sent last time.
+//   FULL:      the record length followed by the complete record.
+//   PATCH:     one bitmask word per 32 record fields followed by the values of all set bits.
+// Patches are relative to the last record sent for the same unit ID.
+class UnitDeltaEncoder {
+ public:
+  static const jint UNCHANGED = 0;
+  static const jint FULL = 1;
+  static const jint PATCH = 2;
+
+  UnitDeltaEncoder();
+
+  // Forgets all previous records. With deltas disabled every unit is sent as FULL.
+  void reset(const bool enabled);
+  // Forgets all previous records so that every unit is sent as FULL next time.
+  void clear();
+  void remove(const int unitId);
+
+  void addUnit(DataBuffer &dataBuffer, const BWAPI::Unit &unit);
+
+ private:
+  bool _enabled;
+  std::unordered_map<int, std::vector<jint>> _records;
+  std::vector<jint> _patch;
+};